@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов (AIMD).
+ * Пока задержка ниже целевой, лимит растёт на единицу за «окно» из limit запросов;
+ * при превышении целевой задержки лимит уменьшается на 10%, но не чаще одного раза за окно.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    private int completedInWindow;
+    private boolean decreasedInWindow;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // Попытка занять место; при отказе место не занимается
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    // Освобождение места с учётом задержки завершившегося запроса
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        onSample(latencyNanos);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long latencyNanos) {
+        if (latencyNanos > targetLatencyNanos) {
+            if (!decreasedInWindow) {
+                limit = Math.max(minLimit, (int) (limit * 0.9));
+                decreasedInWindow = true;
+            }
+        }
+
+        if (++completedInWindow >= limit) {
+            if (!decreasedInWindow) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            completedInWindow = 0;
+            decreasedInWindow = false;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.yandex.practicum.filmorate.error.ErrorResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Контроль допуска к дорогим эндпоинтам (включение: filmorate.admission.enabled=true): корзина токенов
+ * на клиента и адаптивный лимит одновременных запросов на эндпоинт. Отказ отдаётся сразу, не занимая
+ * обработчик, поэтому дешёвые запросы (getFilm, getUser) не ждут освобождения рабочих потоков.
+ * Клиент определяется по IP-адресу; заголовку X-Client-Id верят только от доверенных прокси.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "filmorate.admission", name = "enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    // Заголовок, которым доверенный прокси передаёт идентификатор клиента вместо своего IP-адреса
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    // Атрибут запроса, который уже прошёл контроль допуска на другом узле кластера
+    public static final String EXEMPT_ATTRIBUTE = AdmissionControlFilter.class.getName() + ".EXEMPT";
+
+    private final AdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    // Корзины в порядке последнего обращения: при переполнении вытесняется самый давний клиент
+    private final Map<String, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > properties.getMaxClients();
+        }
+    };
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointCost cost = EndpointCost.classify(
+                request.getMethod(),
+                request.getRequestURI(),
+                request::getParameterValues,
+                properties.getPopularExpensiveFrom()
+        );
+
+        // Дешёвые и уже допущенные запросы проходят без ограничений
+        if (cost == null || request.getAttribute(EXEMPT_ATTRIBUTE) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = bucket(clientId(request), now).tryConsume(cost.tokens(), now);
+        if (waitNanos > 0) {
+            log.debug("Запрос к {} отклонён: исчерпан лимит клиента.", cost.endpoint());
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos),
+                    "Превышен лимит запросов клиента.");
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(cost.endpoint(), endpoint ->
+                new AdaptiveConcurrencyLimiter(
+                        properties.getInitialConcurrency(),
+                        properties.getMinConcurrency(),
+                        properties.getMaxConcurrency(),
+                        properties.getTargetLatencyMs()
+                ));
+
+        if (!limiter.tryAcquire()) {
+            log.debug("Запрос к {} отклонён: достигнут лимит {} одновременных запросов.",
+                    cost.endpoint(), limiter.getLimit());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Сервис перегружен, повторите запрос позже.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    // Текущие лимиты эндпоинтов
+    public Map<String, AdaptiveConcurrencyLimiter> getLimiters() {
+        return Collections.unmodifiableMap(limiters);
+    }
+
+    // Количество отслеживаемых клиентов
+    public int getClientCount() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    private TokenBucket bucket(String clientId, long now) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(clientId, id ->
+                    new TokenBucket(properties.getBucketCapacity(), properties.getRefillPerSecond(), now));
+        }
+    }
+
+    // Идентификатор клиента: IP-адрес, а за доверенным прокси — переданный им заголовок
+    private String clientId(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (properties.getTrustedProxies().contains(address)) {
+            String header = request.getHeader(CLIENT_ID_HEADER);
+            if (header != null && !header.isBlank()) {
+                return header;
+            }
+        }
+        return address;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfter, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки допуска запросов к дорогим эндпоинтам (filmorate.admission.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.admission")
+public class AdmissionProperties {
+    // Включение контроля допуска
+    private boolean enabled = false;
+
+    // Начальный, минимальный и максимальный лимит одновременных запросов на эндпоинт
+    private int initialConcurrency = 16;
+    private int minConcurrency = 2;
+    private int maxConcurrency = 64;
+
+    // Целевая задержка дорогого запроса: при превышении лимит уменьшается
+    private long targetLatencyMs = 250;
+
+    // Ёмкость корзины токенов клиента и скорость её пополнения в секунду
+    private int bucketCapacity = 100;
+    private int refillPerSecond = 50;
+
+    // Размер списка популярных фильмов, начиная с которого запрос считается дорогим
+    private int popularExpensiveFrom = 100;
+
+    // Максимальное количество отслеживаемых клиентов
+    private int maxClients = 10_000;
+
+    // IP-адреса прокси, которым разрешено передавать идентификатор клиента в заголовке X-Client-Id
+    private List<String> trustedProxies = new ArrayList<>();
+}
@@ -0,0 +1,94 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Стоимость дорогого запроса: эндпоинт, к которому применяется лимит одновременности,
+ * и количество токенов, списываемых из корзины клиента.
+ */
+public record EndpointCost(String endpoint, int tokens) {
+    private static final Pattern MUTUAL_FRIENDS = Pattern.compile("^/users/[^/]+/friends/common/[^/]+/?$");
+    private static final Pattern FRIEND_PATH = Pattern.compile("^/users/[^/]+/path/[^/]+/?$");
+    private static final Pattern FRIENDS_FEED = Pattern.compile("^/users/[^/]+/feed/popular/?$");
+
+    // Определение стоимости запроса по всем значениям параметров; null означает дешёвый запрос без ограничений
+    public static EndpointCost classify(String method, String path, Function<String, String[]> parameters,
+                                        int popularExpensiveFrom) {
+        if (!"GET".equals(method)) {
+            return null;
+        }
+
+        // Получение по списку ID стоит пропорционально длине списка: ids=1,2 и ids=1&ids=2 равноценны
+        String[] ids = parameters.apply("ids");
+        if (ids != null && (path.equals("/films") || path.equals("/users"))) {
+            int count = countIds(ids);
+            return count > 100 ? new EndpointCost("multi-get", 1 + count / 100) : null;
+        }
+
+        if (path.equals("/films") || path.equals("/films/")) {
+            return new EndpointCost("films-list", 5);
+        }
+
+        if (path.equals("/users") || path.equals("/users/")) {
+            // Поиск по электронной почте или логину выполняется по индексу
+            if (parameters.apply("email") != null || parameters.apply("login") != null) {
+                return null;
+            }
+            return new EndpointCost("users-list", 5);
+        }
+
+        // Общие друзья группы стоят пропорционально размеру группы
+        if (path.equals("/users/friends/common")) {
+            int count = ids == null ? 0 : countIds(ids);
+            return new EndpointCost("common-friends", 1 + count / 100);
+        }
+
+        // Поиск цепочки друзей растёт с глубиной, поэтому стоимость зависит от неё
+        if (FRIEND_PATH.matcher(path).matches()) {
+            String maxDepth = first(parameters.apply("maxDepth"));
+            return new EndpointCost("friend-path", 1 + (maxDepth == null ? 6 : parseAmount(maxDepth)) / 3);
+        }
+
+        // Лента обходит лайки всех друзей пользователя, если не взята из кэша
+        if (FRIENDS_FEED.matcher(path).matches()) {
+            return new EndpointCost("friends-feed", 2);
+        }
+
+        if (path.equals("/films/popular")) {
+            int size = parseAmount(first(parameters.apply("amount")));
+            return size >= popularExpensiveFrom ? new EndpointCost("popular", 1 + size / 1000) : null;
+        }
+
+        if (MUTUAL_FRIENDS.matcher(path).matches()) {
+            return new EndpointCost("mutual-friends", 1);
+        }
+
+        return null;
+    }
+
+    // Количество ID во всех значениях параметра
+    private static int countIds(String[] values) {
+        int count = 0;
+        for (String value : values) {
+            count += value.split(",").length;
+        }
+        return count;
+    }
+
+    private static String first(String[] values) {
+        return values == null || values.length == 0 ? null : values[0];
+    }
+
+    private static int parseAmount(String amount) {
+        if (amount == null) {
+            return 10;
+        }
+
+        try {
+            return Integer.parseInt(amount.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
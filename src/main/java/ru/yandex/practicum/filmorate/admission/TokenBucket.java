@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Корзина токенов клиента. Пополняется лениво при каждом обращении.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, int refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    // Списание токенов. Возвращает 0 при успехе или время ожидания в наносекундах до накопления нужного количества
+    public synchronized long tryConsume(int cost, long nowNanos) {
+        refill(nowNanos);
+
+        if (tokens >= cost) {
+            tokens -= cost;
+            return 0;
+        }
+
+        return (long) Math.ceil((cost - tokens) / refillPerNano);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.bulk;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Строка NDJSON-выгрузки: {"type":"user|film|like|friendship","data":{...}}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = BulkRecord.UserRecord.class, name = "user"),
+        @JsonSubTypes.Type(value = BulkRecord.FilmRecord.class, name = "film"),
+        @JsonSubTypes.Type(value = BulkRecord.LikeRecord.class, name = "like"),
+        @JsonSubTypes.Type(value = BulkRecord.FriendshipRecord.class, name = "friendship")
+})
+public sealed interface BulkRecord {
+    record UserRecord(User data) implements BulkRecord {
+    }
+
+    record FilmRecord(Film data) implements BulkRecord {
+    }
+
+    record LikeRecord(Like data) implements BulkRecord {
+    }
+
+    record FriendshipRecord(Friendship data) implements BulkRecord {
+    }
+}
@@ -0,0 +1,352 @@
+package ru.yandex.practicum.filmorate.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.config.FieldsetConfig;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.*;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Потоковые выгрузка и загрузка всех данных в формате NDJSON.
+ * Импорт читает строки пачками, разбирает и валидирует пачки параллельно, а применяет
+ * их к хранилищам по порядку в вызывающем потоке через массовые методы хранилищ.
+ * В памяти одновременно находится не больше MAX_IN_FLIGHT_PER_CPU пачек на процессор.
+ */
+@Slf4j
+@Service
+public class BulkService {
+    // Количество строк в одной пачке разбора
+    static final int BATCH_SIZE = 1000;
+
+    // Количество пачек в обработке на один поток пула
+    static final int MAX_IN_FLIGHT_PER_CPU = 2;
+
+    // Наибольшее количество ошибок, попадающих в отчёт
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final UserStorage userStorage;
+    private final FilmStorage filmStorage;
+    private final Validator validator;
+    private final ObjectReader recordReader;
+    private final ObjectWriter recordWriter;
+    private final Executor executor = ForkJoinPool.commonPool();
+    private final int maxInFlight = MAX_IN_FLIGHT_PER_CPU * ForkJoinPool.getCommonPoolParallelism();
+
+    public BulkService(UserStorage userStorage, FilmStorage filmStorage, ObjectMapper mapper, Validator validator) {
+        this.userStorage = userStorage;
+        this.filmStorage = filmStorage;
+        this.validator = validator;
+        this.recordReader = mapper.readerFor(BulkRecord.class);
+        this.recordWriter = recordWriter(mapper);
+    }
+
+    // Запись строк выгрузки, по одной записи на строку; поток вывода после записи не закрывается
+    public static ObjectWriter recordWriter(ObjectMapper mapper) {
+        // Друзья и лайки выгружаются отдельными записями, поэтому из моделей исключаются
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .addFilter(FieldsetConfig.FILTER_ID, SimpleBeanPropertyFilter.serializeAllExcept(
+                        "friends", "friendCount", "likes", "likeCount"))
+                .setFailOnUnknownId(false);
+        return mapper.writerFor(BulkRecord.class)
+                .with(filters)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // Выгрузка всех данных: пользователи, фильмы, лайки, дружба (каждая пара один раз)
+    public void export(OutputStream out) throws IOException {
+        List<User> users = userStorage.getUsers();
+        List<Film> films = filmStorage.getAllFilms();
+
+        try (SequenceWriter writer = recordWriter.writeValues(out)) {
+            for (User user : users) {
+                writer.write(new BulkRecord.UserRecord(user));
+            }
+
+            for (Film film : films) {
+                writer.write(new BulkRecord.FilmRecord(film));
+            }
+
+            for (Film film : films) {
+                for (Integer userId : film.getLikes()) {
+                    writer.write(new BulkRecord.LikeRecord(new Like(film.getId(), userId)));
+                }
+            }
+
+            for (User user : users) {
+                for (Integer friendId : user.getFriends()) {
+                    if (user.getId() < friendId) {
+                        writer.write(new BulkRecord.FriendshipRecord(new Friendship(user.getId(), friendId)));
+                    }
+                }
+            }
+        }
+
+        out.write('\n');
+        out.flush();
+    }
+
+    // Загрузка данных из NDJSON; записи с существующими ID и ссылками на несуществующие сущности отклоняются
+    public ImportReport importRecords(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        Deque<CompletableFuture<ParsedBatch>> inFlight = new ArrayDeque<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>(BATCH_SIZE);
+        long firstLine = 1;
+        long lineNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+            lineNumber++;
+
+            if (lines.size() == BATCH_SIZE) {
+                submit(lines, firstLine, inFlight, progress);
+                lines = new ArrayList<>(BATCH_SIZE);
+                firstLine = lineNumber + 1;
+            }
+        }
+
+        if (!lines.isEmpty()) {
+            submit(lines, firstLine, inFlight, progress);
+        }
+
+        // Применение оставшихся пачек в порядке чтения
+        while (!inFlight.isEmpty()) {
+            apply(inFlight.poll().join(), progress);
+        }
+
+        ImportReport report = progress.toReport(System.nanoTime() - started);
+        log.info("Импорт завершён: {} строк, {} отклонено, {} записей/с.",
+                report.lines(), report.rejected(), Math.round(report.recordsPerSecond()));
+        return report;
+    }
+
+    // Отправка пачки на разбор; при заполнении очереди применяется самая старая пачка
+    private void submit(List<String> lines, long firstLine,
+                        Deque<CompletableFuture<ParsedBatch>> inFlight, ImportProgress progress) {
+        inFlight.add(CompletableFuture.supplyAsync(() -> parse(lines, firstLine), executor));
+
+        if (inFlight.size() >= maxInFlight) {
+            apply(inFlight.poll().join(), progress);
+        }
+    }
+
+    // Разбор и валидация пачки строк; выполняется в пуле потоков и не обращается к хранилищам
+    private ParsedBatch parse(List<String> lines, long firstLine) {
+        ParsedBatch batch = new ParsedBatch();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            long lineNumber = firstLine + i;
+
+            if (line.isBlank()) {
+                continue;
+            }
+
+            batch.lines++;
+            try {
+                switch (recordReader.<BulkRecord>readValue(line)) {
+                    case null -> throw new ValidationException("Запись не содержит данных.");
+                    case BulkRecord.UserRecord record -> batch.users.add(new Parsed<>(lineNumber, checkUser(record.data())));
+                    case BulkRecord.FilmRecord record -> batch.films.add(new Parsed<>(lineNumber, checkFilm(record.data())));
+                    case BulkRecord.LikeRecord record -> batch.likes.add(new Parsed<>(lineNumber, checkLike(record.data())));
+                    case BulkRecord.FriendshipRecord record ->
+                            batch.friendships.add(new Parsed<>(lineNumber, checkFriendship(record.data())));
+                }
+            } catch (JsonProcessingException e) {
+                batch.errors.add(new Parsed<>(lineNumber, "Некорректная запись: " + e.getOriginalMessage()));
+            } catch (RuntimeException e) {
+                batch.errors.add(new Parsed<>(lineNumber, e.getMessage()));
+            }
+        }
+
+        return batch;
+    }
+
+    // Применение разобранной пачки: сначала пользователи и фильмы, затем ссылающиеся на них связи
+    private void apply(ParsedBatch batch, ImportProgress progress) {
+        progress.lines += batch.lines;
+        batch.errors.forEach(error -> progress.reject(error.line(), error.value()));
+
+        Map<Integer, Parsed<User>> users = new LinkedHashMap<>();
+        for (Parsed<User> parsed : batch.users) {
+            int id = parsed.value().getId();
+            if (userStorage.containsUser(id) || users.putIfAbsent(id, parsed) != null) {
+                progress.reject(parsed.line(), "Пользователь с id = " + id + " уже существует.");
+            }
+        }
+        List<User> conflicting = userStorage.addUsers(users.values().stream().map(Parsed::value).toList());
+        for (User user : conflicting) {
+            progress.reject(users.get(user.getId()).line(),
+                    "Электронная почта или логин пользователя с id = " + user.getId() + " уже используются.");
+        }
+        progress.users += users.size() - conflicting.size();
+
+        // Проверка по хранилищу отсеивает известные повторы, а фильм, занявший ID одновременно с импортом,
+        // хранилище вернёт сам
+        Map<Integer, Parsed<Film>> films = new LinkedHashMap<>();
+        for (Parsed<Film> parsed : batch.films) {
+            int id = parsed.value().getId();
+            if (filmStorage.containsFilm(id) || films.putIfAbsent(id, parsed) != null) {
+                progress.reject(parsed.line(), "Фильм с id = " + id + " уже существует.");
+            }
+        }
+        List<Film> takenIds = filmStorage.addFilms(films.values().stream().map(Parsed::value).toList());
+        for (Film film : takenIds) {
+            progress.reject(films.get(film.getId()).line(), "Фильм с id = " + film.getId() + " уже существует.");
+        }
+        progress.films += films.size() - takenIds.size();
+
+        List<Like> likes = new ArrayList<>(batch.likes.size());
+        for (Parsed<Like> parsed : batch.likes) {
+            Like like = parsed.value();
+            if (filmStorage.containsFilm(like.filmId()) && userStorage.containsUser(like.userId())) {
+                likes.add(like);
+            } else {
+                progress.reject(parsed.line(), "Лайк ссылается на несуществующий фильм или пользователя.");
+            }
+        }
+        progress.likes += filmStorage.addLikes(likes);
+
+        List<Friendship> friendships = new ArrayList<>(batch.friendships.size());
+        for (Parsed<Friendship> parsed : batch.friendships) {
+            Friendship friendship = parsed.value();
+            if (userStorage.containsUser(friendship.userId()) && userStorage.containsUser(friendship.friendId())) {
+                friendships.add(friendship);
+            } else {
+                progress.reject(parsed.line(), "Дружба ссылается на несуществующего пользователя.");
+            }
+        }
+        progress.friendships += userStorage.addFriendships(friendships);
+    }
+
+    // Проверка пользователя из выгрузки; друзья загружаются отдельными записями
+    private User checkUser(User user) {
+        checkData(user);
+        checkId(user.getId());
+        user.setFriends(null);
+        return user;
+    }
+
+    // Проверка фильма из выгрузки и замена рейтинга MPA на запись справочника
+    private Film checkFilm(Film film) {
+        checkData(film);
+        checkId(film.getId());
+
+        if (film.getMpa() != null) {
+            film.setMpa(Mpa.of(film.getMpa().getId())
+                    .orElseThrow(() -> new ValidationException("Рейтинг MPA с таким ID не найден.")));
+        }
+
+        if ((film.getGenreMask() & ~Genre.KNOWN_MASK) != 0) {
+            throw new ValidationException("Жанр с таким ID не найден.");
+        }
+
+        film.setLikes(null);
+        return film;
+    }
+
+    // Проверка лайка из выгрузки
+    private Like checkLike(Like like) {
+        if (like == null) {
+            throw new ValidationException("Запись не содержит данных.");
+        }
+        checkId(like.filmId());
+        checkId(like.userId());
+        return like;
+    }
+
+    // Проверка дружбы из выгрузки
+    private Friendship checkFriendship(Friendship friendship) {
+        if (friendship == null) {
+            throw new ValidationException("Запись не содержит данных.");
+        }
+        checkId(friendship.userId());
+        checkId(friendship.friendId());
+
+        if (friendship.userId() == friendship.friendId()) {
+            throw new ValidationException("Пользователь не может дружить сам с собой.");
+        }
+        return friendship;
+    }
+
+    // Валидация модели по аннотациям
+    private <T> void checkData(T data) {
+        if (data == null) {
+            throw new ValidationException("Запись не содержит данных.");
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(data);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.iterator().next().getMessage());
+        }
+    }
+
+    // Проверка ID записи
+    private static void checkId(int id) {
+        if (id <= 0) {
+            throw new ValidationException("ID должен быть положительным.");
+        }
+    }
+
+    // Значение с номером строки, из которой оно прочитано
+    private record Parsed<T>(long line, T value) {
+    }
+
+    // Результат разбора одной пачки строк
+    private static final class ParsedBatch {
+        private final List<Parsed<User>> users = new ArrayList<>();
+        private final List<Parsed<Film>> films = new ArrayList<>();
+        private final List<Parsed<Like>> likes = new ArrayList<>();
+        private final List<Parsed<Friendship>> friendships = new ArrayList<>();
+        private final List<Parsed<String>> errors = new ArrayList<>();
+        private long lines;
+    }
+
+    // Накопленные итоги импорта
+    private static final class ImportProgress {
+        private final List<String> errors = new ArrayList<>();
+        private long lines;
+        private long rejected;
+        private int users;
+        private int films;
+        private int likes;
+        private int friendships;
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Строка " + line + ": " + message);
+            }
+        }
+
+        private ImportReport toReport(long durationNanos) {
+            long imported = (long) users + films + likes + friendships;
+            double seconds = Math.max(durationNanos, 1) / 1_000_000_000.0;
+            return new ImportReport(lines, users, films, likes, friendships, rejected,
+                    List.copyOf(errors), durationNanos / 1_000_000, imported / seconds);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.bulk;
+
+import java.util.List;
+
+/**
+ * Итоги импорта NDJSON.
+ *
+ * @param lines            количество прочитанных непустых строк
+ * @param rejected         количество отклонённых строк
+ * @param errors           первые ошибки с номерами строк
+ * @param recordsPerSecond пропускная способность импорта
+ */
+public record ImportReport(long lines,
+                           int users,
+                           int films,
+                           int likes,
+                           int friendships,
+                           long rejected,
+                           List<String> errors,
+                           long durationMs,
+                           double recordsPerSecond) {
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.yandex.practicum.filmorate.admission.AdmissionControlFilter;
+import ru.yandex.practicum.filmorate.error.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Проверка запросов между узлами кластера по общему секрету (filmorate.cluster.secret).
+ * Внутренние эндпоинты /cluster/** доступны только узлам. Запрос с верным секретом помечается
+ * как пришедший от узла: маршрутизация выполняет его на месте, а контроль допуска пропускает,
+ * потому что запрос клиента уже проверен узлом, который его принял.
+ */
+@Slf4j
+public class ClusterAuthFilter extends OncePerRequestFilter {
+    // Атрибут запроса, отправленного другим узлом кластера
+    public static final String NODE_REQUEST_ATTRIBUTE = ClusterAuthFilter.class.getName() + ".NODE_REQUEST";
+
+    private final byte[] secret;
+    private final ObjectMapper jsonMapper;
+
+    public ClusterAuthFilter(String secret, ObjectMapper jsonMapper) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isFromNode(request)) {
+            request.setAttribute(NODE_REQUEST_ATTRIBUTE, Boolean.TRUE);
+            request.setAttribute(AdmissionControlFilter.EXEMPT_ATTRIBUTE, Boolean.TRUE);
+        } else if (isInternal(request.getRequestURI())) {
+            log.warn("Запрос {} {} к внутреннему эндпоинту отклонён: нет секрета узлов.", request.getMethod(),
+                    request.getRequestURI());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            jsonMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("Эндпоинт доступен только узлам кластера."));
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    // Секрет сравнивается за время, не зависящее от длины совпавшего начала
+    private boolean isFromNode(HttpServletRequest request) {
+        String header = request.getHeader(ClusterClient.SECRET_HEADER);
+        return header != null && MessageDigest.isEqual(secret, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isInternal(String uri) {
+        return "/cluster".equals(uri) || uri.startsWith("/cluster/");
+    }
+}
@@ -0,0 +1,197 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import ru.yandex.practicum.filmorate.config.WireFormatConfig;
+import ru.yandex.practicum.filmorate.exceptions.NodeUnavailableException;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * HTTP-клиент для обращения к другим узлам кластера. Узлы обмениваются данными в формате Smile,
+ * который сервер уже поддерживает (WireFormatConfig). Ответы 400, 404 и 412 превращаются
+ * в те же исключения, что выбросил бы локальный вызов, остальные ошибки — в NodeUnavailableException.
+ */
+public class ClusterClient {
+    // Заголовок запроса, уже направленного на нужный узел: такой запрос выполняется там, куда пришёл
+    public static final String LOCAL_HEADER = "X-Filmorate-Local";
+
+    // Заголовок с общим секретом узлов, подтверждающий, что запрос отправлен другим узлом
+    public static final String SECRET_HEADER = "X-Filmorate-Cluster-Secret";
+
+    // Заголовок ответа с номером узла, выполнившего запрос
+    public static final String NODE_HEADER = "X-Filmorate-Node";
+
+    private static final String SMILE = WireFormatConfig.APPLICATION_SMILE_VALUE;
+
+    private final List<String> nodes;
+    private final int self;
+    private final Duration timeout;
+    private final String secret;
+    private final ObjectMapper mapper;
+    private final HttpClient http;
+
+    public ClusterClient(List<String> nodes, int self, Duration timeout, String secret, ObjectMapper mapper) {
+        this.nodes = nodes.stream()
+                .map(node -> node.endsWith("/") ? node.substring(0, node.length() - 1) : node)
+                .toList();
+        this.self = self;
+        this.timeout = timeout;
+        this.secret = secret;
+        this.mapper = mapper.copy()
+                .addMixIn(Film.class, VersionMixin.class)
+                .addMixIn(User.class, VersionMixin.class);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    // Запрос к узлу с ожиданием ответа; type == null — тело ответа не нужно
+    public <T> T call(int node, String method, String path, Object body, TypeReference<T> type) {
+        return join(callAsync(node, method, path, body, type));
+    }
+
+    // Запрос к узлу без ожидания ответа
+    public <T> CompletableFuture<T> callAsync(int node, String method, String path, Object body,
+                                              TypeReference<T> type) {
+        HttpRequest.Builder request = request(node, path).header(HttpHeaders.ACCEPT, SMILE);
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header(HttpHeaders.CONTENT_TYPE, SMILE)
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(write(body)));
+        }
+
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw unavailable(node, error instanceof CompletionException ? error.getCause() : error);
+                    }
+                    return read(node, response, type);
+                });
+    }
+
+    // Один и тот же запрос ко всем остальным узлам параллельно; ответы в порядке номеров узлов
+    public <T> List<T> gather(String method, String path, Object body, TypeReference<T> type) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(nodes.size());
+        for (int node = 0; node < nodes.size(); node++) {
+            if (node != self) {
+                futures.add(callAsync(node, method, path, body, type));
+            }
+        }
+        return futures.stream().map(ClusterClient::join).toList();
+    }
+
+    // Запросы к нескольким узлам параллельно, у каждого узла своё тело запроса
+    public <T> Map<Integer, T> scatter(String method, String path, Map<Integer, ?> bodies, TypeReference<T> type) {
+        Map<Integer, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        bodies.forEach((node, body) -> futures.put(node, callAsync(node, method, path, body, type)));
+
+        Map<Integer, T> responses = new LinkedHashMap<>();
+        futures.forEach((node, future) -> responses.put(node, join(future)));
+        return responses;
+    }
+
+    // Построитель запроса к узлу с секретом узлов и пометкой, что маршрутизация уже выполнена
+    public HttpRequest.Builder request(int node, String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(nodes.get(node) + pathAndQuery))
+                .timeout(timeout)
+                .header(SECRET_HEADER, secret)
+                .header(LOCAL_HEADER, "true");
+    }
+
+    // Отправка запроса с получением ответа как есть, без разбора статуса
+    public HttpResponse<byte[]> exchange(int node, HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw unavailable(node, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw unavailable(node, e);
+        }
+    }
+
+    private <T> T read(int node, HttpResponse<byte[]> response, TypeReference<T> type) {
+        int status = response.statusCode();
+        if (status / 100 == 2) {
+            if (type == null || response.body().length == 0) {
+                return null;
+            }
+            try {
+                return mapper.readValue(response.body(), type);
+            } catch (IOException e) {
+                throw unavailable(node, e);
+            }
+        }
+
+        String message = description(response.body());
+        switch (status) {
+            case 400 -> throw new ValidationException(message);
+            case 404 -> throw new NotFoundException(message);
+            case 412 -> throw new PreconditionFailedException(message);
+            default -> throw new NodeUnavailableException("Узел " + node + " ответил статусом " + status + ". "
+                    + message, null);
+        }
+    }
+
+    // Текст ошибки из ответа узла (ErrorResponse)
+    private String description(byte[] body) {
+        try {
+            return mapper.readTree(body).path("description").asText("");
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private byte[] write(Object body) {
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static NodeUnavailableException unavailable(int node, Throwable cause) {
+        return new NodeUnavailableException("Узел " + node + " недоступен: " + cause, cause);
+    }
+
+    // Ожидание ответа с исключением, выброшенным при его разборе
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Версия сущности передаётся между узлами в обе стороны, хотя клиенты API её не задают
+    private abstract static class VersionMixin {
+        @JsonProperty(access = JsonProperty.Access.READ_WRITE)
+        private long version;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.yandex.practicum.filmorate.persistence.PersistenceProperties;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.NodeFilmStorage;
+import ru.yandex.practicum.filmorate.storage.NodeUserStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.time.Duration;
+
+/**
+ * Работа в кластере (включение: filmorate.cluster.enabled=true). Каждый узел хранит в памяти фильмы
+ * и пользователей, ID которых ему принадлежат, и выдаёт новые ID только из своей части; сервисы получают
+ * хранилища, обращающиеся за чужими данными к другим узлам, а фильтр передаёт запросы по ID их владельцам.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "filmorate.cluster", name = "enabled", havingValue = "true")
+public class ClusterConfig {
+    // Отложенная запись сохраняет только данные узла и загрузила бы их без учёта разбиения, поэтому не совместима;
+    // без общего секрета внутренние эндпоинты были бы открыты клиентам
+    @Bean
+    public Partitioner partitioner(ClusterProperties properties, PersistenceProperties persistenceProperties) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("Для режима кластера задайте общий секрет узлов filmorate.cluster.secret.");
+        }
+        if ("write-behind".equals(persistenceProperties.getMode())) {
+            throw new IllegalStateException("Режим кластера не совместим с filmorate.storage.mode=write-behind.");
+        }
+
+        Partitioner partitioner = new Partitioner(properties.getNodes().size(), properties.getNodeIndex());
+        log.info("Узел {} из {} в кластере {}.", partitioner.self(), partitioner.nodes(), properties.getNodes());
+        return partitioner;
+    }
+
+    @Bean
+    public ClusterClient clusterClient(ClusterProperties properties, Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper smileMapper = builder.factory(new SmileFactory()).build();
+        return new ClusterClient(properties.getNodes(), properties.getNodeIndex(),
+                Duration.ofMillis(properties.getTimeoutMs()), properties.getSecret(), smileMapper);
+    }
+
+    @Bean
+    public FilmVersionVector filmVersionVector(ClusterProperties properties, ClusterClient clusterClient) {
+        return new FilmVersionVector(clusterClient, Duration.ofMillis(properties.getVersionTtlMs()));
+    }
+
+    @Bean
+    @Primary
+    public UserStorage clusterUserStorage(NodeUserStorage userStorage, Partitioner partitioner,
+                                          ClusterClient clusterClient) {
+        userStorage.setIdFilter(partitioner::isLocal);
+        return new ClusterUserStorage(userStorage, partitioner, clusterClient);
+    }
+
+    @Bean
+    @Primary
+    public FilmStorage clusterFilmStorage(NodeFilmStorage filmStorage, Partitioner partitioner,
+                                          ClusterClient clusterClient, FilmVersionVector filmVersionVector) {
+        filmStorage.setIdFilter(partitioner::isLocal);
+        return new ClusterFilmStorage(filmStorage, partitioner, clusterClient, filmVersionVector);
+    }
+
+    @Bean
+    @Primary
+    public FeedService clusterFeedService(UserStorage clusterUserStorage, FilmStorage clusterFilmStorage,
+                                          NodeFilmStorage filmStorage, ClusterClient clusterClient) {
+        return new ClusterFeedService(clusterUserStorage, clusterFilmStorage, filmStorage, clusterClient);
+    }
+
+    // Проверка секрета узлов до контроля допуска, который пропускает запросы от других узлов
+    @Bean
+    public FilterRegistrationBean<ClusterAuthFilter> clusterAuthFilter(ClusterProperties properties,
+                                                                       ObjectMapper objectMapper) {
+        FilterRegistrationBean<ClusterAuthFilter> registration =
+                new FilterRegistrationBean<>(new ClusterAuthFilter(properties.getSecret(), objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    // Маршрутизация после замеров и контроля допуска, чтобы они учитывали и переданные другим узлам запросы
+    @Bean
+    public FilterRegistrationBean<ClusterRoutingFilter> clusterRoutingFilter(Partitioner partitioner,
+                                                                             ClusterClient clusterClient,
+                                                                             FilmVersionVector filmVersionVector,
+                                                                             ObjectMapper objectMapper) {
+        FilterRegistrationBean<ClusterRoutingFilter> registration = new FilterRegistrationBean<>(
+                new ClusterRoutingFilter(partitioner, clusterClient, filmVersionVector, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,182 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmStats;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserStats;
+import ru.yandex.practicum.filmorate.service.FeedRanking;
+import ru.yandex.practicum.filmorate.storage.NodeFilmStorage;
+import ru.yandex.practicum.filmorate.storage.NodeUserStorage;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Внутренние эндпоинты узла кластера: операции только над данными этого узла.
+ * Их вызывают другие узлы при scatter-gather; клиентам API они не предназначены.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "filmorate.cluster", name = "enabled", havingValue = "true")
+@RequestMapping("/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+    private final NodeUserStorage userStorage;
+    private final NodeFilmStorage filmStorage;
+
+    // Номер запуска узла: отличает версии данных до и после перезапуска
+    private final long incarnation = ThreadLocalRandom.current().nextLong();
+
+    @GetMapping("/users")
+    public List<User> getUsers() {
+        return userStorage.getUsers();
+    }
+
+    @GetMapping(value = "/users", params = "email")
+    public List<User> getUserByEmail(@RequestParam String email) {
+        return userStorage.findByEmail(email).stream().toList();
+    }
+
+    @GetMapping(value = "/users", params = "login")
+    public List<User> getUserByLogin(@RequestParam String login) {
+        return userStorage.findByLogin(login).stream().toList();
+    }
+
+    @PostMapping("/users/lookup")
+    public List<User> lookupUsers(@RequestBody List<Integer> ids) {
+        return userStorage.getUsers(ids).getFound();
+    }
+
+    // ID существующих пользователей из списка
+    @PostMapping("/users/exists")
+    public List<Integer> existingUsers(@RequestBody List<Integer> ids) {
+        return ids.stream().filter(userStorage::containsUser).toList();
+    }
+
+    // Добавление пользователей с назначенными ID; возвращаются отклонённые из-за почты или логина
+    @PostMapping("/users/import")
+    public List<User> importUsers(@RequestBody List<User> users) {
+        return userStorage.addUsers(users);
+    }
+
+    @DeleteMapping("/users")
+    public void deleteUsers() {
+        userStorage.deleteUsers();
+    }
+
+    @GetMapping("/users/stats")
+    public UserStats getUserStats() {
+        return userStorage.getStats();
+    }
+
+    // Половина дружбы пользователя этого узла с пользователем другого узла
+    @PutMapping("/users/{id}/friends/{friendId}")
+    public boolean addFriendLink(@PathVariable int id, @PathVariable int friendId) {
+        return userStorage.addFriendLink(id, friendId);
+    }
+
+    @DeleteMapping("/users/{id}/friends/{friendId}")
+    public boolean deleteFriendLink(@PathVariable int id, @PathVariable int friendId) {
+        return userStorage.deleteFriendLink(id, friendId);
+    }
+
+    @PostMapping("/users/friends/import")
+    public int importFriendLinks(@RequestBody List<Friendship> links) {
+        return userStorage.addFriendLinks(links);
+    }
+
+    @PostMapping("/users/friends/delete")
+    public void deleteFriendLinks(@RequestBody List<Friendship> links) {
+        userStorage.deleteFriendLinks(links);
+    }
+
+    @GetMapping("/films")
+    public List<Film> getFilms() {
+        return filmStorage.getAllFilms();
+    }
+
+    @PostMapping("/films/lookup")
+    public List<Film> lookupFilms(@RequestBody List<Integer> ids) {
+        return filmStorage.getFilms(ids).getFound();
+    }
+
+    // ID существующих фильмов из списка
+    @PostMapping("/films/exists")
+    public List<Integer> existingFilms(@RequestBody List<Integer> ids) {
+        return ids.stream().filter(filmStorage::containsFilm).toList();
+    }
+
+    // Добавление фильмов с назначенными ID; возвращаются отклонённые из-за занятого ID
+    @PostMapping("/films/import")
+    public List<Film> importFilms(@RequestBody List<Film> films) {
+        return filmStorage.addFilms(films);
+    }
+
+    @PostMapping("/films/likes/import")
+    public int importLikes(@RequestBody List<Like> likes) {
+        return filmStorage.addLikes(likes);
+    }
+
+    @DeleteMapping("/films")
+    public void deleteFilms() {
+        filmStorage.deleteFilms();
+    }
+
+    @GetMapping("/films/popular")
+    public List<Film> getPopular(@RequestParam int amount,
+                                 @RequestParam(required = false) Integer genreId,
+                                 @RequestParam(required = false) Integer year) {
+        return filmStorage.getPopular(amount, genreId, year);
+    }
+
+    @GetMapping("/films/liked/{userId}")
+    public List<Film> getLikedFilms(@PathVariable int userId) {
+        return filmStorage.getLikedFilms(userId);
+    }
+
+    @GetMapping("/films/liked/{userId}/ids")
+    public Set<Integer> getLikedFilmIds(@PathVariable int userId) {
+        return filmStorage.getLikedFilmIds(userId);
+    }
+
+    @DeleteMapping("/films/liked/{userId}")
+    public int deleteLikesByUser(@PathVariable int userId) {
+        return filmStorage.deleteLikesByUser(userId);
+    }
+
+    @DeleteMapping("/films/likes")
+    public void deleteLikes() {
+        filmStorage.deleteLikes();
+    }
+
+    @GetMapping("/films/stats")
+    public FilmStats getFilmStats() {
+        return filmStorage.getStats();
+    }
+
+    @GetMapping("/films/version")
+    public NodeVersion getVersion() {
+        return new NodeVersion(incarnation, filmStorage.getVersion());
+    }
+
+    // Рейтинг фильмов этого узла по лайкам группы пользователей (ключи FeedRanking)
+    @PostMapping("/films/feed")
+    public long[] getFeedRanking(@RequestBody List<Integer> userIds, @RequestParam int amount) {
+        return FeedRanking.topKeys(userIds, filmStorage, amount);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FeedRanking;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FeedServiceImpl;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.NodeFilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Лента «популярное среди друзей» в кластере. Лайки фильма хранятся на узле фильма, поэтому каждый узел
+ * считает рейтинг своих фильмов по лайкам друзей, а узел пользователя сливает рейтинги узлов.
+ * Рейтинг не кэшируется: лайки друзей меняются на всех узлах, и сбрасывать кэш пришлось бы по сети.
+ */
+@RequiredArgsConstructor
+public class ClusterFeedService implements FeedService {
+    private static final TypeReference<long[]> KEYS = new TypeReference<>() {
+    };
+
+    private final UserStorage userStorage;
+    private final FilmStorage filmStorage;
+    private final NodeFilmStorage localFilms;
+    private final ClusterClient client;
+
+    @Override
+    public List<Film> getPopularAmongFriends(int id, int amount) {
+        // Проверка корректности ID пользователя и размера ленты
+        if (id <= 0) {
+            throw new ValidationException("ID пользователя должен быть положительным.");
+        }
+
+        if (amount <= 0 || amount > FeedServiceImpl.MAX_FEED_SIZE) {
+            throw new ValidationException("Размер ленты должен быть от 1 до " + FeedServiceImpl.MAX_FEED_SIZE + ".");
+        }
+
+        Set<Integer> friends = userStorage.getUser(id).getFriends();
+        if (friends.isEmpty()) {
+            return List.of();
+        }
+
+        List<long[]> rankings = new ArrayList<>(client.gather("POST", "/cluster/films/feed?amount=" + amount,
+                friends, KEYS));
+        rankings.add(FeedRanking.topKeys(friends, localFilms, amount));
+
+        List<Integer> filmIds = new ArrayList<>();
+        for (long key : FeedRanking.merge(rankings, amount)) {
+            filmIds.add(FeedRanking.filmId(key));
+        }
+        return filmStorage.getFilms(filmIds).getFound();
+    }
+
+    @Override
+    public void friendshipChanged(int id, int friendId) {
+    }
+
+    @Override
+    public void likesChanged(int userId) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+}
@@ -0,0 +1,276 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmStats;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.NodeFilmStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Хранилище фильмов узла кластера. Фильм и все его лайки хранятся на узле, владеющем ID фильма,
+ * поэтому число лайков каждого фильма известно его узлу полностью: популярные фильмы кластера —
+ * это слияние списков популярных фильмов узлов. Изменения фильма выполняются только на его узле,
+ * запросы по всем фильмам опрашивают все узлы (scatter-gather).
+ */
+@RequiredArgsConstructor
+public class ClusterFilmStorage implements FilmStorage {
+    private static final TypeReference<List<Film>> FILMS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Integer>> IDS = new TypeReference<>() {
+    };
+    private static final TypeReference<Set<Integer>> ID_SET = new TypeReference<>() {
+    };
+    private static final TypeReference<Integer> COUNT = new TypeReference<>() {
+    };
+    private static final TypeReference<FilmStats> STATS = new TypeReference<>() {
+    };
+
+    // Порядок популярных фильмов: по убыванию числа лайков, затем по возрастанию ID
+    private static final Comparator<Film> POPULAR_ORDER = Comparator.comparingInt(Film::getLikeCount).reversed()
+            .thenComparingInt(Film::getId);
+
+    private final NodeFilmStorage local;
+    private final Partitioner partitioner;
+    private final ClusterClient client;
+    private final FilmVersionVector remoteVersions;
+
+    // Новый фильм получает ID из диапазона этого узла
+    @Override
+    public Film createFilm(Film film) {
+        return local.createFilm(film);
+    }
+
+    @Override
+    public Film getFilm(int id) {
+        return findFilm(id)
+                .orElseThrow(() -> new NotFoundException("Ошибка получения: фильм с заданным ID не найден."));
+    }
+
+    @Override
+    public Optional<Film> findFilm(int id) {
+        if (partitioner.isLocal(id)) {
+            return local.findFilm(id);
+        }
+        return client.call(partitioner.owner(id), "POST", "/cluster/films/lookup", List.of(id), FILMS)
+                .stream().findFirst();
+    }
+
+    @Override
+    public boolean containsFilm(int id) {
+        if (partitioner.isLocal(id)) {
+            return local.containsFilm(id);
+        }
+        return !client.call(partitioner.owner(id), "POST", "/cluster/films/exists", List.of(id), IDS).isEmpty();
+    }
+
+    @Override
+    public Film updateFilm(Film newFilm, Long expectedVersion) {
+        partitioner.checkLocal(newFilm.getId());
+        return local.updateFilm(newFilm, expectedVersion);
+    }
+
+    @Override
+    public List<Film> getAllFilms() {
+        List<Film> films = new ArrayList<>(local.getAllFilms());
+        client.gather("GET", "/cluster/films", null, FILMS).forEach(films::addAll);
+        films.sort(Comparator.comparingInt(Film::getId));
+        return films;
+    }
+
+    // Получение фильмов с их узлов параллельно; порядок и пропуски — как у хранилища в памяти
+    @Override
+    public BatchResult<Film> getFilms(Collection<Integer> ids) {
+        Map<Integer, Film> found = new HashMap<>();
+        Map<Integer, List<Integer>> remote = new HashMap<>();
+        List<Integer> localIds = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            if (partitioner.isLocal(id)) {
+                localIds.add(id);
+            } else {
+                remote.computeIfAbsent(partitioner.owner(id), node -> new ArrayList<>()).add(id);
+            }
+        }
+
+        local.getFilms(localIds).getFound().forEach(film -> found.put(film.getId(), film));
+        client.scatter("POST", "/cluster/films/lookup", remote, FILMS).values()
+                .forEach(films -> films.forEach(film -> found.put(film.getId(), film)));
+
+        List<Film> films = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Film film = found.get(id);
+            if (film != null) {
+                films.add(film);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchResult<>(films, missingIds);
+    }
+
+    @Override
+    public Film deleteFilm(int id) {
+        partitioner.checkLocal(id);
+        return local.deleteFilm(id);
+    }
+
+    @Override
+    public void deleteFilms() {
+        local.deleteFilms();
+        try {
+            client.gather("DELETE", "/cluster/films", null, null);
+        } finally {
+            remoteVersions.invalidate();
+        }
+    }
+
+    @Override
+    public boolean addLike(int filmId, int userId) {
+        partitioner.checkLocal(filmId);
+        return local.addLike(filmId, userId);
+    }
+
+    @Override
+    public boolean deleteLike(int filmId, int userId) {
+        partitioner.checkLocal(filmId);
+        return local.deleteLike(filmId, userId);
+    }
+
+    // Лайки пользователя хранятся на узлах фильмов, поэтому опрашиваются все узлы
+    @Override
+    public List<Film> getLikedFilms(int userId) {
+        List<Film> films = new ArrayList<>(local.getLikedFilms(userId));
+        client.gather("GET", "/cluster/films/liked/" + userId, null, FILMS).forEach(films::addAll);
+        films.sort(Comparator.comparingInt(Film::getId));
+        return films;
+    }
+
+    @Override
+    public Set<Integer> getLikedFilmIds(int userId) {
+        Set<Integer> ids = new HashSet<>(local.getLikedFilmIds(userId));
+        client.gather("GET", "/cluster/films/liked/" + userId + "/ids", null, ID_SET).forEach(ids::addAll);
+        return Collections.unmodifiableSet(ids);
+    }
+
+    @Override
+    public int deleteLikesByUser(int userId) {
+        try {
+            return local.deleteLikesByUser(userId)
+                    + client.gather("DELETE", "/cluster/films/liked/" + userId, null, COUNT).stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+        } finally {
+            remoteVersions.invalidate();
+        }
+    }
+
+    @Override
+    public void deleteLikes() {
+        local.deleteLikes();
+        try {
+            client.gather("DELETE", "/cluster/films/likes", null, null);
+        } finally {
+            remoteVersions.invalidate();
+        }
+    }
+
+    // Слияние популярных фильмов узлов: первые amount фильмов кластера есть среди первых amount каждого узла
+    @Override
+    public List<Film> getPopular(int amount, Integer genreId, Integer year) {
+        StringBuilder path = new StringBuilder("/cluster/films/popular?amount=").append(amount);
+        if (genreId != null) {
+            path.append("&genreId=").append(genreId);
+        }
+        if (year != null) {
+            path.append("&year=").append(year);
+        }
+
+        List<Film> films = new ArrayList<>(local.getPopular(amount, genreId, year));
+        client.gather("GET", path.toString(), null, FILMS).forEach(films::addAll);
+        films.sort(POPULAR_ORDER);
+        return films.size() > amount ? new ArrayList<>(films.subList(0, amount)) : films;
+    }
+
+    // Массовое добавление: фильмы отправляются на узлы-владельцы их ID
+    @Override
+    public List<Film> addFilms(Collection<Film> films) {
+        Map<Integer, List<Film>> byNode = new HashMap<>();
+        for (Film film : films) {
+            byNode.computeIfAbsent(partitioner.owner(film.getId()), node -> new ArrayList<>()).add(film);
+        }
+
+        List<Film> rejected = new ArrayList<>(local.addFilms(byNode.getOrDefault(partitioner.self(), List.of())));
+        byNode.remove(partitioner.self());
+        try {
+            client.scatter("POST", "/cluster/films/import", byNode, FILMS).values().forEach(rejected::addAll);
+        } finally {
+            remoteVersions.invalidate();
+        }
+        return rejected;
+    }
+
+    // Массовое добавление лайков на узлы фильмов
+    @Override
+    public int addLikes(Collection<Like> likes) {
+        Map<Integer, List<Like>> byNode = new HashMap<>();
+        for (Like like : likes) {
+            byNode.computeIfAbsent(partitioner.owner(like.filmId()), node -> new ArrayList<>()).add(like);
+        }
+
+        int added = local.addLikes(byNode.getOrDefault(partitioner.self(), List.of()));
+        byNode.remove(partitioner.self());
+        try {
+            return added + client.scatter("POST", "/cluster/films/likes/import", byNode, COUNT).values().stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+        } finally {
+            remoteVersions.invalidate();
+        }
+    }
+
+    // Сумма агрегатов узлов: каждый фильм со всеми лайками учтён ровно на одном узле
+    @Override
+    public FilmStats getStats() {
+        List<FilmStats> all = new ArrayList<>(client.gather("GET", "/cluster/films/stats", null, STATS));
+        all.add(local.getStats());
+
+        long films = 0;
+        long likes = 0;
+        long totalDuration = 0;
+        SortedMap<Integer, Long> filmsByYear = new TreeMap<>();
+        SortedMap<Integer, Long> likeDistribution = new TreeMap<>();
+        for (FilmStats stats : all) {
+            films += stats.films();
+            likes += stats.likes();
+            totalDuration += stats.totalDuration();
+            stats.filmsByYear().forEach((year, count) -> filmsByYear.merge(year, count, Long::sum));
+            stats.likeDistribution().forEach((count, number) -> likeDistribution.merge(count, number, Long::sum));
+        }
+        return new FilmStats(films, likes, totalDuration, filmsByYear, likeDistribution);
+    }
+
+    // Версия данных кластера: версия этого узла плюс поколение версий остальных. Оба слагаемых только растут,
+    // поэтому сумма меняется при любом изменении; изменения на других узлах видны с задержкой до ttl снимка
+    @Override
+    public long getVersion() {
+        return local.getVersion() + remoteVersions.generation();
+    }
+}
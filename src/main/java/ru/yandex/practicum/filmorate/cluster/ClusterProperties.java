@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки работы в кластере (filmorate.cluster.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.cluster")
+public class ClusterProperties {
+    // Включение режима кластера
+    private boolean enabled = false;
+
+    // Базовые адреса всех узлов, например http://localhost:8081; порядок одинаков на всех узлах
+    private List<String> nodes = new ArrayList<>();
+
+    // Номер этого узла в списке nodes, начиная с 0
+    private int nodeIndex = 0;
+
+    // Общий секрет узлов: без него внутренние эндпоинты /cluster/** и пометка маршрутизации не принимаются
+    private String secret;
+
+    // Наибольшее время ожидания ответа другого узла
+    private long timeoutMs = 2_000;
+
+    // Наибольший возраст снимка версий данных других узлов, по которому проверяется кэш популярных фильмов
+    private long versionTtlMs = 250;
+}
@@ -0,0 +1,217 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.yandex.practicum.filmorate.config.WireFormatConfig;
+import ru.yandex.practicum.filmorate.error.ErrorResponse;
+import ru.yandex.practicum.filmorate.exceptions.NodeUnavailableException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Маршрутизация запросов по ID: запрос к фильму или пользователю выполняется на узле, владеющем его ID.
+ * ID берётся из пути (/films/{id}..., /users/{id}...) или, для обновления, из поля id тела запроса.
+ * Чужой запрос передаётся узлу-владельцу как есть, его ответ возвращается клиенту без изменений;
+ * остальные запросы выполняются на узле, принявшем их, и при необходимости опрашивают другие узлы.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+    private static final Pattern ID_PATH = Pattern.compile("^/(films|users)/(\\d{1,9})(/.*)?$");
+
+    // Заголовки соединения, которые не передаются между узлами
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "content-length", "expect", "host",
+            "upgrade", "transfer-encoding", "keep-alive", "te", "trailer");
+
+    // Заголовки узлов: клиент не может их передать, при передаче их выставляет сам ClusterClient
+    private static final Set<String> NODE_HEADERS = Set.of(ClusterClient.LOCAL_HEADER.toLowerCase(Locale.ROOT),
+            ClusterClient.SECRET_HEADER.toLowerCase(Locale.ROOT));
+
+    private final Partitioner partitioner;
+    private final ClusterClient client;
+    private final FilmVersionVector filmVersions;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Запрос от другого узла уже направлен сюда; пометке от клиента не верим
+        if (request.getAttribute(ClusterAuthFilter.NODE_REQUEST_ATTRIBUTE) != null
+                && request.getHeader(ClusterClient.LOCAL_HEADER) != null) {
+            handleLocally(request, response, chain);
+            return;
+        }
+
+        int id = 0;
+        Matcher matcher = ID_PATH.matcher(request.getRequestURI());
+        if (matcher.matches()) {
+            id = Integer.parseInt(matcher.group(2));
+        } else if (isUpdate(request)) {
+            CachedBodyRequest cached = new CachedBodyRequest(request, request.getInputStream().readAllBytes());
+            id = bodyId(cached);
+            request = cached;
+        }
+
+        if (id <= 0 || partitioner.isLocal(id)) {
+            handleLocally(request, response, chain);
+            return;
+        }
+
+        try {
+            proxy(partitioner.owner(id), request, response);
+        } catch (NodeUnavailableException e) {
+            log.warn("Запрос {} {} не передан узлу-владельцу: {}", request.getMethod(), request.getRequestURI(),
+                    e.getMessage());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            jsonMapper.writeValue(response.getOutputStream(), new ErrorResponse(e.getMessage()));
+        } finally {
+            // Переданная запись могла изменить фильмы или лайки: следующее чтение здесь должно её увидеть
+            if (!isRead(request)) {
+                filmVersions.invalidate();
+            }
+        }
+    }
+
+    private void handleLocally(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.setHeader(ClusterClient.NODE_HEADER, Integer.toString(partitioner.self()));
+        chain.doFilter(request, response);
+    }
+
+    // Передача запроса узлу-владельцу с копированием заголовков, статуса и тела ответа
+    private void proxy(int node, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String query = request.getQueryString();
+        HttpRequest.Builder builder = client.request(node, request.getRequestURI()
+                + (query == null ? "" : "?" + query));
+
+        for (String name : Collections.list(request.getHeaderNames())) {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (!HOP_BY_HOP.contains(lowerCaseName) && !NODE_HEADERS.contains(lowerCaseName)) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    builder.header(name, value);
+                }
+            }
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        builder.method(request.getMethod(), body.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body));
+
+        HttpResponse<byte[]> remote = client.exchange(node, builder.build());
+        response.setStatus(remote.statusCode());
+        for (Map.Entry<String, List<String>> header : remote.headers().map().entrySet()) {
+            String name = header.getKey();
+            if (!name.startsWith(":") && !HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                header.getValue().forEach(value -> response.addHeader(name, value));
+            }
+        }
+        response.setContentLength(remote.body().length);
+        response.getOutputStream().write(remote.body());
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    // Обновление фильма или пользователя: ID владельца указан в теле запроса
+    private static boolean isUpdate(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return "PUT".equals(request.getMethod()) && ("/films".equals(uri) || "/users".equals(uri));
+    }
+
+    // ID из тела запроса в формате, указанном в Content-Type; нечитаемое тело обработает контроллер
+    private int bodyId(CachedBodyRequest request) {
+        String contentType = request.getContentType() == null ? "" : request.getContentType();
+        ObjectMapper mapper = contentType.startsWith(WireFormatConfig.APPLICATION_SMILE_VALUE) ? smileMapper
+                : contentType.startsWith(WireFormatConfig.APPLICATION_CBOR_VALUE) ? cborMapper
+                : jsonMapper;
+        try {
+            JsonNode tree = mapper.readTree(request.body);
+            return tree == null ? 0 : tree.path("id").asInt(0);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // Запрос с прочитанным заранее телом, которое можно прочитать ещё раз
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8
+                    : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
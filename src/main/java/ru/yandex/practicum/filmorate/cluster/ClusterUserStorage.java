@@ -0,0 +1,305 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserStats;
+import ru.yandex.practicum.filmorate.storage.NodeUserStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Хранилище пользователей узла кластера. Пользователь и его список друзей хранятся на узле,
+ * владеющем его ID; чужие пользователи запрашиваются у их узлов, а операции над всеми
+ * пользователями опрашивают все узлы (scatter-gather). Дружба пользователей разных узлов
+ * хранится двумя половинами — каждая в списке друзей своего пользователя на его узле.
+ * Уникальность электронной почты и логина проверяется опросом узлов перед записью,
+ * поэтому одновременная регистрация одинаковых значений на разных узлах не исключена.
+ */
+@RequiredArgsConstructor
+public class ClusterUserStorage implements UserStorage {
+    private static final TypeReference<List<User>> USERS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Integer>> IDS = new TypeReference<>() {
+    };
+    private static final TypeReference<Boolean> FLAG = new TypeReference<>() {
+    };
+    private static final TypeReference<Integer> COUNT = new TypeReference<>() {
+    };
+    private static final TypeReference<UserStats> STATS = new TypeReference<>() {
+    };
+
+    private final NodeUserStorage local;
+    private final Partitioner partitioner;
+    private final ClusterClient client;
+
+    // Новый пользователь получает ID из диапазона этого узла
+    @Override
+    public User addUser(User user) {
+        checkUnique(user);
+        return local.addUser(user);
+    }
+
+    @Override
+    public List<User> getUsers() {
+        List<User> users = new ArrayList<>(local.getUsers());
+        client.gather("GET", "/cluster/users", null, USERS).forEach(users::addAll);
+        users.sort(Comparator.comparingInt(User::getId));
+        return users;
+    }
+
+    // Получение пользователей с их узлов параллельно; порядок и пропуски — как у хранилища в памяти
+    @Override
+    public BatchResult<User> getUsers(Collection<Integer> ids) {
+        Map<Integer, User> found = new HashMap<>();
+        Map<Integer, List<Integer>> remote = new HashMap<>();
+        List<Integer> localIds = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            if (partitioner.isLocal(id)) {
+                localIds.add(id);
+            } else {
+                remote.computeIfAbsent(partitioner.owner(id), node -> new ArrayList<>()).add(id);
+            }
+        }
+
+        local.getUsers(localIds).getFound().forEach(user -> found.put(user.getId(), user));
+        client.scatter("POST", "/cluster/users/lookup", remote, USERS).values()
+                .forEach(users -> users.forEach(user -> found.put(user.getId(), user)));
+
+        List<User> users = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            User user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchResult<>(users, missingIds);
+    }
+
+    @Override
+    public User getUser(int id) {
+        return findUser(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + id + " не найден."));
+    }
+
+    @Override
+    public Optional<User> findUser(int id) {
+        if (partitioner.isLocal(id)) {
+            return local.findUser(id);
+        }
+        return client.call(partitioner.owner(id), "POST", "/cluster/users/lookup", List.of(id), USERS)
+                .stream().findFirst();
+    }
+
+    @Override
+    public boolean containsUser(int id) {
+        if (partitioner.isLocal(id)) {
+            return local.containsUser(id);
+        }
+        return !client.call(partitioner.owner(id), "POST", "/cluster/users/exists", List.of(id), IDS).isEmpty();
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return local.findByEmail(email).or(() -> findRemote("email", email));
+    }
+
+    @Override
+    public Optional<User> findByLogin(String login) {
+        return local.findByLogin(login).or(() -> findRemote("login", login));
+    }
+
+    @Override
+    public User updateUser(User newUser, Long expectedVersion) {
+        partitioner.checkLocal(newUser.getId());
+        checkUnique(newUser);
+        return local.updateUser(newUser, expectedVersion);
+    }
+
+    // Удаление пользователя и вторых половин его дружбы с пользователями других узлов
+    @Override
+    public User deleteUser(int id) {
+        partitioner.checkLocal(id);
+        User removed = local.deleteUser(id);
+
+        Map<Integer, List<Friendship>> links = new HashMap<>();
+        for (int friendId : removed.getFriends()) {
+            if (!partitioner.isLocal(friendId)) {
+                links.computeIfAbsent(partitioner.owner(friendId), node -> new ArrayList<>())
+                        .add(new Friendship(friendId, id));
+            }
+        }
+        client.scatter("POST", "/cluster/users/friends/delete", links, null);
+        return removed;
+    }
+
+    @Override
+    public void deleteUsers() {
+        local.deleteUsers();
+        client.gather("DELETE", "/cluster/users", null, null);
+    }
+
+    // Дружба с пользователем другого узла: сначала половина на его узле (там же проверяется его существование)
+    @Override
+    public boolean addFriend(int id, int friendId) {
+        partitioner.checkLocal(id);
+        if (partitioner.isLocal(friendId)) {
+            return local.addFriend(id, friendId);
+        }
+
+        local.getUser(id);
+        client.call(partitioner.owner(friendId), "PUT", "/cluster/users/" + friendId + "/friends/" + id, null, FLAG);
+        return local.addFriendLink(id, friendId);
+    }
+
+    @Override
+    public boolean deleteFriend(int id, int friendId) {
+        partitioner.checkLocal(id);
+        if (partitioner.isLocal(friendId)) {
+            return local.deleteFriend(id, friendId);
+        }
+
+        local.getUser(id);
+        client.call(partitioner.owner(friendId), "DELETE", "/cluster/users/" + friendId + "/friends/" + id,
+                null, FLAG);
+        return local.deleteFriendLink(id, friendId);
+    }
+
+    // Массовое добавление: пользователи отправляются на узлы-владельцы их ID
+    @Override
+    public List<User> addUsers(Collection<User> users) {
+        Map<Integer, List<User>> byNode = new HashMap<>();
+        for (User user : users) {
+            byNode.computeIfAbsent(partitioner.owner(user.getId()), node -> new ArrayList<>()).add(user);
+        }
+
+        List<User> rejected = new ArrayList<>(local.addUsers(byNode.getOrDefault(partitioner.self(), List.of())));
+        byNode.remove(partitioner.self());
+        client.scatter("POST", "/cluster/users/import", byNode, USERS).values().forEach(rejected::addAll);
+        return rejected;
+    }
+
+    // Массовое добавление дружбы: пары внутри узла добавляются целиком, остальные — половинами на узлах обоих
+    // пользователей, если оба существуют
+    @Override
+    public int addFriendships(Collection<Friendship> friendships) {
+        List<Friendship> localPairs = new ArrayList<>();
+        List<Friendship> crossPairs = new ArrayList<>();
+        for (Friendship friendship : friendships) {
+            if (partitioner.isLocal(friendship.userId()) && partitioner.isLocal(friendship.friendId())) {
+                localPairs.add(friendship);
+            } else {
+                crossPairs.add(friendship);
+            }
+        }
+
+        int added = local.addFriendships(localPairs);
+        if (crossPairs.isEmpty()) {
+            return added;
+        }
+
+        Set<Integer> existing = existing(crossPairs);
+        Map<Integer, List<Friendship>> links = new HashMap<>();
+        for (Friendship pair : crossPairs) {
+            if (pair.userId() == pair.friendId()
+                    || !existing.contains(pair.userId()) || !existing.contains(pair.friendId())) {
+                continue;
+            }
+            links.computeIfAbsent(partitioner.owner(pair.userId()), node -> new ArrayList<>()).add(pair);
+            links.computeIfAbsent(partitioner.owner(pair.friendId()), node -> new ArrayList<>())
+                    .add(new Friendship(pair.friendId(), pair.userId()));
+        }
+
+        // Новая пара добавляет две новые половины
+        int addedLinks = local.addFriendLinks(links.getOrDefault(partitioner.self(), List.of()));
+        links.remove(partitioner.self());
+        addedLinks += client.scatter("POST", "/cluster/users/friends/import", links, COUNT).values().stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        return added + addedLinks / 2;
+    }
+
+    // Агрегаты всех узлов: число пар друзей выводится из суммарного распределения по числу друзей
+    @Override
+    public UserStats getStats() {
+        List<UserStats> all = new ArrayList<>(client.gather("GET", "/cluster/users/stats", null, STATS));
+        all.add(local.getStats());
+
+        long users = 0;
+        SortedMap<Integer, Long> distribution = new TreeMap<>();
+        for (UserStats stats : all) {
+            users += stats.users();
+            stats.friendCountDistribution().forEach((friends, count) -> distribution.merge(friends, count, Long::sum));
+        }
+
+        long links = 0;
+        for (Map.Entry<Integer, Long> entry : distribution.entrySet()) {
+            links += entry.getKey() * entry.getValue();
+        }
+        return new UserStats(users, links / 2, distribution);
+    }
+
+    // Проверка, что электронная почта и логин не заняты пользователями других узлов
+    private void checkUnique(User user) {
+        findRemote("email", user.getEmail())
+                .filter(other -> other.getId() != user.getId())
+                .ifPresent(other -> {
+                    throw new ValidationException("Эта электронная почта уже используется.");
+                });
+        findRemote("login", user.getLogin())
+                .filter(other -> other.getId() != user.getId())
+                .ifPresent(other -> {
+                    throw new ValidationException("Этот логин уже используется.");
+                });
+    }
+
+    private Optional<User> findRemote(String key, String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        String path = "/cluster/users?" + key + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8);
+        return client.gather("GET", path, null, USERS).stream()
+                .flatMap(List::stream)
+                .findFirst();
+    }
+
+    // ID существующих пользователей из пар, опрошенные на их узлах
+    private Set<Integer> existing(List<Friendship> pairs) {
+        Map<Integer, List<Integer>> byNode = new HashMap<>();
+        for (Friendship pair : pairs) {
+            for (int id : new int[]{pair.userId(), pair.friendId()}) {
+                byNode.computeIfAbsent(partitioner.owner(id), node -> new ArrayList<>()).add(id);
+            }
+        }
+
+        Set<Integer> existing = new HashSet<>();
+        byNode.getOrDefault(partitioner.self(), List.of()).stream()
+                .filter(local::containsUser)
+                .forEach(existing::add);
+        byNode.remove(partitioner.self());
+        client.scatter("POST", "/cluster/users/exists", byNode, IDS).values().forEach(existing::addAll);
+        return existing;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import ru.yandex.practicum.filmorate.exceptions.NodeUnavailableException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Версии данных о фильмах других узлов. Узлы опрашиваются не чаще раза в интервал ttl, а не при каждом
+ * чтении; новый снимок сравнивается с предыдущим поэлементно, и любое различие, в том числе смена номера
+ * запуска узла, увеличивает номер поколения. Поколение только растёт, поэтому не повторяется после
+ * перезапуска узла, как могла бы повториться сумма счётчиков. Запись, переданная узлом другому узлу,
+ * помечает снимок устаревшим: следующее чтение на этом узле дожидается нового опроса.
+ */
+public class FilmVersionVector {
+    private static final TypeReference<NodeVersion> NODE_VERSION = new TypeReference<>() {
+    };
+
+    private final ClusterClient client;
+    private final long ttlNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Снимок версий узлов в порядке их номеров; null — версии ещё не получены или узел был недоступен
+    private List<NodeVersion> snapshot;
+    private volatile long refreshedAt;
+    private volatile long refreshedInvalidations;
+
+    public FilmVersionVector(ClusterClient client, Duration ttl) {
+        this.client = client;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshedAt = System.nanoTime() - ttlNanos;
+    }
+
+    // Номер поколения версий других узлов; опрос узлов — только если снимок устарел
+    public long generation() {
+        if (invalidations.get() != refreshedInvalidations) {
+            // После своей записи ждём опроса, начатого не раньше неё
+            refreshLock.lock();
+        } else if (!expired() || !refreshLock.tryLock()) {
+            // Пока другой поток опрашивает узлы, используется прежний снимок
+            return generation.get();
+        }
+
+        try {
+            if (invalidations.get() != refreshedInvalidations || expired()) {
+                refresh();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+        return generation.get();
+    }
+
+    // Пометка снимка устаревшим после записи, выполненной на другом узле
+    public void invalidate() {
+        invalidations.incrementAndGet();
+    }
+
+    private void refresh() {
+        long seenInvalidations = invalidations.get();
+        List<NodeVersion> current;
+        try {
+            current = client.gather("GET", "/cluster/films/version", null, NODE_VERSION);
+        } catch (NodeUnavailableException e) {
+            // Версия недоступного узла неизвестна: следующий успешный опрос сменит поколение
+            current = null;
+        }
+
+        if (current == null || !current.equals(snapshot)) {
+            generation.incrementAndGet();
+        }
+        snapshot = current;
+        refreshedInvalidations = seenInvalidations;
+        refreshedAt = System.nanoTime();
+    }
+
+    private boolean expired() {
+        return System.nanoTime() - refreshedAt >= ttlNanos;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+/**
+ * Версия данных о фильмах узла: номер запуска узла и счётчик изменений.
+ * Счётчик начинается заново при перезапуске, номер запуска при этом меняется.
+ */
+public record NodeVersion(long incarnation, long version) {
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+/**
+ * Распределение ID пользователей и фильмов по узлам кластера. ID перемешивается хеш-функцией,
+ * диапазон 32-битных хешей делится на равные части по числу узлов, и узел владеет ID,
+ * хеш которого попадает в его часть. Соседние ID поэтому равномерно расходятся по узлам.
+ */
+public class Partitioner {
+    private final int nodes;
+    private final int self;
+
+    public Partitioner(int nodes, int self) {
+        if (nodes <= 0) {
+            throw new IllegalArgumentException("В кластере должен быть хотя бы один узел.");
+        }
+        if (self < 0 || self >= nodes) {
+            throw new IllegalArgumentException("Номер узла должен быть от 0 до " + (nodes - 1) + ".");
+        }
+        this.nodes = nodes;
+        this.self = self;
+    }
+
+    // Номер узла, владеющего ID
+    public int owner(int id) {
+        return (int) ((Integer.toUnsignedLong(mix(id)) * nodes) >>> 32);
+    }
+
+    // Принадлежит ли ID этому узлу
+    public boolean isLocal(int id) {
+        return owner(id) == self;
+    }
+
+    // Проверка, что операция над ID выполняется на его узле; иначе запрос миновал маршрутизацию
+    public void checkLocal(int id) {
+        if (!isLocal(id)) {
+            throw new IllegalStateException("ID " + id + " принадлежит узлу " + owner(id)
+                    + ", а запрос выполняется на узле " + self + ".");
+        }
+    }
+
+    public int nodes() {
+        return nodes;
+    }
+
+    public int self() {
+        return self;
+    }
+
+    // Финальное перемешивание MurmurHash3
+    private static int mix(int id) {
+        int hash = id;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Настройка частичной сериализации моделей (параметр fields=).
+ * Фильтр подключается к моделям через mix-in только в ObjectMapper приложения,
+ * поэтому сторонние и тестовые ObjectMapper сериализуют модели без дополнительной настройки.
+ */
+@Configuration
+public class FieldsetConfig {
+    // Идентификатор фильтра полей, которым помечены модели
+    public static final String FILTER_ID = "fieldset";
+
+    // Имя параметра запроса со списком полей
+    public static final String FIELDS_PARAM = "fields";
+
+    // Без параметра fields= фильтр не задан, и модели сериализуются целиком
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsetFilterCustomizer() {
+        return builder -> builder
+                .mixIn(Film.class, FieldsetMixin.class)
+                .mixIn(User.class, FieldsetMixin.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    // Mix-in, помечающий модель фильтром полей
+    @JsonFilter(FILTER_ID)
+    abstract static class FieldsetMixin {
+    }
+}
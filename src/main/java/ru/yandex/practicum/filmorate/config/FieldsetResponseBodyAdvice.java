@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Применение параметра fields= к ответам контроллеров.
+ * Исключённые поля (например, likes и friends) не обходятся сериализатором.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class FieldsetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+
+        String fields = servletRequest.getServletRequest().getParameter(FieldsetConfig.FIELDS_PARAM);
+        if (!StringUtils.hasText(fields)) {
+            return;
+        }
+
+        // Получение множества запрошенных полей
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(FieldsetConfig.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(requested))
+                .setFailOnUnknownId(false));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Бинарные форматы обмена данными (CBOR и Smile).
+ * Формат выбирается по заголовкам Accept и Content-Type, JSON остаётся форматом по умолчанию.
+ */
+@Configuration
+public class WireFormatConfig {
+    // MIME-тип формата CBOR
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    // MIME-тип формата Smile
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    // Конвертер CBOR, использующий те же настройки Jackson, что и JSON
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                builder.factory(new CBORFactory()).build()
+        );
+    }
+
+    // Конвертер Smile, использующий те же настройки Jackson, что и JSON
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                builder.factory(new SmileFactory()).build()
+        );
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.bulk.BulkService;
+import ru.yandex.practicum.filmorate.bulk.ImportReport;
+import ru.yandex.practicum.filmorate.service.FeedService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/bulk")
+@RequiredArgsConstructor
+public class BulkController {
+    private final BulkService bulkService;
+    private final FeedService feedService;
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportData() {
+        log.info("Выполнение метода exportData.");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bulkService::export);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importData(InputStream body) throws IOException {
+        log.info("Выполнение метода importData.");
+        // Импорт пишет в хранилища напрямую, поэтому кэшированные ленты сбрасываются целиком
+        ImportReport report = bulkService.importRecords(body);
+        feedService.invalidateAll();
+        return report;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.jfr.JfrRecordingService;
+import ru.yandex.practicum.filmorate.jfr.RecordingInfo;
+import ru.yandex.practicum.filmorate.persistence.WriteBehindQueue;
+import ru.yandex.practicum.filmorate.persistence.WriteBehindStats;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.SingleFlight;
+import ru.yandex.practicum.filmorate.timing.SlowRequest;
+import ru.yandex.practicum.filmorate.timing.SlowRequestLog;
+import ru.yandex.practicum.filmorate.warmup.WarmupReport;
+import ru.yandex.practicum.filmorate.warmup.WarmupRunner;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/diagnostics")
+@RequiredArgsConstructor
+public class DiagnosticsController {
+    private final FilmService filmService;
+    private final JfrRecordingService jfrRecordingService;
+    private final WarmupRunner warmupRunner;
+    private final ApplicationAvailability availability;
+
+    // Журнал медленных запросов есть только при включённых замерах (filmorate.timing.enabled=true)
+    private final ObjectProvider<SlowRequestLog> slowRequestLog;
+
+    // Очередь отложенной записи есть только в режиме filmorate.storage.mode=write-behind
+    private final ObjectProvider<WriteBehindQueue> writeBehindQueue;
+
+    @GetMapping("/coalescing")
+    public Map<String, SingleFlight.Stats> getCoalescingStats() {
+        log.info("Выполнение метода getCoalescingStats.");
+        return filmService.getCoalescingStats();
+    }
+
+    @GetMapping("/slow-requests")
+    public List<SlowRequest> getSlowRequests() {
+        log.info("Выполнение метода getSlowRequests.");
+        SlowRequestLog requests = slowRequestLog.getIfAvailable();
+        return requests == null ? List.of() : requests.snapshot();
+    }
+
+    @GetMapping("/write-behind")
+    public ResponseEntity<WriteBehindStats> getWriteBehindStats() {
+        log.info("Выполнение метода getWriteBehindStats.");
+        WriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        return queue == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(queue.getStats());
+    }
+
+    @PostMapping("/jfr/start")
+    public RecordingInfo startJfrRecording(@RequestParam(defaultValue = "300") int durationSeconds,
+                                           @RequestParam(defaultValue = "64") int maxSizeMb) {
+        log.info("Выполнение метода startJfrRecording.");
+        return jfrRecordingService.start(durationSeconds, maxSizeMb);
+    }
+
+    @GetMapping("/jfr")
+    public RecordingInfo getJfrRecording() {
+        log.info("Выполнение метода getJfrRecording.");
+        return jfrRecordingService.status();
+    }
+
+    // Остановка записи и выгрузка файла .jfr для JDK Mission Control или утилиты jfr
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<byte[]> stopJfrRecording() {
+        log.info("Выполнение метода stopJfrRecording.");
+        byte[] recording = jfrRecordingService.stop();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("filmorate.jfr").build().toString())
+                .body(recording);
+    }
+
+    @GetMapping("/warmup")
+    public WarmupReport getWarmup() {
+        log.info("Выполнение метода getWarmup.");
+        return warmupRunner.getReport();
+    }
+
+    // Проба готовности для балансировщика: 503 до окончания запуска и прогрева
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, Object>> getReadiness() {
+        log.info("Выполнение метода getReadiness.");
+        ReadinessState state = availability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .body(Map.of("readiness", state, "warmup", warmupRunner.getReport().state()));
+    }
+}
@@ -3,20 +3,32 @@ package ru.yandex.practicum.filmorate.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.config.FieldsetConfig;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.PopularFilmsCache;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/films")
 @Validated
 @RequiredArgsConstructor
 public class FilmController {
     private final FilmService filmService;
+    private final PopularFilmsCache popularFilmsCache;
 
     @GetMapping
     public Collection<Film> getFilms() {
@@ -24,6 +36,12 @@ public class FilmController {
         return filmService.getAll();
     }
 
+    @GetMapping(params = "ids")
+    public BatchResult<Film> getFilmsByIds(@RequestParam List<Integer> ids) {
+        log.info("Выполнение метода getFilmsByIds.");
+        return filmService.getByIds(ids);
+    }
+
     @GetMapping("/{id}")
     public Film getFilm(@PathVariable int id) {
         log.info("Выполнение метода getFilm.");
@@ -37,9 +55,10 @@ public class FilmController {
     }
 
     @PutMapping
-    public Film updateFilm(@Valid @RequestBody Film newFilm) {
+    public Film updateFilm(@Valid @RequestBody Film newFilm,
+                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Выполнение метода updateFilm.");
-        return filmService.update(newFilm);
+        return filmService.update(newFilm, IfMatchHeader.parse(ifMatch));
     }
 
     @DeleteMapping("/{id}")
@@ -67,8 +86,67 @@ public class FilmController {
     }
 
     @GetMapping("/popular")
-    public Collection<Film> getTop(@RequestParam(defaultValue = "10") int amount) {
+    public ResponseEntity<?> getTop(
+            @RequestParam(defaultValue = "10") int amount,
+            @RequestParam(required = false) Integer genreId,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(name = FieldsetConfig.FIELDS_PARAM, required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
         log.info("Выполнение метода getTop.");
-        return filmService.getTop(amount);
+
+        // Готовые байты отдаются только для полного JSON-ответа без фильтров
+        if (fields == null && genreId == null && year == null && acceptsJson(accept)) {
+            Optional<PopularFilmsCache.Entry> cached = popularFilmsCache.get(amount);
+            if (cached.isPresent()) {
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+                if (acceptsGzip(acceptEncoding)) {
+                    return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                            .body(cached.get().gzip());
+                }
+                return response.body(cached.get().json());
+            }
+        }
+
+        // Один URL отдаёт разные представления, поэтому Vary нужен и вне кэша готовых байтов
+        return ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .body(filmService.getTop(amount, genreId, year));
+    }
+
+    // Проверка, что клиент ожидает JSON, а не бинарный формат
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            boolean binary = mediaTypes.stream()
+                    .anyMatch(type -> type.getSubtype().contains("cbor") || type.getSubtype().contains("smile"));
+            return !binary && mediaTypes.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // Проверка поддержки клиентом сжатия gzip
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+
+        return false;
     }
 }
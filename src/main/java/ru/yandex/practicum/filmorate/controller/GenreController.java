@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.service.DirectoryService;
+
+import java.util.Collection;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/genres")
+@RequiredArgsConstructor
+public class GenreController {
+    private final DirectoryService directoryService;
+
+    @GetMapping
+    public Collection<Genre> getGenres() {
+        log.info("Выполнение метода getGenres.");
+        return directoryService.getGenres();
+    }
+
+    @GetMapping("/{id}")
+    public Genre getGenre(@PathVariable int id) {
+        log.info("Выполнение метода getGenre.");
+        return directoryService.getGenre(id);
+    }
+}
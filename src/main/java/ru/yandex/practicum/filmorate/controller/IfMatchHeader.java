@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+/**
+ * Заголовки с версией сущности: разбор If-Match ("3" или *) и значение ETag ответа.
+ * If-Match сравнивается строго (RFC 9110, 13.1.1), поэтому слабый тег W/"3" не совпадает ни с одной версией.
+ */
+public final class IfMatchHeader {
+    private IfMatchHeader() {
+    }
+
+    // Ожидаемая версия; null, если заголовок не задан или равен *
+    public static Long parse(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("Слабый тег в If-Match не совпадает с текущей версией.");
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Заголовок If-Match должен содержать версию сущности.");
+        }
+    }
+
+    // Сильный тег ETag с версией сущности
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.service.DirectoryService;
+
+import java.util.Collection;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/mpa")
+@RequiredArgsConstructor
+public class MpaController {
+    private final DirectoryService directoryService;
+
+    @GetMapping
+    public Collection<Mpa> getMpaRatings() {
+        log.info("Выполнение метода getMpaRatings.");
+        return directoryService.getMpaRatings();
+    }
+
+    @GetMapping("/{id}")
+    public Mpa getMpa(@PathVariable int id) {
+        log.info("Выполнение метода getMpa.");
+        return directoryService.getMpa(id);
+    }
+}
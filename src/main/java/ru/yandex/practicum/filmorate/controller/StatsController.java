@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.CatalogStats;
+import ru.yandex.practicum.filmorate.model.StatsVerification;
+import ru.yandex.practicum.filmorate.service.StatsService;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    private final StatsService statsService;
+
+    @GetMapping
+    public CatalogStats getStats() {
+        log.info("Выполнение метода getStats.");
+        return statsService.getStats();
+    }
+
+    @GetMapping("/verify")
+    public StatsVerification verifyStats() {
+        log.info("Выполнение метода verifyStats.");
+        return statsService.verify();
+    }
+}
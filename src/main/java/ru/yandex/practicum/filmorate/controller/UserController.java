@@ -3,8 +3,12 @@ package ru.yandex.practicum.filmorate.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.service.UserService;
 
@@ -13,6 +17,7 @@ import java.util.List;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/users")
 @Validated
 @RequiredArgsConstructor
@@ -25,6 +30,24 @@ public class UserController {
         return userService.getAll();
     }
 
+    @GetMapping(params = "ids")
+    public BatchResult<User> getUsersByIds(@RequestParam List<Integer> ids) {
+        log.info("Выполнение метода getUsersByIds.");
+        return userService.getByIds(ids);
+    }
+
+    @GetMapping(params = "email")
+    public User getUserByEmail(@RequestParam String email) {
+        log.info("Выполнение метода getUserByEmail.");
+        return userService.getByEmail(email);
+    }
+
+    @GetMapping(params = "login")
+    public User getUserByLogin(@RequestParam String login) {
+        log.info("Выполнение метода getUserByLogin.");
+        return userService.getByLogin(login);
+    }
+
     @GetMapping("/{id}")
     public User getUser(@PathVariable int id) {
         log.info("Выполнение метода getUser.");
@@ -38,9 +61,10 @@ public class UserController {
     }
 
     @PutMapping
-    public User updateUser(@Valid @RequestBody User newUser) {
+    public User updateUser(@Valid @RequestBody User newUser,
+                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Выполнение метода updateUser.");
-        return userService.update(newUser);
+        return userService.update(newUser, IfMatchHeader.parse(ifMatch));
     }
 
     @DeleteMapping
@@ -78,4 +102,29 @@ public class UserController {
         log.info("Выполнение метода getMutualFriends.");
         return userService.getMutualFriends(id, otherId);
     }
+
+    @GetMapping("/{id}/path/{otherId}")
+    public List<User> getFriendPath(@PathVariable int id, @PathVariable int otherId,
+                                    @RequestParam(defaultValue = "6") int maxDepth) {
+        log.info("Выполнение метода getFriendPath.");
+        return userService.getFriendPath(id, otherId, maxDepth);
+    }
+
+    @GetMapping("/friends/common")
+    public List<User> getCommonFriends(@RequestParam List<Integer> ids) {
+        log.info("Выполнение метода getCommonFriends.");
+        return userService.getCommonFriends(ids);
+    }
+
+    @GetMapping("/{id}/feed/popular")
+    public List<Film> getPopularAmongFriends(@PathVariable int id, @RequestParam(defaultValue = "10") int amount) {
+        log.info("Выполнение метода getPopularAmongFriends.");
+        return userService.getPopularAmongFriends(id, amount);
+    }
+
+    @GetMapping("/{id}/liked-films")
+    public List<Film> getLikedFilms(@PathVariable int id) {
+        log.info("Выполнение метода getLikedFilms.");
+        return userService.getLikedFilms(id);
+    }
 }
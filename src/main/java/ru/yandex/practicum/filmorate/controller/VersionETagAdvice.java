@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Заголовок ETag с версией фильма или пользователя в ответах на GET и PUT,
+ * чтобы клиент мог передать её в If-Match, не читая тело ответа.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class VersionETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpMethod method = request.getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.PUT.equals(method)) {
+            return body;
+        }
+
+        // Тело может быть уже обёрнуто для параметра fields=
+        Object value = body instanceof MappingJacksonValue container ? container.getValue() : body;
+        if (value instanceof Film film) {
+            response.getHeaders().setETag(IfMatchHeader.etag(film.getVersion()));
+        } else if (value instanceof User user) {
+            response.getHeaders().setETag(IfMatchHeader.etag(user.getVersion()));
+        }
+        return body;
+    }
+}
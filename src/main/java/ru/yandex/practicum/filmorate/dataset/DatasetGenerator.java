@@ -0,0 +1,250 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Детерминированный генератор больших наборов данных для нагрузочных тестов и бенчмарков.
+ * Пользователи и фильмы получают ID 1..N. Степени вершин графа дружбы распределены по
+ * степенному закону и соединяются моделью конфигурации: «полурёбра» всех пользователей
+ * перемешиваются и соединяются попарно, петли и повторные рёбра отбрасываются. Лайки
+ * распределяются по фильмам по закону Ципфа. Рёбра и выбор фильмов хранятся в примитивных
+ * массивах, поэтому миллионы связей генерируются за секунды.
+ */
+@Slf4j
+public class DatasetGenerator {
+    // Диапазоны дат рождения пользователей и выхода фильмов
+    private static final LocalDate FIRST_BIRTHDAY = LocalDate.of(1950, 1, 1);
+    private static final int BIRTHDAY_DAYS = 55 * 365;
+    private static final LocalDate FIRST_RELEASE = LocalDate.of(1930, 1, 1);
+    private static final int RELEASE_DAYS = 94 * 365;
+
+    private final DatasetSpec spec;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        spec.validate();
+        this.spec = spec;
+    }
+
+    // Заполнение пустых хранилищ; ID генерируемых сущностей начинаются с 1
+    public DatasetSummary populate(UserStorage userStorage, FilmStorage filmStorage) {
+        if (userStorage.getStats().users() > 0 || filmStorage.getStats().films() > 0) {
+            throw new IllegalStateException("Набор данных загружается только в пустые хранилища.");
+        }
+        return generate(new StorageDatasetSink(userStorage, filmStorage));
+    }
+
+    // Генерация набора данных с передачей его получателю пачками
+    public DatasetSummary generate(DatasetSink sink) {
+        long started = System.nanoTime();
+
+        // Отдельный поток случайных чисел на каждую часть: изменение одной части не сдвигает остальные
+        SplittableRandom root = new SplittableRandom(spec.getSeed());
+        SplittableRandom userRandom = root.split();
+        SplittableRandom filmRandom = root.split();
+        SplittableRandom friendRandom = root.split();
+        SplittableRandom likeRandom = root.split();
+
+        long users = emit(spec.getUsers(), id -> user(id, userRandom), sink::users);
+        long films = emit(spec.getFilms(), id -> film(id, filmRandom), sink::films);
+        long friendships = emitFriendships(friendRandom, sink);
+        long likes = emitLikes(likeRandom, sink);
+
+        DatasetSummary summary = new DatasetSummary(users, films, friendships, likes,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Сгенерирован набор данных: {} пользователей, {} фильмов, {} дружб, {} лайков за {} мс.",
+                summary.users(), summary.films(), summary.friendships(), summary.likes(), summary.durationMs());
+        return summary;
+    }
+
+    // Дружба по модели конфигурации со степенным распределением степеней
+    private long emitFriendships(SplittableRandom random, DatasetSink sink) {
+        int users = spec.getUsers();
+        if (users < 2) {
+            return 0;
+        }
+
+        int[] degrees = new int[users];
+        long stubCount = 0;
+        for (int i = 0; i < users; i++) {
+            degrees[i] = powerLaw(random, spec.getMinFriends(), Math.min(spec.getMaxFriends(), users - 1),
+                    spec.getFriendExponent());
+            stubCount += degrees[i];
+        }
+        if (stubCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Слишком много связей дружбы: " + stubCount / 2 + ".");
+        }
+
+        // Полурёбра: ID пользователя повторяется столько раз, какова его степень
+        int[] stubs = new int[(int) stubCount];
+        int position = 0;
+        for (int i = 0; i < users; i++) {
+            Arrays.fill(stubs, position, position + degrees[i], i + 1);
+            position += degrees[i];
+        }
+        shuffle(stubs, random);
+
+        // Ребро кодируется парой (меньший ID, больший ID), сортировка убирает повторы
+        long[] edges = new long[stubs.length / 2];
+        int edgeCount = 0;
+        for (int i = 0; i + 1 < stubs.length; i += 2) {
+            int a = Math.min(stubs[i], stubs[i + 1]);
+            int b = Math.max(stubs[i], stubs[i + 1]);
+            if (a != b) {
+                edges[edgeCount++] = (long) a << 32 | b;
+            }
+        }
+        Arrays.parallelSort(edges, 0, edgeCount);
+
+        long accepted = 0;
+        List<Friendship> batch = new ArrayList<>(spec.getBatchSize());
+        for (int i = 0; i < edgeCount; i++) {
+            if (i > 0 && edges[i] == edges[i - 1]) {
+                continue;
+            }
+            batch.add(new Friendship((int) (edges[i] >>> 32), (int) edges[i]));
+            if (batch.size() == spec.getBatchSize()) {
+                accepted += sink.friendships(batch);
+                batch = new ArrayList<>(spec.getBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            accepted += sink.friendships(batch);
+        }
+        return accepted;
+    }
+
+    // Лайки: число лайков пользователя по степенному закону, фильм — по закону Ципфа
+    private long emitLikes(SplittableRandom random, DatasetSink sink) {
+        int films = spec.getFilms();
+        if (films == 0 || spec.getUsers() == 0) {
+            return 0;
+        }
+
+        // Функция распределения рангов популярности и случайное соответствие ранга фильму
+        double[] cdf = new double[films];
+        double total = 0;
+        for (int rank = 0; rank < films; rank++) {
+            total += 1 / Math.pow(rank + 1, spec.getFilmPopularitySkew());
+            cdf[rank] = total;
+        }
+        int[] filmByRank = new int[films];
+        Arrays.setAll(filmByRank, rank -> rank + 1);
+        shuffle(filmByRank, random);
+
+        int maxLikes = Math.min(spec.getMaxLikes(), films);
+        int[] picks = new int[maxLikes];
+        long accepted = 0;
+        List<Like> batch = new ArrayList<>(spec.getBatchSize());
+
+        for (int userId = 1; userId <= spec.getUsers(); userId++) {
+            int count = powerLaw(random, Math.min(spec.getMinLikes(), maxLikes), maxLikes, spec.getLikesExponent());
+            for (int i = 0; i < count; i++) {
+                int rank = Arrays.binarySearch(cdf, random.nextDouble() * total);
+                picks[i] = filmByRank[Math.min(rank >= 0 ? rank : -rank - 1, films - 1)];
+            }
+
+            // Повторно выбранные фильмы лайкаются один раз
+            Arrays.sort(picks, 0, count);
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && picks[i] == picks[i - 1]) {
+                    continue;
+                }
+                batch.add(new Like(picks[i], userId));
+                if (batch.size() == spec.getBatchSize()) {
+                    accepted += sink.likes(batch);
+                    batch = new ArrayList<>(spec.getBatchSize());
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            accepted += sink.likes(batch);
+        }
+        return accepted;
+    }
+
+    // Передача сущностей с ID 1..count пачками
+    private <T> long emit(int count, Function<Integer, T> factory, Function<List<T>, Integer> consumer) {
+        long accepted = 0;
+        List<T> batch = new ArrayList<>(Math.min(count, spec.getBatchSize()));
+        for (int id = 1; id <= count; id++) {
+            batch.add(factory.apply(id));
+            if (batch.size() == spec.getBatchSize()) {
+                accepted += consumer.apply(batch);
+                batch = new ArrayList<>(spec.getBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            accepted += consumer.apply(batch);
+        }
+        return accepted;
+    }
+
+    private static User user(int id, SplittableRandom random) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@example.com")
+                .login("user" + id)
+                .name("Пользователь " + id)
+                .birthday(FIRST_BIRTHDAY.plusDays(random.nextInt(BIRTHDAY_DAYS)))
+                .build();
+    }
+
+    private static Film film(int id, SplittableRandom random) {
+        // От одного до трёх жанров из справочника
+        long genreMask = 0;
+        int genres = 1 + random.nextInt(3);
+        for (int i = 0; i < genres; i++) {
+            genreMask |= Genre.bit(1 + random.nextInt(Genre.DIRECTORY.size()));
+        }
+
+        return Film.builder()
+                .id(id)
+                .name("Фильм " + id)
+                .description("Сгенерированный фильм " + id)
+                .releaseDate(FIRST_RELEASE.plusDays(random.nextInt(RELEASE_DAYS)))
+                .duration(60 + random.nextInt(150))
+                .mpa(Mpa.DIRECTORY.get(random.nextInt(Mpa.DIRECTORY.size())))
+                .genreMask(genreMask)
+                .build();
+    }
+
+    // Целое значение степенного распределения на [min, max] методом обратной функции
+    private static int powerLaw(SplittableRandom random, int min, int max, double exponent) {
+        if (max <= min) {
+            return Math.max(max, 0);
+        }
+
+        // Непрерывное распределение Парето на [min + 1, max + 1), сдвинутое так, чтобы допускать 0
+        double low = min + 1;
+        double high = max + 1;
+        double a = Math.pow(low, 1 - exponent);
+        double b = Math.pow(high, 1 - exponent);
+        double value = Math.pow(a + (b - a) * random.nextDouble(), 1 / (1 - exponent));
+        return Math.min(max, (int) value - 1);
+    }
+
+    private static void shuffle(int[] array, SplittableRandom random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = array[i];
+            array[i] = array[j];
+            array[j] = value;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.List;
+
+/**
+ * Получатель сгенерированных данных. Пачки приходят в порядке: пользователи, фильмы, дружба, лайки,
+ * поэтому связи всегда ссылаются на уже переданные сущности. Методы возвращают количество принятых записей.
+ */
+public interface DatasetSink {
+    int users(List<User> batch);
+
+    int films(List<Film> batch);
+
+    int friendships(List<Friendship> batch);
+
+    int likes(List<Like> batch);
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Параметры генерируемого набора данных. Одинаковые параметры, включая seed,
+ * всегда дают одинаковый набор данных.
+ */
+@Data
+@Builder(toBuilder = true)
+public class DatasetSpec {
+    // Начальное значение генератора случайных чисел
+    @Builder.Default
+    private long seed = 42;
+
+    // Количество пользователей и фильмов
+    @Builder.Default
+    private int users = 1_000;
+    @Builder.Default
+    private int films = 100;
+
+    // Число друзей пользователя распределено по степенному закону P(k) ~ k^-friendExponent на [minFriends, maxFriends]
+    @Builder.Default
+    private double friendExponent = 2.5;
+    @Builder.Default
+    private int minFriends = 1;
+    @Builder.Default
+    private int maxFriends = 1_000;
+
+    // Число лайков пользователя распределено по степенному закону на [minLikes, maxLikes]
+    @Builder.Default
+    private double likesExponent = 2.0;
+    @Builder.Default
+    private int minLikes = 1;
+    @Builder.Default
+    private int maxLikes = 200;
+
+    // Показатель распределения Ципфа для выбора фильма: чем он больше, тем сильнее лайки
+    // сосредоточены на немногих популярных фильмах
+    @Builder.Default
+    private double filmPopularitySkew = 1.1;
+
+    // Количество записей, передаваемых получателю за раз
+    @Builder.Default
+    private int batchSize = 10_000;
+
+    // Проверка согласованности параметров
+    void validate() {
+        if (users < 0 || films < 0) {
+            throw new IllegalArgumentException("Количество пользователей и фильмов не может быть отрицательным.");
+        }
+        if (minFriends < 0 || minFriends > maxFriends || minLikes < 0 || minLikes > maxLikes) {
+            throw new IllegalArgumentException("Нижняя граница распределения должна быть от 0 до верхней.");
+        }
+        if (friendExponent <= 1 || likesExponent <= 1) {
+            throw new IllegalArgumentException("Показатель степенного распределения должен быть больше 1.");
+        }
+        if (filmPopularitySkew < 0) {
+            throw new IllegalArgumentException("Показатель распределения Ципфа не может быть отрицательным.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным.");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+// Итоги генерации: количество принятых получателем записей и время генерации
+public record DatasetSummary(
+        long users,
+        long films,
+        long friendships,
+        long likes,
+        long durationMs
+) {
+}
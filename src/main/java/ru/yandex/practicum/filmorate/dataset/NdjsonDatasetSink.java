@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import ru.yandex.practicum.filmorate.bulk.BulkRecord;
+import ru.yandex.practicum.filmorate.bulk.BulkService;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Запись сгенерированных данных в формате выгрузки /bulk/export, пригодном для /bulk/import.
+ */
+public class NdjsonDatasetSink implements DatasetSink, Closeable {
+    private final OutputStream out;
+    private final SequenceWriter writer;
+
+    public NdjsonDatasetSink(OutputStream out, ObjectMapper mapper) throws IOException {
+        this.out = out;
+        this.writer = BulkService.recordWriter(mapper).writeValues(out);
+    }
+
+    @Override
+    public int users(List<User> batch) {
+        return write(batch, BulkRecord.UserRecord::new);
+    }
+
+    @Override
+    public int films(List<Film> batch) {
+        return write(batch, BulkRecord.FilmRecord::new);
+    }
+
+    @Override
+    public int friendships(List<Friendship> batch) {
+        return write(batch, BulkRecord.FriendshipRecord::new);
+    }
+
+    @Override
+    public int likes(List<Like> batch) {
+        return write(batch, BulkRecord.LikeRecord::new);
+    }
+
+    // Завершение последней строки; сам поток вывода остаётся открытым
+    @Override
+    public void close() throws IOException {
+        writer.close();
+        out.write('\n');
+        out.flush();
+    }
+
+    private <T> int write(List<T> batch, Function<T, BulkRecord> record) {
+        try {
+            for (T value : batch) {
+                writer.write(record.apply(value));
+            }
+            return batch.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
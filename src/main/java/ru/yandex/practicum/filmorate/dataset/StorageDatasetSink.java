@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.List;
+
+/**
+ * Заполнение хранилищ через их массовые методы, минуя сервисы и валидацию запросов.
+ */
+@RequiredArgsConstructor
+public class StorageDatasetSink implements DatasetSink {
+    private final UserStorage userStorage;
+    private final FilmStorage filmStorage;
+
+    @Override
+    public int users(List<User> batch) {
+        return batch.size() - userStorage.addUsers(batch).size();
+    }
+
+    @Override
+    public int films(List<Film> batch) {
+        return batch.size() - filmStorage.addFilms(batch).size();
+    }
+
+    @Override
+    public int friendships(List<Friendship> batch) {
+        return userStorage.addFriendships(batch);
+    }
+
+    @Override
+    public int likes(List<Like> batch) {
+        return filmStorage.addLikes(batch);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+public class NodeUnavailableException extends RuntimeException {
+    // Исключение без стек-трейса: узел кластера недоступен, причина сохраняется в cause
+    public NodeUnavailableException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
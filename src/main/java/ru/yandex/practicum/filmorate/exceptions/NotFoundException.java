@@ -1,7 +1,8 @@
 package ru.yandex.practicum.filmorate.exceptions;
 
 public class NotFoundException extends RuntimeException {
+    // Исключение без стек-трейса: оно описывает ожидаемый промах по ID, а не ошибку в коде
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
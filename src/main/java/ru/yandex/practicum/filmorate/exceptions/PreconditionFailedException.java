@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    // Исключение без стек-трейса: конфликт версий — ожидаемая ситуация при одновременных изменениях
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,7 +1,8 @@
 package ru.yandex.practicum.filmorate.exceptions;
 
 public class ValidationException extends RuntimeException {
+    // Исключение без стек-трейса: оно описывает некорректный запрос, а не ошибку в коде
     public ValidationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Взаимное добавление пользователей в друзья.
+ */
+@Name("ru.yandex.practicum.filmorate.AddFriend")
+@Label("Добавление в друзья")
+@Category({"Filmorate", "Пользователи"})
+public class AddFriendEvent extends Event {
+    @Label("ID пользователя")
+    public int userId;
+
+    @Label("ID друга")
+    public int friendId;
+
+    @Label("Добавлено")
+    public boolean added;
+
+    @Label("Друзей у пользователя")
+    public int userFriendCount;
+
+    @Label("Друзей у друга")
+    public int friendFriendCount;
+}
@@ -0,0 +1,133 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Управление ограниченной записью JFR с событиями предметной области и профилем JDK.
+ * Одновременно ведётся не более одной записи; она останавливается сама по истечении
+ * длительности, а её размер на диске ограничен.
+ */
+@Slf4j
+@Service
+public class JfrRecordingService {
+    // Наибольшие допустимые длительность и размер записи
+    public static final int MAX_DURATION_SECONDS = 3_600;
+    public static final int MAX_SIZE_MB = 512;
+
+    // События предметной области, включаемые в запись без порога длительности
+    private static final List<Class<? extends Event>> DOMAIN_EVENTS = List.of(
+            LikeEvent.class,
+            TopQueryEvent.class,
+            AddFriendEvent.class,
+            MutualFriendsEvent.class,
+            StorageLookupEvent.class
+    );
+
+    private Recording recording;
+
+    // Запуск записи; предыдущая остановленная запись, которую не забрали, отбрасывается
+    public synchronized RecordingInfo start(int durationSeconds, int maxSizeMb) {
+        if (durationSeconds <= 0 || durationSeconds > MAX_DURATION_SECONDS) {
+            throw new ValidationException("Длительность записи должна быть от 1 до " + MAX_DURATION_SECONDS + " секунд.");
+        }
+        if (maxSizeMb <= 0 || maxSizeMb > MAX_SIZE_MB) {
+            throw new ValidationException("Размер записи должен быть от 1 до " + MAX_SIZE_MB + " МБ.");
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new ValidationException("Запись JFR уже идёт.");
+        }
+        closeRecording();
+
+        Recording newRecording;
+        try {
+            newRecording = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Не удалось загрузить профиль JFR.", e);
+        }
+        newRecording.setName("filmorate");
+        newRecording.setDuration(Duration.ofSeconds(durationSeconds));
+        newRecording.setMaxSize(maxSizeMb * 1024L * 1024L);
+        newRecording.setToDisk(true);
+        for (Class<? extends Event> event : DOMAIN_EVENTS) {
+            newRecording.enable(event);
+        }
+        newRecording.start();
+
+        recording = newRecording;
+        log.info("Запись JFR {} запущена на {} с.", recording.getId(), durationSeconds);
+        return info(recording);
+    }
+
+    // Состояние текущей записи
+    public synchronized RecordingInfo status() {
+        return info(current());
+    }
+
+    // Остановка записи и получение её содержимого в формате .jfr
+    public synchronized byte[] stop() {
+        Recording stopped = current();
+        if (stopped.getState() == RecordingState.RUNNING) {
+            stopped.stop();
+        }
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("filmorate-", ".jfr");
+            stopped.dump(file);
+            log.info("Запись JFR {} остановлена, размер {} байт.", stopped.getId(), Files.size(file));
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить запись JFR.", e);
+        } finally {
+            closeRecording();
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Не удалось удалить временный файл записи JFR {}.", file);
+                }
+            }
+        }
+    }
+
+    private Recording current() {
+        if (recording == null) {
+            throw new NotFoundException("Запись JFR не запущена.");
+        }
+        return recording;
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static RecordingInfo info(Recording recording) {
+        Duration duration = recording.getDuration();
+        return new RecordingInfo(
+                recording.getId(),
+                recording.getName(),
+                recording.getState().name(),
+                recording.getStartTime(),
+                duration == null ? 0 : duration.toSeconds(),
+                recording.getMaxSize()
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Добавление или удаление лайка фильму.
+ */
+@Name("ru.yandex.practicum.filmorate.Like")
+@Label("Лайк")
+@Category({"Filmorate", "Фильмы"})
+@Description("Добавление или удаление лайка с размером множества лайков фильма после операции")
+public class LikeEvent extends Event {
+    @Label("ID фильма")
+    public int filmId;
+
+    @Label("ID пользователя")
+    public int userId;
+
+    @Label("Добавление")
+    @Description("true — addLike, false — deleteLike")
+    public boolean add;
+
+    @Label("Изменено")
+    @Description("Множество лайков изменилось: лайка не было при добавлении или был при удалении")
+    public boolean changed;
+
+    @Label("Лайков у фильма")
+    public int likeCount;
+}
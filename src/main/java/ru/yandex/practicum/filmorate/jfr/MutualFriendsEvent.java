@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Пересечение множеств друзей двух пользователей.
+ */
+@Name("ru.yandex.practicum.filmorate.GetMutualFriends")
+@Label("Общие друзья")
+@Category({"Filmorate", "Пользователи"})
+public class MutualFriendsEvent extends Event {
+    @Label("ID пользователя")
+    public int userId;
+
+    @Label("ID другого пользователя")
+    public int otherId;
+
+    @Label("Друзей у пользователя")
+    public int userFriendCount;
+
+    @Label("Друзей у другого пользователя")
+    public int otherFriendCount;
+
+    @Label("Общих друзей")
+    public int resultSize;
+}
@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import java.time.Instant;
+
+// Состояние записи JFR
+public record RecordingInfo(
+        long id,
+        String name,
+        String state,
+        Instant startTime,
+        long durationSeconds,
+        long maxSizeBytes
+) {
+}
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Поиск фильмов или пользователей в хранилище по ID, электронной почте или логину.
+ * Событие частое, поэтому записывается без стека вызовов.
+ */
+@Name("ru.yandex.practicum.filmorate.StorageLookup")
+@Label("Поиск в хранилище")
+@Category({"Filmorate", "Хранилище"})
+@StackTrace(false)
+public class StorageLookupEvent extends Event {
+    @Label("Сущность")
+    public String entity;
+
+    @Label("Ключ поиска")
+    public String key;
+
+    @Label("Запрошено")
+    public int requested;
+
+    @Label("Найдено")
+    public int found;
+
+    // Запись события, если оно включено в текущей записи и прошло порог длительности
+    public static void commit(StorageLookupEvent event, String entity, String key, int requested, int found) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.entity = entity;
+            event.key = key;
+            event.requested = requested;
+            event.found = found;
+            event.commit();
+        }
+    }
+}
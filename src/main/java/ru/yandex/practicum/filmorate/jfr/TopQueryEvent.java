@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Запрос списка наиболее популярных фильмов.
+ */
+@Name("ru.yandex.practicum.filmorate.GetTop")
+@Label("Популярные фильмы")
+@Category({"Filmorate", "Фильмы"})
+public class TopQueryEvent extends Event {
+    @Label("Запрошено фильмов")
+    public int amount;
+
+    @Label("ID жанра")
+    public int genreId;
+
+    @Label("Год выхода")
+    public int year;
+
+    @Label("Найдено фильмов")
+    public int resultSize;
+}
@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Результат получения нескольких объектов по списку ID.
+ * Отсутствующие ID перечисляются отдельно, исключение не выбрасывается.
+ */
+@Value
+public class BatchResult<T> {
+    // Найденные объекты в порядке запрошенных ID
+    List<T> found;
+
+    // ID, для которых объекты не найдены
+    List<Integer> missingIds;
+}
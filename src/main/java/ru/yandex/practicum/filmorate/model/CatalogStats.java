@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.SortedMap;
+
+/**
+ * Сводная статистика каталога для аналитики.
+ */
+public record CatalogStats(long films,
+                           long users,
+                           long likes,
+                           long friendships,
+                           double averageDuration,
+                           SortedMap<Integer, Long> filmsByYear,
+                           SortedMap<Integer, Long> likeDistribution,
+                           SortedMap<Integer, Long> friendCountDistribution) {
+
+    // Сборка сводной статистики из агрегатов хранилищ
+    public static CatalogStats of(FilmStats filmStats, UserStats userStats) {
+        double averageDuration = filmStats.films() == 0
+                ? 0
+                : (double) filmStats.totalDuration() / filmStats.films();
+
+        return new CatalogStats(
+                filmStats.films(),
+                userStats.users(),
+                filmStats.likes(),
+                userStats.friendships(),
+                averageDuration,
+                filmStats.filmsByYear(),
+                filmStats.likeDistribution(),
+                userStats.friendCountDistribution()
+        );
+    }
+}
@@ -1,17 +1,18 @@
 package ru.yandex.practicum.filmorate.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Film.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @EqualsAndHashCode(of = {"id"})
 public class Film {
     // Лайки фильма
@@ -39,6 +40,17 @@ public class Film {
     @Positive(message = "Продолжительность фильма должна быть положительным числом.")
     private Integer duration;
 
+    // Возрастной рейтинг
+    private Mpa mpa;
+
+    // Жанры фильма в виде битовой маски: бит (ID - 1) соответствует жанру с данным ID
+    @JsonIgnore
+    private long genreMask;
+
+    // Версия изменяемых полей для оптимистичной блокировки: увеличивается при каждом обновлении
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     // Проверка корректности даты релиза
     @AssertTrue(message = "Дата релиза — не раньше 28 декабря 1895 года.")
     public boolean isReleaseDateValid() {
@@ -57,4 +69,45 @@ public class Film {
 
         return this.likes;
     }
+
+    // Получение жанров фильма в порядке возрастания ID
+    @JsonProperty("genres")
+    public List<Genre> getGenres() {
+        List<Genre> genres = new ArrayList<>(Long.bitCount(genreMask));
+        long mask = genreMask;
+
+        while (mask != 0) {
+            int id = Long.numberOfTrailingZeros(mask) + 1;
+            genres.add(Genre.of(id).orElseGet(() -> new Genre(id, null)));
+            mask &= mask - 1;
+        }
+
+        return genres;
+    }
+
+    // Установка жанров фильма; повторяющиеся жанры схлопываются
+    @JsonProperty("genres")
+    public void setGenres(Collection<Genre> genres) {
+        long mask = 0;
+
+        if (genres != null) {
+            for (Genre genre : genres) {
+                mask |= Genre.bit(genre.getId());
+            }
+        }
+
+        this.genreMask = mask;
+    }
+
+    // Год выхода фильма
+    @JsonIgnore
+    public Integer getReleaseYear() {
+        return releaseDate == null ? null : releaseDate.getYear();
+    }
+
+    // Количество лайков фильма: вычисляется без создания пустого множества
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getLikeCount() {
+        return this.likes == null ? 0 : this.likes.size();
+    }
 }
@@ -0,0 +1,16 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.SortedMap;
+
+/**
+ * Агрегаты по фильмам.
+ *
+ * @param filmsByYear      количество фильмов по годам выхода
+ * @param likeDistribution количество фильмов по числу лайков
+ */
+public record FilmStats(long films,
+                        long likes,
+                        long totalDuration,
+                        SortedMap<Integer, Long> filmsByYear,
+                        SortedMap<Integer, Long> likeDistribution) {
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.model;
+
+/**
+ * Взаимная дружба двух пользователей.
+ */
+public record Friendship(int userId, int friendId) {
+}
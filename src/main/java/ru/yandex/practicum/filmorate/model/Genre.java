@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Жанр фильма.
+ */
+@Value
+public class Genre {
+    // Справочник жанров; ID жанра соответствует биту (ID - 1) в маске жанров фильма
+    public static final List<Genre> DIRECTORY = List.of(
+            new Genre(1, "Комедия"),
+            new Genre(2, "Драма"),
+            new Genre(3, "Мультфильм"),
+            new Genre(4, "Триллер"),
+            new Genre(5, "Документальный"),
+            new Genre(6, "Боевик")
+    );
+
+    // Наибольший ID жанра, который помещается в маску
+    public static final int MAX_ID = 63;
+
+    // Маска всех жанров справочника
+    public static final long KNOWN_MASK = DIRECTORY.stream()
+            .mapToLong(genre -> bit(genre.getId()))
+            .reduce(0L, (left, right) -> left | right);
+
+    // ID жанра
+    int id;
+
+    // Название жанра
+    String name;
+
+    // Записи справочника общие для всех фильмов, поэтому объект неизменяем
+    @JsonCreator
+    public Genre(@JsonProperty("id") int id, @JsonProperty("name") String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    // Поиск жанра в справочнике
+    public static Optional<Genre> of(int id) {
+        return id >= 1 && id <= DIRECTORY.size() ? Optional.of(DIRECTORY.get(id - 1)) : Optional.empty();
+    }
+
+    // Бит жанра в маске; для ID вне диапазона используется старший бит, которого нет в справочнике
+    public static long bit(int id) {
+        return id >= 1 && id <= MAX_ID ? 1L << (id - 1) : Long.MIN_VALUE;
+    }
+}
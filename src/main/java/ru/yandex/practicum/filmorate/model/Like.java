@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.model;
+
+/**
+ * Лайк пользователя фильму.
+ */
+public record Like(int filmId, int userId) {
+}
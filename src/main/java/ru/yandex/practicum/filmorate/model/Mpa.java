@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Возрастной рейтинг MPA.
+ */
+@Value
+public class Mpa {
+    // Справочник рейтингов
+    public static final List<Mpa> DIRECTORY = List.of(
+            new Mpa(1, "G"),
+            new Mpa(2, "PG"),
+            new Mpa(3, "PG-13"),
+            new Mpa(4, "R"),
+            new Mpa(5, "NC-17")
+    );
+
+    // ID рейтинга
+    int id;
+
+    // Название рейтинга
+    String name;
+
+    // Записи справочника общие для всех фильмов, поэтому объект неизменяем
+    @JsonCreator
+    public Mpa(@JsonProperty("id") int id, @JsonProperty("name") String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    // Поиск рейтинга в справочнике
+    public static Optional<Mpa> of(int id) {
+        return id >= 1 && id <= DIRECTORY.size() ? Optional.of(DIRECTORY.get(id - 1)) : Optional.empty();
+    }
+}
@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.model;
+
+/**
+ * Сравнение инкрементальной статистики с полным пересчётом.
+ *
+ * @param consistent  совпадают ли результаты
+ * @param recomputeMs длительность полного пересчёта
+ */
+public record StatsVerification(CatalogStats incremental,
+                                CatalogStats recomputed,
+                                boolean consistent,
+                                long recomputeMs) {
+}
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
@@ -11,7 +12,7 @@ import java.util.Set;
  * User.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @EqualsAndHashCode(of = {"id"})
 public class User {
     // Список друзей пользователя
@@ -39,6 +40,10 @@ public class User {
     @PastOrPresent(message = "Дата рождения не может быть в будущем.")
     private LocalDate birthday;
 
+    // Версия изменяемых полей для оптимистичной блокировки: увеличивается при каждом обновлении
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     // Получение списка ID друзей пользователя
     public Set<Integer> getFriends() {
         if (this.friends == null) {
@@ -47,4 +52,10 @@ public class User {
 
         return this.friends;
     }
+
+    // Количество друзей пользователя: вычисляется без создания пустого множества
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getFriendCount() {
+        return this.friends == null ? 0 : this.friends.size();
+    }
 }
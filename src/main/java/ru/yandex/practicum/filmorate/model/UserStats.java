@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.SortedMap;
+
+/**
+ * Агрегаты по пользователям.
+ *
+ * @param friendships             количество пар друзей
+ * @param friendCountDistribution количество пользователей по числу друзей
+ */
+public record UserStats(long users,
+                        long friendships,
+                        SortedMap<Integer, Long> friendCountDistribution) {
+}
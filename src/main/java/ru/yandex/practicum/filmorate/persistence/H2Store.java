@@ -0,0 +1,362 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Запись в H2 и чтение из неё по схеме из README. Изменения применяются сверкой с памятью:
+ * строка записывается, если ключ есть в памяти, и удаляется, если его там нет.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class H2Store {
+    // Размер пачки при загрузке из базы и при полной перезаписи
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final String MERGE_MPA = "MERGE INTO mpa_rating (id, name) KEY (id) VALUES (?, ?)";
+    private static final String MERGE_GENRE = "MERGE INTO genre (id, name) KEY (id) VALUES (?, ?)";
+    private static final String MERGE_USER =
+            "MERGE INTO users (id, email, login, name, birthday) KEY (id) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_USER = "DELETE FROM users WHERE id = ?";
+    private static final String MERGE_FILM = "MERGE INTO films (id, name, description, release_date, duration, "
+            + "rating_id) KEY (id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_FILM = "DELETE FROM films WHERE id = ?";
+    private static final String DELETE_FILM_GENRES = "DELETE FROM film_genre WHERE film_id = ?";
+    private static final String INSERT_FILM_GENRE = "INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)";
+    private static final String MERGE_FRIENDSHIP =
+            "MERGE INTO friendship (user_id, friend_id) KEY (user_id, friend_id) VALUES (?, ?)";
+    private static final String DELETE_FRIENDSHIP = "DELETE FROM friendship WHERE user_id = ? AND friend_id = ?";
+    private static final String MERGE_LIKE = "MERGE INTO likes (film_id, user_id) KEY (film_id, user_id) VALUES (?, ?)";
+    private static final String DELETE_LIKE = "DELETE FROM likes WHERE film_id = ? AND user_id = ?";
+    private static final String DELETE_USER_LIKES = "DELETE FROM likes WHERE user_id = ?";
+
+    private final DataSource dataSource;
+
+    // Создание таблиц и заполнение справочников
+    void createSchema() {
+        String script;
+        try {
+            script = new ClassPathResource("db/schema.sql").getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+
+            try (PreparedStatement mpa = connection.prepareStatement(MERGE_MPA);
+                 PreparedStatement genre = connection.prepareStatement(MERGE_GENRE)) {
+                for (Mpa rating : Mpa.DIRECTORY) {
+                    mpa.setInt(1, rating.getId());
+                    mpa.setString(2, rating.getName());
+                    mpa.addBatch();
+                }
+                for (Genre value : Genre.DIRECTORY) {
+                    genre.setInt(1, value.getId());
+                    genre.setString(2, value.getName());
+                    genre.addBatch();
+                }
+                mpa.executeBatch();
+                genre.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось создать схему базы данных: " + e.getMessage(), e);
+        }
+    }
+
+    // Загрузка содержимого базы в пустые хранилища через их массовые методы
+    void load(UserStorage userStorage, FilmStorage filmStorage) {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            int users = select(connection, "SELECT id, email, login, name, birthday FROM users", rs -> User.builder()
+                    .id(rs.getInt(1))
+                    .email(rs.getString(2))
+                    .login(rs.getString(3))
+                    .name(rs.getString(4))
+                    .birthday(rs.getDate(5).toLocalDate())
+                    .build(), userStorage::addUsers);
+
+            Map<Integer, Long> genreMasks = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT film_id, genre_id FROM film_genre")) {
+                while (rs.next()) {
+                    genreMasks.merge(rs.getInt(1), Genre.bit(rs.getInt(2)), (a, b) -> a | b);
+                }
+            }
+            int films = select(connection, "SELECT id, name, description, release_date, duration, rating_id FROM films",
+                    rs -> {
+                        int ratingId = rs.getInt(6);
+                        return Film.builder()
+                                .id(rs.getInt(1))
+                                .name(rs.getString(2))
+                                .description(rs.getString(3))
+                                .releaseDate(rs.getDate(4).toLocalDate())
+                                .duration(rs.getInt(5))
+                                .mpa(rs.wasNull() ? null : Mpa.of(ratingId).orElse(null))
+                                .genreMask(genreMasks.getOrDefault(rs.getInt(1), 0L))
+                                .build();
+                    }, filmStorage::addFilms);
+
+            int friendships = select(connection,
+                    "SELECT user_id, friend_id FROM friendship WHERE user_id < friend_id",
+                    rs -> new Friendship(rs.getInt(1), rs.getInt(2)), userStorage::addFriendships);
+            int likes = select(connection, "SELECT film_id, user_id FROM likes",
+                    rs -> new Like(rs.getInt(1), rs.getInt(2)), filmStorage::addLikes);
+
+            log.info("Из базы загружено {} пользователей, {} фильмов, {} дружб, {} лайков за {} мс.",
+                    users, films, friendships, likes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось загрузить данные из базы: " + e.getMessage(), e);
+        }
+    }
+
+    // Применение пачки изменений в одной транзакции
+    void apply(Collection<StorageChange> changes, UserStorage userStorage, FilmStorage filmStorage)
+            throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (changes.stream().anyMatch(StorageChange.Resync.class::isInstance)) {
+                    resync(connection, userStorage, filmStorage);
+                } else {
+                    reconcile(connection, changes, userStorage, filmStorage);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Сверка изменённых ключей с памятью. Порядок пакетов учитывает внешние ключи: сначала строки
+    // пользователей и фильмов, затем связи, в конце удаление сущностей вместе с их связями
+    private void reconcile(Connection connection, Collection<StorageChange> changes, UserStorage userStorage,
+                           FilmStorage filmStorage) throws SQLException {
+        try (PreparedStatement mergeUser = connection.prepareStatement(MERGE_USER);
+             PreparedStatement mergeFilm = connection.prepareStatement(MERGE_FILM);
+             PreparedStatement deleteFilmGenres = connection.prepareStatement(DELETE_FILM_GENRES);
+             PreparedStatement insertFilmGenre = connection.prepareStatement(INSERT_FILM_GENRE);
+             PreparedStatement deleteFriendship = connection.prepareStatement(DELETE_FRIENDSHIP);
+             PreparedStatement mergeFriendship = connection.prepareStatement(MERGE_FRIENDSHIP);
+             PreparedStatement deleteUserLikes = connection.prepareStatement(DELETE_USER_LIKES);
+             PreparedStatement deleteLike = connection.prepareStatement(DELETE_LIKE);
+             PreparedStatement mergeLike = connection.prepareStatement(MERGE_LIKE);
+             PreparedStatement deleteFilm = connection.prepareStatement(DELETE_FILM);
+             PreparedStatement deleteUser = connection.prepareStatement(DELETE_USER)) {
+
+            for (StorageChange change : changes) {
+                switch (change) {
+                    case StorageChange.UserChanged(int id) -> userStorage.findUser(id).ifPresentOrElse(
+                            user -> addUser(mergeUser, user),
+                            () -> addIds(deleteUser, id));
+                    case StorageChange.FilmChanged(int id) -> filmStorage.findFilm(id).ifPresentOrElse(
+                            film -> addFilm(mergeFilm, deleteFilmGenres, insertFilmGenre, film),
+                            () -> addIds(deleteFilm, id));
+                    case StorageChange.FriendshipChanged(int userId, int friendId) -> {
+                        boolean friends = userStorage.findUser(userId)
+                                .map(user -> user.getFriends().contains(friendId))
+                                .orElse(false) && userStorage.containsUser(friendId);
+                        PreparedStatement statement = friends ? mergeFriendship : deleteFriendship;
+                        addIds(statement, userId, friendId);
+                        addIds(statement, friendId, userId);
+                    }
+                    case StorageChange.LikeChanged(int filmId, int userId) -> addIds(
+                            isLiked(filmId, userId, userStorage, filmStorage) ? mergeLike : deleteLike, filmId, userId);
+                    case StorageChange.UserLikesChanged(int userId) -> {
+                        addIds(deleteUserLikes, userId);
+                        for (int filmId : filmStorage.getLikedFilmIds(userId)) {
+                            if (isLiked(filmId, userId, userStorage, filmStorage)) {
+                                addIds(mergeLike, filmId, userId);
+                            }
+                        }
+                    }
+                    case StorageChange.Resync resync -> {
+                    }
+                }
+            }
+
+            for (PreparedStatement statement : List.of(mergeUser, mergeFilm, deleteFilmGenres, insertFilmGenre,
+                    deleteFriendship, mergeFriendship, deleteUserLikes, deleteLike, mergeLike, deleteFilm,
+                    deleteUser)) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    // Полная перезапись базы содержимым памяти
+    private void resync(Connection connection, UserStorage userStorage, FilmStorage filmStorage)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("likes", "film_genre", "friendship", "films", "users")) {
+                statement.executeUpdate("DELETE FROM " + table);
+            }
+        }
+
+        List<User> users = userStorage.getUsers();
+        List<Film> films = filmStorage.getAllFilms();
+        try (PreparedStatement mergeUser = connection.prepareStatement(MERGE_USER);
+             PreparedStatement mergeFilm = connection.prepareStatement(MERGE_FILM);
+             PreparedStatement deleteFilmGenres = connection.prepareStatement(DELETE_FILM_GENRES);
+             PreparedStatement insertFilmGenre = connection.prepareStatement(INSERT_FILM_GENRE);
+             PreparedStatement mergeFriendship = connection.prepareStatement(MERGE_FRIENDSHIP);
+             PreparedStatement mergeLike = connection.prepareStatement(MERGE_LIKE)) {
+            int pending = 0;
+            for (User user : users) {
+                addUser(mergeUser, user);
+                pending = flushIfFull(pending + 1, mergeUser);
+            }
+            mergeUser.executeBatch();
+
+            for (Film film : films) {
+                addFilm(mergeFilm, deleteFilmGenres, insertFilmGenre, film);
+                pending = flushIfFull(pending + 1, mergeFilm, deleteFilmGenres, insertFilmGenre);
+            }
+            mergeFilm.executeBatch();
+            deleteFilmGenres.executeBatch();
+            insertFilmGenre.executeBatch();
+
+            for (User user : users) {
+                for (int friendId : user.getFriends()) {
+                    if (userStorage.containsUser(friendId)) {
+                        addIds(mergeFriendship, user.getId(), friendId);
+                        pending = flushIfFull(pending + 1, mergeFriendship);
+                    }
+                }
+                for (int filmId : filmStorage.getLikedFilmIds(user.getId())) {
+                    if (filmStorage.containsFilm(filmId)) {
+                        addIds(mergeLike, filmId, user.getId());
+                        pending = flushIfFull(pending + 1, mergeLike);
+                    }
+                }
+            }
+            mergeFriendship.executeBatch();
+            mergeLike.executeBatch();
+        }
+    }
+
+    private static boolean isLiked(int filmId, int userId, UserStorage userStorage, FilmStorage filmStorage) {
+        return filmStorage.getLikedFilmIds(userId).contains(filmId)
+                && filmStorage.containsFilm(filmId)
+                && userStorage.containsUser(userId);
+    }
+
+    private static void addUser(PreparedStatement statement, User user) {
+        try {
+            statement.setInt(1, user.getId());
+            statement.setString(2, user.getEmail());
+            statement.setString(3, user.getLogin());
+            statement.setString(4, user.getName());
+            statement.setDate(5, Date.valueOf(user.getBirthday()));
+            statement.addBatch();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void addFilm(PreparedStatement mergeFilm, PreparedStatement deleteGenres,
+                                PreparedStatement insertGenre, Film film) {
+        try {
+            mergeFilm.setInt(1, film.getId());
+            mergeFilm.setString(2, film.getName());
+            mergeFilm.setString(3, film.getDescription());
+            mergeFilm.setDate(4, Date.valueOf(film.getReleaseDate()));
+            mergeFilm.setInt(5, film.getDuration());
+            if (film.getMpa() == null) {
+                mergeFilm.setNull(6, Types.INTEGER);
+            } else {
+                mergeFilm.setInt(6, film.getMpa().getId());
+            }
+            mergeFilm.addBatch();
+
+            addIds(deleteGenres, film.getId());
+            for (Genre genre : film.getGenres()) {
+                addIds(insertGenre, film.getId(), genre.getId());
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void addIds(PreparedStatement statement, int... ids) {
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                statement.setInt(i + 1, ids[i]);
+            }
+            statement.addBatch();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Выполнение накопленных пакетов, чтобы полная перезапись не держала в памяти всю базу
+    private static int flushIfFull(int pending, PreparedStatement... statements) throws SQLException {
+        if (pending < CHUNK_SIZE) {
+            return pending;
+        }
+        for (PreparedStatement statement : statements) {
+            statement.executeBatch();
+        }
+        return 0;
+    }
+
+    // Чтение запроса пачками с передачей каждой пачки получателю; возвращает количество строк
+    private static <T> int select(Connection connection, String sql, RowMapper<T> mapper,
+                                  Consumer<List<T>> consumer) throws SQLException {
+        int count = 0;
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                chunk.add(mapper.map(rs));
+                count++;
+                if (chunk.size() == CHUNK_SIZE) {
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки хранения данных (filmorate.storage.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.storage")
+public class PersistenceProperties {
+    // Режим хранения: in-memory — только память, write-behind — память с отложенной записью в H2
+    private String mode = "in-memory";
+
+    // Параметры подключения к встроенной базе H2
+    private String url = "jdbc:h2:file:./data/filmorate";
+    private String username = "sa";
+    private String password = "";
+
+    // Ёмкость очереди изменений; при заполнении запись в хранилище ждёт освобождения места
+    private int queueCapacity = 100_000;
+
+    // Наибольшее время ожидания места в очереди; по его истечении база перезаписывается из памяти целиком
+    private long offerTimeoutMs = 5_000;
+
+    // Наибольшее количество изменений в одной транзакции
+    private int batchSize = 1_000;
+
+    // Задержка перед сбросом неполной пачки, позволяющая накопить и схлопнуть изменения
+    private long flushIntervalMs = 50;
+
+    // Пауза перед повтором после ошибки записи в базу
+    private long retryDelayMs = 1_000;
+}
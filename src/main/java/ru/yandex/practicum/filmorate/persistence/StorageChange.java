@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+/**
+ * Изменённый ключ хранилища в очереди отложенной записи. Событие не несёт данных: при сбросе
+ * в базу текущее состояние ключа читается из памяти, поэтому порядок событий одного ключа
+ * и их повторы не влияют на результат, а повторы в одной пачке схлопываются.
+ */
+sealed interface StorageChange {
+    // Пользователь добавлен, изменён или удалён
+    record UserChanged(int id) implements StorageChange {
+    }
+
+    // Фильм добавлен, изменён или удалён
+    record FilmChanged(int id) implements StorageChange {
+    }
+
+    // Дружба пары пользователей; userId всегда меньше friendId
+    record FriendshipChanged(int userId, int friendId) implements StorageChange {
+        static FriendshipChanged of(int id, int otherId) {
+            return new FriendshipChanged(Math.min(id, otherId), Math.max(id, otherId));
+        }
+    }
+
+    // Лайк пользователя фильму
+    record LikeChanged(int filmId, int userId) implements StorageChange {
+    }
+
+    // Все лайки пользователя
+    record UserLikesChanged(int userId) implements StorageChange {
+    }
+
+    // Полная перезапись базы из памяти: после удаления всех сущностей или переполнения очереди
+    record Resync() implements StorageChange {
+    }
+}
@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+/**
+ * Отложенная запись в H2 (включение: filmorate.storage.mode=write-behind). Хранилища в памяти остаются
+ * рабочей копией: при запуске они заполняются из базы, а сервисы получают обёртки, ставящие
+ * каждое изменение в очередь записи.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "filmorate.storage", name = "mode", havingValue = "write-behind")
+public class WriteBehindConfig {
+    @Bean(destroyMethod = "dispose")
+    public JdbcConnectionPool writeBehindDataSource(PersistenceProperties properties) {
+        return JdbcConnectionPool.create(properties.getUrl(), properties.getUsername(), properties.getPassword());
+    }
+
+    // Очередь создаётся после загрузки данных из базы, чтобы загрузка не попала в очередь сама
+    @Bean(destroyMethod = "close")
+    public WriteBehindQueue writeBehindQueue(JdbcConnectionPool writeBehindDataSource,
+                                             InMemoryUserStorage userStorage,
+                                             InMemoryFilmStorage filmStorage,
+                                             PersistenceProperties properties) {
+        H2Store store = new H2Store(writeBehindDataSource);
+        store.createSchema();
+        store.load(userStorage, filmStorage);
+        log.info("Отложенная запись в базу {} включена.", properties.getUrl());
+        return new WriteBehindQueue(store, userStorage, filmStorage, properties);
+    }
+
+    @Bean
+    @Primary
+    public UserStorage writeBehindUserStorage(InMemoryUserStorage userStorage, WriteBehindQueue writeBehindQueue) {
+        return new WriteBehindUserStorage(userStorage, writeBehindQueue);
+    }
+
+    @Bean
+    @Primary
+    public FilmStorage writeBehindFilmStorage(InMemoryFilmStorage filmStorage, WriteBehindQueue writeBehindQueue) {
+        return new WriteBehindFilmStorage(filmStorage, writeBehindQueue);
+    }
+}
@@ -0,0 +1,158 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmStats;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Хранилище фильмов с отложенной записью: чтение и запись обслуживаются хранилищем в памяти,
+ * каждое успешное изменение ставится в очередь записи в базу.
+ */
+@RequiredArgsConstructor
+public class WriteBehindFilmStorage implements FilmStorage {
+    private final FilmStorage delegate;
+    private final WriteBehindQueue queue;
+
+    @Override
+    public Film createFilm(Film film) {
+        Film created = delegate.createFilm(film);
+        queue.submit(new StorageChange.FilmChanged(created.getId()));
+        return created;
+    }
+
+    @Override
+    public Film getFilm(int id) {
+        return delegate.getFilm(id);
+    }
+
+    @Override
+    public Optional<Film> findFilm(int id) {
+        return delegate.findFilm(id);
+    }
+
+    @Override
+    public boolean containsFilm(int id) {
+        return delegate.containsFilm(id);
+    }
+
+    @Override
+    public Film updateFilm(Film newFilm, Long expectedVersion) {
+        Film updated = delegate.updateFilm(newFilm, expectedVersion);
+        queue.submit(new StorageChange.FilmChanged(updated.getId()));
+        return updated;
+    }
+
+    @Override
+    public List<Film> getAllFilms() {
+        return delegate.getAllFilms();
+    }
+
+    @Override
+    public BatchResult<Film> getFilms(Collection<Integer> ids) {
+        return delegate.getFilms(ids);
+    }
+
+    // Удаление фильма; его жанры и лайки удаляются из базы каскадно
+    @Override
+    public Film deleteFilm(int id) {
+        Film deleted = delegate.deleteFilm(id);
+        queue.submit(new StorageChange.FilmChanged(id));
+        return deleted;
+    }
+
+    @Override
+    public void deleteFilms() {
+        delegate.deleteFilms();
+        queue.submit(new StorageChange.Resync());
+    }
+
+    @Override
+    public boolean addLike(int filmId, int userId) {
+        boolean added = delegate.addLike(filmId, userId);
+        if (added) {
+            queue.submit(new StorageChange.LikeChanged(filmId, userId));
+        }
+        return added;
+    }
+
+    @Override
+    public boolean deleteLike(int filmId, int userId) {
+        boolean deleted = delegate.deleteLike(filmId, userId);
+        if (deleted) {
+            queue.submit(new StorageChange.LikeChanged(filmId, userId));
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Film> getLikedFilms(int userId) {
+        return delegate.getLikedFilms(userId);
+    }
+
+    @Override
+    public Set<Integer> getLikedFilmIds(int userId) {
+        return delegate.getLikedFilmIds(userId);
+    }
+
+    @Override
+    public int deleteLikesByUser(int userId) {
+        int deleted = delegate.deleteLikesByUser(userId);
+        queue.submit(new StorageChange.UserLikesChanged(userId));
+        return deleted;
+    }
+
+    @Override
+    public void deleteLikes() {
+        delegate.deleteLikes();
+        queue.submit(new StorageChange.Resync());
+    }
+
+    @Override
+    public List<Film> getPopular(int amount, Integer genreId, Integer year) {
+        return delegate.getPopular(amount, genreId, year);
+    }
+
+    @Override
+    public List<Film> addFilms(Collection<Film> films) {
+        List<Film> rejected = delegate.addFilms(films);
+        Set<Film> rejectedFilms = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejectedFilms.addAll(rejected);
+
+        for (Film film : films) {
+            if (!rejectedFilms.contains(film)) {
+                queue.submit(new StorageChange.FilmChanged(film.getId()));
+            }
+        }
+        return rejected;
+    }
+
+    // Новые лайки не отличимы от существующих, поэтому в очередь ставятся все; сверка с памятью идемпотентна
+    @Override
+    public int addLikes(Collection<Like> likes) {
+        int added = delegate.addLikes(likes);
+        for (Like like : likes) {
+            queue.submit(new StorageChange.LikeChanged(like.filmId(), like.userId()));
+        }
+        return added;
+    }
+
+    @Override
+    public FilmStats getStats() {
+        return delegate.getStats();
+    }
+
+    @Override
+    public long getVersion() {
+        return delegate.getVersion();
+    }
+}
@@ -0,0 +1,189 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченная очередь изменений и поток, сбрасывающий их в базу пачками.
+ * Когда очередь заполнена, запись в хранилище ждёт освобождения места, тем самым замедляясь до скорости базы.
+ * Если место не освободилось за отведённое время, изменение не теряется: поток перезаписывает базу
+ * из памяти целиком. Повторы ключей в пачке схлопываются, а пачка, которую не удалось записать,
+ * повторяется вместе с новыми изменениями.
+ */
+@Slf4j
+public class WriteBehindQueue implements AutoCloseable {
+    // Наибольшее время ожидания записи оставшихся изменений при остановке
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final H2Store store;
+    private final UserStorage userStorage;
+    private final FilmStorage filmStorage;
+    private final PersistenceProperties properties;
+
+    private final BlockingQueue<StorageChange> queue;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    // Счётчики для ожидания записи: поставленные в очередь изменения и изменения, уже записанные в базу
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private volatile long flushed;
+
+    // Статистика для диагностики
+    private final AtomicLong overflows = new AtomicLong();
+    private volatile long batches;
+    private volatile long failures;
+    private volatile long lastFlushMs;
+    private volatile String lastError;
+
+    WriteBehindQueue(H2Store store, UserStorage userStorage, FilmStorage filmStorage,
+                     PersistenceProperties properties) {
+        this.store = store;
+        this.userStorage = userStorage;
+        this.filmStorage = filmStorage;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.flusher = Thread.ofPlatform().name("write-behind-flusher").daemon().unstarted(this::run);
+        this.flusher.start();
+    }
+
+    // Постановка изменения в очередь с ожиданием места
+    void submit(StorageChange change) {
+        try {
+            if (queue.offer(change) || queue.offer(change, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                submitted.incrementAndGet();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (overflows.getAndIncrement() == 0) {
+            log.warn("Очередь отложенной записи переполнена: база будет перезаписана из памяти.");
+        }
+        submitted.incrementAndGet();
+        overflowed.incrementAndGet();
+    }
+
+    // Ожидание записи в базу всех изменений, поставленных в очередь до вызова; false по истечении времени
+    public boolean awaitFlushed(Duration timeout) throws InterruptedException {
+        long target = submitted.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (flushed < target) {
+            if (System.nanoTime() > deadline || !flusher.isAlive()) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    public WriteBehindStats getStats() {
+        return new WriteBehindStats(queue.size(), submitted.get(), flushed, batches, failures, overflows.get(),
+                lastFlushMs, lastError);
+    }
+
+    // Остановка с записью оставшихся изменений
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        flusher.join(CLOSE_TIMEOUT.toMillis());
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            log.error("Не все изменения записаны в базу при остановке: в очереди осталось {}.", queue.size());
+        }
+    }
+
+    private void run() {
+        Set<StorageChange> pending = new LinkedHashSet<>();
+        List<StorageChange> drained = new ArrayList<>();
+        long taken = 0;
+
+        while (true) {
+            try {
+                taken += collect(pending, drained);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+
+            // Переполнение очереди заменяет все накопленные изменения полной перезаписью
+            long lost = overflowed.getAndSet(0);
+            if (lost > 0) {
+                taken += lost + queue.drainTo(drained);
+                drained.clear();
+                pending.clear();
+                pending.add(new StorageChange.Resync());
+            } else if (pending.contains(new StorageChange.Resync())) {
+                pending.clear();
+                pending.add(new StorageChange.Resync());
+            }
+
+            if (pending.isEmpty()) {
+                if (!running && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+
+            long started = System.nanoTime();
+            try {
+                store.apply(pending, userStorage, filmStorage);
+                lastFlushMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                batches++;
+                pending.clear();
+                flushed = taken;
+            } catch (Exception e) {
+                failures++;
+                lastError = e.getMessage();
+                log.error("Ошибка записи {} изменений в базу, пачка будет повторена: {}", pending.size(),
+                        e.getMessage());
+                if (!running && Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                pause();
+            }
+        }
+    }
+
+    // Набор пачки: первое изменение ожидается, затем очередь вычерпывается до размера пачки
+    // в течение интервала сброса, чтобы частые изменения одних ключей схлопнулись
+    private long collect(Set<StorageChange> pending, List<StorageChange> drained) throws InterruptedException {
+        long taken = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+
+        while (pending.size() < properties.getBatchSize()) {
+            long remaining = deadline - System.nanoTime();
+            StorageChange change = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (change == null) {
+                break;
+            }
+            pending.add(change);
+            taken++;
+
+            taken += queue.drainTo(drained, properties.getBatchSize() - pending.size());
+            pending.addAll(drained);
+            drained.clear();
+        }
+
+        return taken;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getRetryDelayMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
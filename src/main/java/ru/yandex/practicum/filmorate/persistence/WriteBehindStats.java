@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+/**
+ * Состояние отложенной записи.
+ *
+ * @param queued     изменений в очереди
+ * @param submitted  изменений, поставленных в очередь с запуска
+ * @param flushed    изменений, записанных в базу с запуска
+ * @param batches    успешных транзакций
+ * @param failures   неудачных попыток записи
+ * @param overflows  изменений, не поместившихся в очередь за отведённое время
+ * @param lastFlushMs длительность последней успешной транзакции
+ * @param lastError  сообщение последней ошибки записи
+ */
+public record WriteBehindStats(int queued,
+                               long submitted,
+                               long flushed,
+                               long batches,
+                               long failures,
+                               long overflows,
+                               long lastFlushMs,
+                               String lastError) {
+}
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserStats;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Хранилище пользователей с отложенной записью: чтение и запись обслуживаются хранилищем в памяти,
+ * каждое успешное изменение ставится в очередь записи в базу.
+ */
+@RequiredArgsConstructor
+public class WriteBehindUserStorage implements UserStorage {
+    private final UserStorage delegate;
+    private final WriteBehindQueue queue;
+
+    @Override
+    public User addUser(User user) {
+        User added = delegate.addUser(user);
+        queue.submit(new StorageChange.UserChanged(added.getId()));
+        return added;
+    }
+
+    @Override
+    public List<User> getUsers() {
+        return delegate.getUsers();
+    }
+
+    @Override
+    public BatchResult<User> getUsers(Collection<Integer> ids) {
+        return delegate.getUsers(ids);
+    }
+
+    @Override
+    public User getUser(int id) {
+        return delegate.getUser(id);
+    }
+
+    @Override
+    public Optional<User> findUser(int id) {
+        return delegate.findUser(id);
+    }
+
+    @Override
+    public boolean containsUser(int id) {
+        return delegate.containsUser(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public Optional<User> findByLogin(String login) {
+        return delegate.findByLogin(login);
+    }
+
+    @Override
+    public User updateUser(User newUser, Long expectedVersion) {
+        User updated = delegate.updateUser(newUser, expectedVersion);
+        queue.submit(new StorageChange.UserChanged(updated.getId()));
+        return updated;
+    }
+
+    // Удаление пользователя; его дружбы и лайки удаляются из базы каскадно
+    @Override
+    public User deleteUser(int id) {
+        User deleted = delegate.deleteUser(id);
+        queue.submit(new StorageChange.UserChanged(id));
+        return deleted;
+    }
+
+    @Override
+    public void deleteUsers() {
+        delegate.deleteUsers();
+        queue.submit(new StorageChange.Resync());
+    }
+
+    @Override
+    public boolean addFriend(int id, int friendId) {
+        boolean added = delegate.addFriend(id, friendId);
+        if (added) {
+            queue.submit(StorageChange.FriendshipChanged.of(id, friendId));
+        }
+        return added;
+    }
+
+    @Override
+    public boolean deleteFriend(int id, int friendId) {
+        boolean deleted = delegate.deleteFriend(id, friendId);
+        if (deleted) {
+            queue.submit(StorageChange.FriendshipChanged.of(id, friendId));
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<User> addUsers(Collection<User> users) {
+        List<User> rejected = delegate.addUsers(users);
+        Set<User> rejectedUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejectedUsers.addAll(rejected);
+
+        for (User user : users) {
+            if (!rejectedUsers.contains(user)) {
+                queue.submit(new StorageChange.UserChanged(user.getId()));
+            }
+        }
+        return rejected;
+    }
+
+    // Новые пары не отличимы от существующих, поэтому в очередь ставятся все; сверка с памятью идемпотентна
+    @Override
+    public int addFriendships(Collection<Friendship> friendships) {
+        int added = delegate.addFriendships(friendships);
+        for (Friendship friendship : friendships) {
+            queue.submit(StorageChange.FriendshipChanged.of(friendship.userId(), friendship.friendId()));
+        }
+        return added;
+    }
+
+    @Override
+    public UserStats getStats() {
+        return delegate.getStats();
+    }
+}
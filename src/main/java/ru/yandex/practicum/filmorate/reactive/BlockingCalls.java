@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Выполнение вызовов блокирующих сервисов вне событийных потоков Netty.
+ * Сервисы ждут одинаковых одновременных запросов (SingleFlight) и блокировок хранилищ,
+ * поэтому вызов переносится на планировщик boundedElastic.
+ */
+final class BlockingCalls {
+    private BlockingCalls() {
+    }
+
+    // Вызов с результатом
+    static <T> Mono<T> call(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Вызов без результата
+    static Mono<Void> run(Runnable runnable) {
+        return Mono.<Void>fromRunnable(runnable).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Кодирование ответа в CBOR. Стандартный кодек не умеет писать поток, а обработчики отдают одно значение
+ * (сущность или готовый список), поэтому оно кодируется целиком. Кодек выбирается только при явно
+ * указанном типе CBOR, чтобы ответы обработчика ошибок на запросы без Accept оставались в JSON.
+ */
+class CborValueEncoder extends Jackson2CborEncoder {
+    CborValueEncoder(ObjectMapper mapper) {
+        super(mapper, MediaType.APPLICATION_CBOR);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return mimeType != null && !mimeType.isWildcardType() && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        return Mono.from(inputStream)
+                .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                .flux();
+    }
+}
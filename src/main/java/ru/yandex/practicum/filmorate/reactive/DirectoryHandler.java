@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.service.DirectoryService;
+
+/**
+ * Функциональные обработчики маршрутов /genres и /mpa.
+ * Справочники неизменяемы и хранятся в памяти, поэтому отдаются без отдельного реактивного адаптера.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class DirectoryHandler {
+    private final DirectoryService directoryService;
+    private final ReactiveRequestSupport requests;
+
+    public Mono<ServerResponse> getGenres(ServerRequest request) {
+        log.info("Выполнение метода getGenres.");
+        return requests.ok(request).bodyValue(directoryService.getGenres());
+    }
+
+    public Mono<ServerResponse> getGenre(ServerRequest request) {
+        log.info("Выполнение метода getGenre.");
+        return Mono.fromCallable(() -> directoryService.getGenre(requests.pathInt(request, "id")))
+                .flatMap(genre -> requests.ok(request).bodyValue(genre));
+    }
+
+    public Mono<ServerResponse> getMpaRatings(ServerRequest request) {
+        log.info("Выполнение метода getMpaRatings.");
+        return requests.ok(request).bodyValue(directoryService.getMpaRatings());
+    }
+
+    public Mono<ServerResponse> getMpa(ServerRequest request) {
+        log.info("Выполнение метода getMpa.");
+        return Mono.fromCallable(() -> directoryService.getMpa(requests.pathInt(request, "id")))
+                .flatMap(mpa -> requests.ok(request).bodyValue(mpa));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.controller.IfMatchHeader;
+import ru.yandex.practicum.filmorate.model.Film;
+
+/**
+ * Функциональные обработчики маршрутов /films.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class FilmHandler {
+    private final ReactiveFilmService filmService;
+    private final ReactiveRequestSupport requests;
+
+    public Mono<ServerResponse> getFilms(ServerRequest request) {
+        log.info("Выполнение метода getFilms.");
+        return filmService.getAll()
+                .flatMap(films -> requests.ok(request).bodyValue(films));
+    }
+
+    public Mono<ServerResponse> getFilmsByIds(ServerRequest request) {
+        log.info("Выполнение метода getFilmsByIds.");
+        return Mono.defer(() -> filmService.getByIds(requests.queryIntList(request, "ids")))
+                .flatMap(result -> requests.ok(request).bodyValue(result));
+    }
+
+    public Mono<ServerResponse> getFilm(ServerRequest request) {
+        log.info("Выполнение метода getFilm.");
+        return Mono.defer(() -> filmService.get(requests.pathInt(request, "id")))
+                .flatMap(film -> requests.ok(request).eTag(IfMatchHeader.etag(film.getVersion())).bodyValue(film));
+    }
+
+    public Mono<ServerResponse> addFilm(ServerRequest request) {
+        log.info("Выполнение метода addFilm.");
+        return requests.body(request, Film.class)
+                .flatMap(filmService::create)
+                .flatMap(film -> requests.ok(request).bodyValue(film));
+    }
+
+    public Mono<ServerResponse> updateFilm(ServerRequest request) {
+        log.info("Выполнение метода updateFilm.");
+        return requests.body(request, Film.class)
+                .flatMap(film -> filmService.update(film, requests.ifMatch(request)))
+                .flatMap(film -> requests.ok(request).eTag(IfMatchHeader.etag(film.getVersion())).bodyValue(film));
+    }
+
+    public Mono<ServerResponse> deleteFilm(ServerRequest request) {
+        log.info("Выполнение метода deleteFilm.");
+        return Mono.defer(() -> filmService.delete(requests.pathInt(request, "id")))
+                .flatMap(film -> requests.ok(request).bodyValue(film));
+    }
+
+    public Mono<ServerResponse> deleteFilms(ServerRequest request) {
+        log.info("Выполнение метода deleteFilms.");
+        return filmService.deleteAll()
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> addLike(ServerRequest request) {
+        log.info("Выполнение метода addLike.");
+        return Mono.defer(() -> filmService.addLike(
+                        requests.pathInt(request, "id"),
+                        requests.pathInt(request, "userId")))
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> deleteLike(ServerRequest request) {
+        log.info("Выполнение метода deleteLike.");
+        return Mono.defer(() -> filmService.deleteLike(
+                        requests.pathInt(request, "id"),
+                        requests.pathInt(request, "userId")))
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> getTop(ServerRequest request) {
+        log.info("Выполнение метода getTop.");
+        return Mono.defer(() -> filmService.getTop(
+                        requests.queryInt(request, "amount", 10),
+                        requests.queryOptionalInt(request, "genreId"),
+                        requests.queryOptionalInt(request, "year")))
+                .flatMap(films -> requests.ok(request).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).bodyValue(films));
+    }
+}
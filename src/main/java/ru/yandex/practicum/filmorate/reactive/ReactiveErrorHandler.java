@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.error.ErrorResponse;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+/**
+ * Отображение доменных исключений на коды ответа для функциональных обработчиков.
+ * Срабатывает и для ошибок, возникших при записи потока до отправки заголовков.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(-2)
+@RequiredArgsConstructor
+public class ReactiveErrorHandler implements WebExceptionHandler {
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        HttpStatus status;
+        String message;
+
+        if (ex instanceof NotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            message = ex.getMessage();
+        } else if (ex instanceof ValidationException) {
+            status = HttpStatus.BAD_REQUEST;
+            message = ex.getMessage();
+        } else if (ex instanceof PreconditionFailedException) {
+            status = HttpStatus.PRECONDITION_FAILED;
+            message = ex.getMessage();
+        } else if (ex instanceof ServerWebInputException) {
+            status = HttpStatus.BAD_REQUEST;
+            message = "Некорректное тело запроса.";
+        } else {
+            return Mono.error(ex);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.error(ex);
+        }
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new ErrorResponse(message));
+            response.setStatusCode(status);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+import java.util.List;
+
+/**
+ * Реактивный адаптер FilmService.
+ * Вызовы сервиса выполняются на планировщике boundedElastic (BlockingCalls). Списки сервис
+ * строит целиком, поэтому они отдаются одним значением, а не потоком элементов.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveFilmService {
+    private final FilmService filmService;
+
+    // Добавление фильма
+    public Mono<Film> create(Film film) {
+        return BlockingCalls.call(() -> filmService.create(film));
+    }
+
+    // Обновление фильма
+    public Mono<Film> update(Film newFilm, Long expectedVersion) {
+        return BlockingCalls.call(() -> filmService.update(newFilm, expectedVersion));
+    }
+
+    // Получение фильма по ID
+    public Mono<Film> get(int id) {
+        return BlockingCalls.call(() -> filmService.get(id));
+    }
+
+    // Получение списка всех фильмов
+    public Mono<List<Film>> getAll() {
+        return BlockingCalls.call(() -> filmService.getAll());
+    }
+
+    // Получение фильмов по списку ID
+    public Mono<BatchResult<Film>> getByIds(List<Integer> ids) {
+        return BlockingCalls.call(() -> filmService.getByIds(ids));
+    }
+
+    // Удаление фильма по ID
+    public Mono<Film> delete(int id) {
+        return BlockingCalls.call(() -> filmService.delete(id));
+    }
+
+    // Удаление всех фильмов
+    public Mono<Void> deleteAll() {
+        return BlockingCalls.run(filmService::deleteAll);
+    }
+
+    // Добавление лайка
+    public Mono<Void> addLike(int id, int userId) {
+        return BlockingCalls.run(() -> filmService.addLike(id, userId));
+    }
+
+    // Удаление лайка
+    public Mono<Void> deleteLike(int id, int userId) {
+        return BlockingCalls.run(() -> filmService.deleteLike(id, userId));
+    }
+
+    // Получение списка наиболее популярных фильмов
+    public Mono<List<Film>> getTop(int amount, Integer genreId, Integer year) {
+        return BlockingCalls.call(() -> filmService.getTop(amount, genreId, year));
+    }
+}
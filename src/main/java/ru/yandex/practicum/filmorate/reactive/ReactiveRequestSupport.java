@@ -0,0 +1,128 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.config.WireFormatConfig;
+import ru.yandex.practicum.filmorate.controller.IfMatchHeader;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбор и проверка входных данных функциональных обработчиков.
+ * Повторяет поведение @Valid и @PathVariable сервлетных контроллеров.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveRequestSupport {
+    private static final MediaType SMILE = MediaType.parseMediaType(WireFormatConfig.APPLICATION_SMILE_VALUE);
+
+    private final Validator validator;
+
+    // Чтение и валидация тела запроса
+    public <T> Mono<T> body(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ValidationException("Тело запроса не может быть пустым.")))
+                .flatMap(this::validate);
+    }
+
+    // Успешный ответ в формате из заголовка Accept: функциональные обработчики без явного Content-Type
+    // пишут тело первым подходящим кодеком и не выбирают CBOR и Smile, как сервлетные контроллеры
+    public ServerResponse.BodyBuilder ok(ServerRequest request) {
+        return ServerResponse.ok().contentType(responseType(request));
+    }
+
+    // Получение целочисленной переменной пути
+    public int pathInt(ServerRequest request, String name) {
+        try {
+            return Integer.parseInt(request.pathVariable(name));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Параметр " + name + " должен быть целым числом.");
+        }
+    }
+
+    // Ожидаемая версия сущности из заголовка If-Match
+    public Long ifMatch(ServerRequest request) {
+        return IfMatchHeader.parse(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+    }
+
+    // Получение целочисленного параметра запроса со значением по умолчанию
+    public int queryInt(ServerRequest request, String name, int defaultValue) {
+        Integer value = queryOptionalInt(request, name);
+        return value == null ? defaultValue : value;
+    }
+
+    // Получение необязательного целочисленного параметра запроса
+    public Integer queryOptionalInt(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .map(value -> {
+                    try {
+                        return Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new ValidationException("Параметр " + name + " должен быть целым числом.");
+                    }
+                })
+                .orElse(null);
+    }
+
+    // Получение списка целых чисел из параметра запроса вида ids=1,2,3
+    public List<Integer> queryIntList(ServerRequest request, String name) {
+        List<Integer> values = new ArrayList<>();
+        for (String value : request.queryParams().getOrDefault(name, List.of())) {
+            for (String part : value.split(",")) {
+                if (part.isBlank()) {
+                    continue;
+                }
+                try {
+                    values.add(Integer.parseInt(part.trim()));
+                } catch (NumberFormatException e) {
+                    throw new ValidationException("Параметр " + name + " должен содержать целые числа.");
+                }
+            }
+        }
+        return values;
+    }
+
+    private static MediaType responseType(ServerRequest request) {
+        for (MediaType accepted : request.headers().accept()) {
+            if (accepted.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (accepted.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+            if (accepted.equalsTypeAndSubtype(SMILE)) {
+                return SMILE;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private <T> Mono<T> validate(T body) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (violations.isEmpty()) {
+            return Mono.just(body);
+        }
+
+        // Сообщение в том же формате, что и у ErrorHandler
+        StringBuilder message = new StringBuilder("Ошибка валидации: ");
+        violations.forEach(violation ->
+                message.append(violation.getPropertyPath())
+                        .append(" - ")
+                        .append(violation.getMessage())
+                        .append("; ")
+        );
+        return Mono.error(new ValidationException(message.toString().trim()));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Маршруты неблокирующего варианта API (профиль reactive).
+ * Пути и коды ответов совпадают с FilmController и UserController.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoutesConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> filmRoutes(FilmHandler handler) {
+        return route()
+                .GET("/films/popular", handler::getTop)
+                .GET("/films", queryParam("ids", ids -> true), handler::getFilmsByIds)
+                .GET("/films", handler::getFilms)
+                .GET("/films/{id}", handler::getFilm)
+                .POST("/films", handler::addFilm)
+                .PUT("/films", handler::updateFilm)
+                .DELETE("/films/{id}", handler::deleteFilm)
+                .DELETE("/films", handler::deleteFilms)
+                .PUT("/films/{id}/like/{userId}", handler::addLike)
+                .DELETE("/films/{id}/like/{userId}", handler::deleteLike)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> userRoutes(UserHandler handler) {
+        return route()
+                .GET("/users", queryParam("ids", ids -> true), handler::getUsersByIds)
+                .GET("/users", queryParam("email", email -> true), handler::getUserByEmail)
+                .GET("/users", queryParam("login", login -> true), handler::getUserByLogin)
+                .GET("/users", handler::getUsers)
+                .GET("/users/{id}", handler::getUser)
+                .POST("/users", handler::addUser)
+                .PUT("/users", handler::updateUser)
+                .DELETE("/users", handler::deleteUsers)
+                .DELETE("/users/{id}", handler::deleteUser)
+                .PUT("/users/{id}/friends/{friendId}", handler::addFriend)
+                .DELETE("/users/{id}/friends/{friendId}", handler::deleteFriend)
+                .GET("/users/{id}/friends", handler::getFriends)
+                .GET("/users/{id}/friends/common/{otherId}", handler::getMutualFriends)
+                .GET("/users/{id}/path/{otherId}", handler::getFriendPath)
+                .GET("/users/friends/common", handler::getCommonFriends)
+                .GET("/users/{id}/feed/popular", handler::getPopularAmongFriends)
+                .GET("/users/{id}/liked-films", handler::getLikedFilms)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> directoryRoutes(DirectoryHandler handler) {
+        return route()
+                .GET("/genres", handler::getGenres)
+                .GET("/genres/{id}", handler::getGenre)
+                .GET("/mpa", handler::getMpaRatings)
+                .GET("/mpa/{id}", handler::getMpa)
+                .build();
+    }
+
+    // Сервер Netty на событийных потоках вместо Tomcat, который тоже есть в classpath
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // CBOR с теми же настройками Jackson, что и JSON; Smile поддерживается кодеками WebFlux по умолчанию.
+    // Тип указывается явно: без него кодеки CBOR заявляют типы JSON и перехватывают обычные запросы
+    @Bean
+    public CodecCustomizer cborCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        var mapper = builder.factory(new CBORFactory()).build();
+        return configurer -> {
+            configurer.customCodecs().register(new CborValueEncoder(mapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(mapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+}
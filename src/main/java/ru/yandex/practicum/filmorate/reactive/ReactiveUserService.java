@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+import java.util.List;
+
+/**
+ * Реактивный адаптер UserService.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveUserService {
+    private final UserService userService;
+
+    // Добавление пользователя
+    public Mono<User> add(User user) {
+        return BlockingCalls.call(() -> userService.add(user));
+    }
+
+    // Получение списка всех пользователей
+    public Mono<List<User>> getAll() {
+        return BlockingCalls.call(() -> userService.getAll());
+    }
+
+    // Получение пользователей по списку ID
+    public Mono<BatchResult<User>> getByIds(List<Integer> ids) {
+        return BlockingCalls.call(() -> userService.getByIds(ids));
+    }
+
+    // Получение пользователя по ID
+    public Mono<User> get(int id) {
+        return BlockingCalls.call(() -> userService.get(id));
+    }
+
+    // Получение пользователя по электронной почте
+    public Mono<User> getByEmail(String email) {
+        return BlockingCalls.call(() -> userService.getByEmail(email));
+    }
+
+    // Получение пользователя по логину
+    public Mono<User> getByLogin(String login) {
+        return BlockingCalls.call(() -> userService.getByLogin(login));
+    }
+
+    // Обновление пользователя
+    public Mono<User> update(User newUser, Long expectedVersion) {
+        return BlockingCalls.call(() -> userService.update(newUser, expectedVersion));
+    }
+
+    // Удаление пользователя по ID
+    public Mono<User> delete(int id) {
+        return BlockingCalls.call(() -> userService.delete(id));
+    }
+
+    // Удаление всех пользователей
+    public Mono<Void> deleteAll() {
+        return BlockingCalls.run(userService::deleteAll);
+    }
+
+    // Добавление пользователя в друзья
+    public Mono<Void> addFriend(int id, int friendId) {
+        return BlockingCalls.run(() -> userService.addFriend(id, friendId));
+    }
+
+    // Удаление пользователя из друзей
+    public Mono<Void> deleteFriend(int id, int friendId) {
+        return BlockingCalls.run(() -> userService.deleteFriend(id, friendId));
+    }
+
+    // Получение списка друзей пользователя
+    public Mono<List<User>> getFriends(int id) {
+        return BlockingCalls.call(() -> userService.getFriends(id));
+    }
+
+    // Получение списка общих друзей двух пользователей
+    public Mono<List<User>> getMutualFriends(int id, int otherId) {
+        return BlockingCalls.call(() -> userService.getMutualFriends(id, otherId));
+    }
+
+    // Получение кратчайшей цепочки друзей между двумя пользователями
+    public Mono<List<User>> getFriendPath(int id, int otherId, int maxDepth) {
+        return BlockingCalls.call(() -> userService.getFriendPath(id, otherId, maxDepth));
+    }
+
+    // Получение списка общих друзей группы пользователей
+    public Mono<List<User>> getCommonFriends(List<Integer> ids) {
+        return BlockingCalls.call(() -> userService.getCommonFriends(ids));
+    }
+
+    // Получение списка фильмов, популярных среди друзей пользователя
+    public Mono<List<Film>> getPopularAmongFriends(int id, int amount) {
+        return BlockingCalls.call(() -> userService.getPopularAmongFriends(id, amount));
+    }
+
+    // Получение списка фильмов, которым пользователь поставил лайк
+    public Mono<List<Film>> getLikedFilms(int id) {
+        return BlockingCalls.call(() -> userService.getLikedFilms(id));
+    }
+}
@@ -0,0 +1,138 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.controller.IfMatchHeader;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Функциональные обработчики маршрутов /users.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class UserHandler {
+    private final ReactiveUserService userService;
+    private final ReactiveRequestSupport requests;
+
+    public Mono<ServerResponse> getUsers(ServerRequest request) {
+        log.info("Выполнение метода getUsers.");
+        return userService.getAll()
+                .flatMap(users -> requests.ok(request).bodyValue(users));
+    }
+
+    public Mono<ServerResponse> getUsersByIds(ServerRequest request) {
+        log.info("Выполнение метода getUsersByIds.");
+        return Mono.defer(() -> userService.getByIds(requests.queryIntList(request, "ids")))
+                .flatMap(result -> requests.ok(request).bodyValue(result));
+    }
+
+    public Mono<ServerResponse> getUserByEmail(ServerRequest request) {
+        log.info("Выполнение метода getUserByEmail.");
+        return userService.getByEmail(request.queryParam("email").orElseThrow())
+                .flatMap(user -> requests.ok(request).bodyValue(user));
+    }
+
+    public Mono<ServerResponse> getUserByLogin(ServerRequest request) {
+        log.info("Выполнение метода getUserByLogin.");
+        return userService.getByLogin(request.queryParam("login").orElseThrow())
+                .flatMap(user -> requests.ok(request).bodyValue(user));
+    }
+
+    public Mono<ServerResponse> getUser(ServerRequest request) {
+        log.info("Выполнение метода getUser.");
+        return Mono.defer(() -> userService.get(requests.pathInt(request, "id")))
+                .flatMap(user -> requests.ok(request).eTag(IfMatchHeader.etag(user.getVersion())).bodyValue(user));
+    }
+
+    public Mono<ServerResponse> addUser(ServerRequest request) {
+        log.info("Выполнение метода addUser.");
+        return requests.body(request, User.class)
+                .flatMap(userService::add)
+                .flatMap(user -> requests.ok(request).bodyValue(user));
+    }
+
+    public Mono<ServerResponse> updateUser(ServerRequest request) {
+        log.info("Выполнение метода updateUser.");
+        return requests.body(request, User.class)
+                .flatMap(user -> userService.update(user, requests.ifMatch(request)))
+                .flatMap(user -> requests.ok(request).eTag(IfMatchHeader.etag(user.getVersion())).bodyValue(user));
+    }
+
+    public Mono<ServerResponse> deleteUsers(ServerRequest request) {
+        log.info("Выполнение метода deleteUsers.");
+        return userService.deleteAll()
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> deleteUser(ServerRequest request) {
+        log.info("Выполнение метода deleteUser.");
+        return Mono.defer(() -> userService.delete(requests.pathInt(request, "id")))
+                .flatMap(user -> requests.ok(request).bodyValue(user));
+    }
+
+    public Mono<ServerResponse> addFriend(ServerRequest request) {
+        log.info("Выполнение метода addFriend.");
+        return Mono.defer(() -> userService.addFriend(
+                        requests.pathInt(request, "id"),
+                        requests.pathInt(request, "friendId")))
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> deleteFriend(ServerRequest request) {
+        log.info("Выполнение метода deleteFriend.");
+        return Mono.defer(() -> userService.deleteFriend(
+                        requests.pathInt(request, "id"),
+                        requests.pathInt(request, "friendId")))
+                .then(ServerResponse.ok().build());
+    }
+
+    public Mono<ServerResponse> getFriends(ServerRequest request) {
+        log.info("Выполнение метода getFriends.");
+        return Mono.defer(() -> userService.getFriends(requests.pathInt(request, "id")))
+                .flatMap(users -> requests.ok(request).bodyValue(users));
+    }
+
+    public Mono<ServerResponse> getMutualFriends(ServerRequest request) {
+        log.info("Выполнение метода getMutualFriends.");
+        return Mono.defer(() -> userService.getMutualFriends(
+                        requests.pathInt(request, "id"),
+                        requests.pathInt(request, "otherId")))
+                .flatMap(users -> requests.ok(request).bodyValue(users));
+    }
+
+    public Mono<ServerResponse> getFriendPath(ServerRequest request) {
+        log.info("Выполнение метода getFriendPath.");
+        return Mono.defer(() -> userService.getFriendPath(
+                        requests.pathInt(request, "id"),
+                        requests.pathInt(request, "otherId"),
+                        requests.queryInt(request, "maxDepth", 6)))
+                .flatMap(users -> requests.ok(request).bodyValue(users));
+    }
+
+    public Mono<ServerResponse> getCommonFriends(ServerRequest request) {
+        log.info("Выполнение метода getCommonFriends.");
+        return Mono.defer(() -> userService.getCommonFriends(requests.queryIntList(request, "ids")))
+                .flatMap(users -> requests.ok(request).bodyValue(users));
+    }
+
+    public Mono<ServerResponse> getPopularAmongFriends(ServerRequest request) {
+        log.info("Выполнение метода getPopularAmongFriends.");
+        return Mono.defer(() -> userService.getPopularAmongFriends(
+                        requests.pathInt(request, "id"),
+                        requests.queryInt(request, "amount", 10)))
+                .flatMap(films -> requests.ok(request).bodyValue(films));
+    }
+
+    public Mono<ServerResponse> getLikedFilms(ServerRequest request) {
+        log.info("Выполнение метода getLikedFilms.");
+        return Mono.defer(() -> userService.getLikedFilms(requests.pathInt(request, "id")))
+                .flatMap(films -> requests.ok(request).bodyValue(films));
+    }
+}
@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.service;
+
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+
+import java.util.List;
+
+// Ограничения запросов на получение объектов по списку ID
+final class BatchLimits {
+    // Наибольшее количество ID в одном запросе
+    static final int MAX_IDS = 1000;
+
+    private BatchLimits() {
+    }
+
+    static void check(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("Список ID не может быть пустым.");
+        }
+
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException("Нельзя запросить больше " + MAX_IDS + " объектов за раз.");
+        }
+    }
+}
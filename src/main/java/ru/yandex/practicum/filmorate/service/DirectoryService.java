@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.service;
+
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+
+import java.util.List;
+
+public interface DirectoryService {
+    // Получение списка всех жанров
+    List<Genre> getGenres();
+
+    // Получение жанра по ID
+    Genre getGenre(int id);
+
+    // Получение списка всех рейтингов MPA
+    List<Mpa> getMpaRatings();
+
+    // Получение рейтинга MPA по ID
+    Mpa getMpa(int id);
+}
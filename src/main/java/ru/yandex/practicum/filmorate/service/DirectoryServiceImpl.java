@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+
+import java.util.List;
+
+@Service
+public class DirectoryServiceImpl implements DirectoryService {
+    // Получение списка всех жанров
+    @Override
+    public List<Genre> getGenres() {
+        return Genre.DIRECTORY;
+    }
+
+    // Получение жанра по ID
+    @Override
+    public Genre getGenre(int id) {
+        return Genre.of(id)
+                .orElseThrow(() -> new NotFoundException("Жанр с id = " + id + " не найден."));
+    }
+
+    // Получение списка всех рейтингов MPA
+    @Override
+    public List<Mpa> getMpaRatings() {
+        return Mpa.DIRECTORY;
+    }
+
+    // Получение рейтинга MPA по ID
+    @Override
+    public Mpa getMpa(int id) {
+        return Mpa.of(id)
+                .orElseThrow(() -> new NotFoundException("Рейтинг MPA с id = " + id + " не найден."));
+    }
+}
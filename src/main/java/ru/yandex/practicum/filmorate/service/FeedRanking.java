@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.service;
+
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Рейтинг фильмов по числу лайков группы пользователей. Фильм представлен ключом
+ * (лайки группы << 32) | (Integer.MAX_VALUE - ID): больший ключ — выше в рейтинге,
+ * при равенстве лайков выше фильм с меньшим ID. Ключи с разных узлов кластера сливаются сортировкой.
+ */
+public final class FeedRanking {
+    private FeedRanking() {
+    }
+
+    // Ключи лучших фильмов по убыванию; лайки подсчитываются по обратному индексу хранилища
+    public static long[] topKeys(Collection<Integer> userIds, FilmStorage filmStorage, int limit) {
+        FilmCounter counter = new FilmCounter();
+        for (int userId : userIds) {
+            for (int filmId : filmStorage.getLikedFilmIds(userId)) {
+                counter.increment(filmId);
+            }
+        }
+
+        // Куча с наименьшим ключом в вершине
+        long[] heap = new long[Math.max(limit, 0)];
+        int size = 0;
+        for (int i = 0; i < counter.capacity() && heap.length > 0; i++) {
+            if (counter.filmAt(i) == FilmCounter.EMPTY) {
+                continue;
+            }
+
+            long key = key(counter.filmAt(i), counter.countAt(i));
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+
+        long[] keys = Arrays.copyOf(heap, size);
+        Arrays.sort(keys);
+        reverse(keys);
+        return keys;
+    }
+
+    // Слияние рейтингов: ключи одного фильма приходят только с одного узла, поэтому достаточно сортировки
+    public static long[] merge(Collection<long[]> rankings, int limit) {
+        long[] keys = rankings.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        reverse(keys);
+        return Arrays.copyOf(keys, Math.min(limit, keys.length));
+    }
+
+    // ID фильма по ключу
+    public static int filmId(long key) {
+        return Integer.MAX_VALUE - (int) (key & 0xFFFFFFFFL);
+    }
+
+    private static long key(int filmId, int count) {
+        return (long) count << 32 | (Integer.MAX_VALUE - filmId);
+    }
+
+    private static void reverse(long[] keys) {
+        for (int i = 0, j = keys.length - 1; i < j; i++, j--) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+
+    // Счётчик лайков по ID фильма на примитивах: открытая адресация с линейным пробированием
+    private static final class FilmCounter {
+        // Пустая ячейка; ID фильмов положительны
+        static final int EMPTY = 0;
+
+        private int[] films = new int[64];
+        private int[] counts = new int[64];
+        private int size;
+
+        void increment(int filmId) {
+            int slot = slot(films, filmId);
+            if (films[slot] == EMPTY) {
+                films[slot] = filmId;
+                size++;
+            }
+            counts[slot]++;
+
+            if (size * 2 > films.length) {
+                resize();
+            }
+        }
+
+        int capacity() {
+            return films.length;
+        }
+
+        int filmAt(int slot) {
+            return films[slot];
+        }
+
+        int countAt(int slot) {
+            return counts[slot];
+        }
+
+        private void resize() {
+            int[] oldFilms = films;
+            int[] oldCounts = counts;
+            films = new int[oldFilms.length * 2];
+            counts = new int[oldFilms.length * 2];
+            for (int i = 0; i < oldFilms.length; i++) {
+                if (oldFilms[i] != EMPTY) {
+                    int slot = slot(films, oldFilms[i]);
+                    films[slot] = oldFilms[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        private static int slot(int[] films, int filmId) {
+            int mask = films.length - 1;
+            int hash = filmId * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (films[slot] != EMPTY && films[slot] != filmId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
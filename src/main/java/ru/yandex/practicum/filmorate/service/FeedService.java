@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.service;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+
+public interface FeedService {
+    // Фильмы, популярные среди друзей пользователя: по убыванию числа друзей, поставивших лайк
+    List<Film> getPopularAmongFriends(int id, int amount);
+
+    // Сброс лент двух пользователей после изменения их дружбы
+    void friendshipChanged(int id, int friendId);
+
+    // Сброс лент друзей пользователя после изменения его лайков
+    void likesChanged(int userId);
+
+    // Сброс всех лент после удаления пользователей или фильмов и массовой загрузки
+    void invalidateAll();
+}
@@ -0,0 +1,128 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Лента «популярное среди друзей». Лайки друзей подсчитываются по обратному индексу пользователь → фильмы,
+ * лучшие фильмы отбираются кучей ограниченного размера за O(L·log K), где L — число лайков друзей.
+ * Для пользователей с большим числом друзей готовый рейтинг кэшируется и сбрасывается
+ * при изменении их дружбы или лайков их друзей.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedServiceImpl implements FeedService {
+    // Наибольший размер ленты; кэшируется рейтинг этого размера, меньшие ленты берутся из его начала
+    public static final int MAX_FEED_SIZE = 100;
+
+    // Число друзей, начиная с которого лента кэшируется
+    static final int CACHED_FROM_FRIENDS = 100;
+
+    // Полосы счётчиков сброса: сброс ленты увеличивает счётчик её полосы
+    private static final int STRIPES = 256;
+
+    private final UserStorage userStorage;
+    private final FilmStorage filmStorage;
+
+    private final Map<Integer, int[]> rankings = new ConcurrentHashMap<>();
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    // Лента пользователя
+    @Override
+    public List<Film> getPopularAmongFriends(int id, int amount) {
+        // Проверка корректности ID пользователя и размера ленты
+        if (id <= 0) {
+            throw new ValidationException("ID пользователя должен быть положительным.");
+        }
+
+        if (amount <= 0 || amount > MAX_FEED_SIZE) {
+            throw new ValidationException("Размер ленты должен быть от 1 до " + MAX_FEED_SIZE + ".");
+        }
+
+        Set<Integer> friends = userStorage.getUser(id).getFriends();
+        int[] ranking = rankings.get(id);
+        if (ranking == null) {
+            ranking = friends.size() >= CACHED_FROM_FRIENDS ? rankAndCache(id, friends) : rank(friends);
+        }
+
+        List<Integer> filmIds = Arrays.stream(ranking).limit(amount).boxed().toList();
+        return filmStorage.getFilms(filmIds).getFound();
+    }
+
+    @Override
+    public void friendshipChanged(int id, int friendId) {
+        invalidate(id);
+        invalidate(friendId);
+    }
+
+    @Override
+    public void likesChanged(int userId) {
+        Set<Integer> friends = userStorage.findUser(userId).map(User::getFriends).orElse(Set.of());
+
+        // Для очень больших списков друзей дешевле сбросить все полосы сразу
+        if (friends.size() <= STRIPES) {
+            friends.forEach(this::invalidate);
+            return;
+        }
+
+        for (int i = 0; i < STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+        if (rankings.size() < friends.size()) {
+            rankings.keySet().removeIf(friends::contains);
+        } else {
+            friends.forEach(rankings::remove);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+        rankings.clear();
+    }
+
+    // Построение рейтинга с записью в кэш. Счётчик полосы читается до построения и проверяется после записи:
+    // если ленту сбросили в это время, запись удаляется, и устаревший рейтинг не остаётся в кэше
+    private int[] rankAndCache(int id, Set<Integer> friends) {
+        long stamp = invalidations.get(stripe(id));
+        int[] ranking = rank(friends);
+        rankings.put(id, ranking);
+        if (invalidations.get(stripe(id)) != stamp) {
+            rankings.remove(id, ranking);
+        }
+        return ranking;
+    }
+
+    private void invalidate(int id) {
+        invalidations.incrementAndGet(stripe(id));
+        rankings.remove(id);
+    }
+
+    // ID фильмов по убыванию числа лайков друзей, при равенстве — по возрастанию ID
+    private int[] rank(Set<Integer> friends) {
+        long[] keys = FeedRanking.topKeys(friends, filmStorage, MAX_FEED_SIZE);
+        int[] ranking = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ranking[i] = FeedRanking.filmId(keys[i]);
+        }
+        return ranking;
+    }
+
+    private static int stripe(int id) {
+        return (id ^ id >>> 16) & (STRIPES - 1);
+    }
+}
@@ -1,15 +1,22 @@
 package ru.yandex.practicum.filmorate.service;
 
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
 
 import java.util.List;
+import java.util.Map;
 
 public interface FilmService {
     // Добавление фильма
     Film create(Film film);
 
-    // Обновление фильма
-    Film update(Film newFilm);
+    // Обновление фильма без проверки версии
+    default Film update(Film newFilm) {
+        return update(newFilm, null);
+    }
+
+    // Обновление фильма, если его текущая версия равна ожидаемой (null — без проверки)
+    Film update(Film newFilm, Long expectedVersion);
 
     // Получение фильма по ID
     Film get(int id);
@@ -17,6 +24,9 @@ public interface FilmService {
     // Получение списка всех фильмов
     List<Film> getAll();
 
+    // Получение фильмов по списку ID
+    BatchResult<Film> getByIds(List<Integer> ids);
+
     // Удаление фильма по ID
     Film delete(int id);
 
@@ -30,5 +40,16 @@ public interface FilmService {
     void deleteLike(int id, int userId);
 
     // Получение списка наиболее популярных фильмов по количеству лайков
-    List<Film> getTop(int amount);
+    default List<Film> getTop(int amount) {
+        return getTop(amount, null, null);
+    }
+
+    // Получение списка наиболее популярных фильмов с фильтрами по жанру и году выхода
+    List<Film> getTop(int amount, Integer genreId, Integer year);
+
+    // Версия данных о фильмах: увеличивается при каждом изменении фильмов и лайков
+    long getVersion();
+
+    // Статистика объединения одинаковых одновременных запросов на чтение
+    Map<String, SingleFlight.Stats> getCoalescingStats();
 }
@@ -4,35 +4,41 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.jfr.LikeEvent;
+import ru.yandex.practicum.filmorate.jfr.TopQueryEvent;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
-import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
 import ru.yandex.practicum.filmorate.storage.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.UserStorage;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class FilmServiceImpl implements FilmService {
     private final FilmStorage filmStorage;
     private final UserStorage userStorage;
+    private final FeedService feedService;
 
-    private final Comparator<Film> comparator = Comparator.comparing(
-            film -> Optional.ofNullable(film.getLikes())
-                    .map(Set::size)
-                    .orElse(0)
-    );
+    // Объединение одновременных запросов списка популярных фильмов; получение по ID — поиск в хеш-таблице,
+    // который дешевле ожидания чужого результата, поэтому не объединяется
+    private final SingleFlight<TopQuery, List<Film>> topReads = new SingleFlight<>();
 
     // Добавление фильма
     @Override
     public Film create(Film film) {
+        resolveDirectories(film);
         return filmStorage.createFilm(film);
     }
 
     // Обновление фильма
     @Override
-    public Film update(Film newFilm) {
-        return filmStorage.updateFilm(newFilm);
+    public Film update(Film newFilm, Long expectedVersion) {
+        resolveDirectories(newFilm);
+        return filmStorage.updateFilm(newFilm, expectedVersion);
     }
 
     // Получение фильма по ID
@@ -47,16 +53,26 @@ public class FilmServiceImpl implements FilmService {
         return filmStorage.getAllFilms();
     }
 
+    // Получение фильмов по списку ID
+    @Override
+    public BatchResult<Film> getByIds(List<Integer> ids) {
+        BatchLimits.check(ids);
+        return filmStorage.getFilms(ids);
+    }
+
     // Удаление фильма по ID
     @Override
     public Film delete(int id) {
-        return filmStorage.deleteFilm(id);
+        Film deleted = filmStorage.deleteFilm(id);
+        feedService.invalidateAll();
+        return deleted;
     }
 
     // Удаление всех фильмов
     @Override
     public void deleteAll() {
         filmStorage.deleteFilms();
+        feedService.invalidateAll();
     }
 
     // Добавление лайка
@@ -72,24 +88,19 @@ public class FilmServiceImpl implements FilmService {
             throw new ValidationException("ID пользователя должен быть положительным.");
         }
 
-        // Получение списка ID всех пользователей
-        List<Integer> usersIds = userStorage.getUsers().stream()
-                .map(User::getId)
-                .toList();
-
         // Проверка существования пользователя
-        if (!usersIds.contains(userId)) {
+        if (!userStorage.containsUser(userId)) {
             throw new NotFoundException("Пользователь с таким ID не найден");
         }
 
-        // Получение фильма
-        Film film = get(id);
-
-        // Получение списка лайков фильма
-        Set<Integer> likes = film.getLikes();
-
-        // Добавление лайка
-        likes.add(userId);
+        // Добавление лайка с обновлением обратного индекса
+        LikeEvent event = new LikeEvent();
+        event.begin();
+        boolean added = filmStorage.addLike(id, userId);
+        commitLikeEvent(event, id, userId, true, added);
+        if (added) {
+            feedService.likesChanged(userId);
+        }
     }
 
     // Удаление лайка
@@ -105,39 +116,85 @@ public class FilmServiceImpl implements FilmService {
             throw new ValidationException("ID пользователя должен быть положительным.");
         }
 
-        // Получение списка ID всех пользователей
-        List<Integer> usersIds = userStorage.getUsers().stream()
-                .map(User::getId)
-                .toList();
-
         // Проверка существования пользователя
-        if (!usersIds.contains(userId)) {
+        if (!userStorage.containsUser(userId)) {
             throw new NotFoundException("Пользователь с таким ID не найден");
         }
 
-        // Получение фильма по ID
-        Film film = get(id);
+        // Удаление лайка с проверкой его существования
+        LikeEvent event = new LikeEvent();
+        event.begin();
+        boolean deleted = filmStorage.deleteLike(id, userId);
+        commitLikeEvent(event, id, userId, false, deleted);
+        if (!deleted) {
+            throw new NotFoundException("Лайк пользователя с таким ID не найден.");
+        }
+        feedService.likesChanged(userId);
+    }
+
+    // Получение списка наиболее популярных фильмов из индексов популярности хранилища
+    @Override
+    public List<Film> getTop(int amount, Integer genreId, Integer year) {
+        // Проверка существования жанра
+        if (genreId != null && Genre.of(genreId).isEmpty()) {
+            throw new NotFoundException("Жанр с таким ID не найден.");
+        }
+
+        TopQueryEvent event = new TopQueryEvent();
+        event.begin();
+        TopQuery query = new TopQuery(amount, genreId, year);
+        // Список отдаётся всем ожидавшим запросам, поэтому он неизменяемый
+        List<Film> top = topReads.execute(query, () -> List.copyOf(filmStorage.getPopular(amount, genreId, year)));
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.amount = amount;
+            event.genreId = genreId == null ? 0 : genreId;
+            event.year = year == null ? 0 : year;
+            event.resultSize = top.size();
+            event.commit();
+        }
+        return top;
+    }
 
-        // Получение лайков фильма
-        Set<Integer> likes = film.getLikes();
+    // Версия данных о фильмах
+    @Override
+    public long getVersion() {
+        return filmStorage.getVersion();
+    }
 
-        // Проверка существования лайка от пользователя
-        if (!likes.contains(userId)) {
-            throw new NotFoundException("Лайк пользователя с таким ID не найден.");
+    // Замена рейтинга MPA на запись справочника и проверка жанров фильма
+    private void resolveDirectories(Film film) {
+        if (film.getMpa() != null) {
+            film.setMpa(Mpa.of(film.getMpa().getId())
+                    .orElseThrow(() -> new NotFoundException("Рейтинг MPA с таким ID не найден.")));
         }
 
-        // Удаление лайка
-        likes.remove(userId);
+        if ((film.getGenreMask() & ~Genre.KNOWN_MASK) != 0) {
+            throw new NotFoundException("Жанр с таким ID не найден.");
+        }
+    }
+
+    // Запись события лайка; количество лайков читается, только если событие включено в запись JFR
+    private void commitLikeEvent(LikeEvent event, int filmId, int userId, boolean add, boolean changed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.filmId = filmId;
+            event.userId = userId;
+            event.add = add;
+            event.changed = changed;
+            event.likeCount = filmStorage.findFilm(filmId).map(Film::getLikeCount).orElse(0);
+            event.commit();
+        }
     }
 
-    // Получение списка наиболее популярных фильмов по количеству лайков
+    // Статистика объединения одинаковых одновременных запросов на чтение
     @Override
-    public List<Film> getTop(int amount) {
-        return new ArrayList<>(
-                filmStorage.getAllFilms().stream()
-                        .sorted(comparator.reversed())
-                        .limit(amount)
-                        .toList()
-        );
+    public Map<String, SingleFlight.Stats> getCoalescingStats() {
+        return Map.of("getTop", topReads.getStats());
+    }
+
+    // Параметры запроса популярных фильмов для объединения одинаковых запросов
+    private record TopQuery(int amount, Integer genreId, Integer year) {
     }
 }
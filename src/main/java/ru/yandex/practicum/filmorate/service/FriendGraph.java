@@ -0,0 +1,249 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Алгоритмы на графе дружбы: кратчайшая цепочка друзей и общие друзья группы пользователей
+final class FriendGraph {
+    // Пустая ячейка таблицы посещённых вершин; ID пользователей положительны
+    private static final int EMPTY = 0;
+
+    // Родитель стартовой вершины поиска
+    private static final int ROOT = -1;
+
+    private FriendGraph() {
+    }
+
+    // Кратчайшая цепочка ID от from до to длиной не более maxDepth рёбер; пустой массив, если цепочки нет.
+    // Двунаправленный поиск в ширину расширяет меньший фронт, поэтому просматривает порядка 2·b^(d/2)
+    // вершин вместо b^d, а ограничение глубины ограничивает и время, и память. Друзья всего фронта
+    // запрашиваются одним вызовом friends, поэтому хранилище может получить их одним запросом на узел
+    static int[] shortestPath(int from, int to, int maxDepth,
+                              Function<List<Integer>, Map<Integer, Set<Integer>>> friends) {
+        if (from == to) {
+            return new int[]{from};
+        }
+
+        IntParentMap forwardParents = new IntParentMap();
+        IntParentMap backwardParents = new IntParentMap();
+        forwardParents.put(from, ROOT);
+        backwardParents.put(to, ROOT);
+
+        IntList forward = IntList.of(from);
+        IntList backward = IntList.of(to);
+
+        for (int depth = 0; depth < maxDepth && !forward.isEmpty() && !backward.isEmpty(); depth++) {
+            boolean expandForward = forward.size() <= backward.size();
+            IntParentMap visited = expandForward ? forwardParents : backwardParents;
+            IntParentMap opposite = expandForward ? backwardParents : forwardParents;
+            IntList frontier = expandForward ? forward : backward;
+
+            Map<Integer, Set<Integer>> frontierFriends = friends.apply(frontier.boxed());
+            IntList next = new IntList();
+            for (int i = 0; i < frontier.size(); i++) {
+                int user = frontier.get(i);
+                for (int friend : frontierFriends.getOrDefault(user, Set.of())) {
+                    if (visited.contains(friend)) {
+                        continue;
+                    }
+                    visited.put(friend, user);
+
+                    // Первая встреча фронтов даёт кратчайшую цепочку: все вершины встречного
+                    // поиска находятся не дальше его текущего фронта
+                    if (opposite.contains(friend)) {
+                        return joinPath(friend, forwardParents, backwardParents);
+                    }
+                    next.add(friend);
+                }
+            }
+
+            if (expandForward) {
+                forward = next;
+            } else {
+                backward = next;
+            }
+        }
+
+        return new int[0];
+    }
+
+    // Общие элементы множеств друзей: пересечение отсортированных массивов, начиная с самого короткого.
+    // Позиции в остальных массивах продвигаются экспоненциальным поиском, поэтому время зависит
+    // от размера наименьшего множества и логарифма остальных, а не от их суммы
+    static int[] intersectAll(Collection<Set<Integer>> friendSets) {
+        int[][] sorted = friendSets.stream()
+                .map(FriendGraph::toSortedArray)
+                .sorted(Comparator.comparingInt(array -> array.length))
+                .toArray(int[][]::new);
+        if (sorted.length == 0) {
+            return new int[0];
+        }
+
+        int[] smallest = sorted[0];
+        int[] positions = new int[sorted.length];
+        int[] result = new int[smallest.length];
+        int size = 0;
+
+        candidates:
+        for (int candidate : smallest) {
+            for (int i = 1; i < sorted.length; i++) {
+                int position = advance(sorted[i], positions[i], candidate);
+                positions[i] = position;
+                if (position == sorted[i].length) {
+                    break candidates;
+                }
+                if (sorted[i][position] != candidate) {
+                    continue candidates;
+                }
+            }
+            result[size++] = candidate;
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    // Цепочка от начала прямого поиска через точку встречи до конца обратного
+    private static int[] joinPath(int meeting, IntParentMap forwardParents, IntParentMap backwardParents) {
+        IntList head = new IntList();
+        for (int user = meeting; user != ROOT; user = forwardParents.get(user)) {
+            head.add(user);
+        }
+
+        int[] path = new int[head.size() + backwardParents.depthOf(meeting)];
+        int length = 0;
+        for (int i = head.size() - 1; i >= 0; i--) {
+            path[length++] = head.get(i);
+        }
+        for (int user = backwardParents.get(meeting); user != ROOT; user = backwardParents.get(user)) {
+            path[length++] = user;
+        }
+        return path;
+    }
+
+    // Первая позиция в array начиная с from, где элемент не меньше value
+    private static int advance(int[] array, int from, int value) {
+        int bound = 1;
+        while (from + bound < array.length && array[from + bound] < value) {
+            bound <<= 1;
+        }
+
+        int position = Arrays.binarySearch(array, from, Math.min(from + bound + 1, array.length), value);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static int[] toSortedArray(Set<Integer> set) {
+        int[] array = new int[set.size()];
+        int size = 0;
+        for (int id : set) {
+            // Множество могло вырасти после получения размера
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2 + 1);
+            }
+            array[size++] = id;
+        }
+        array = Arrays.copyOf(array, size);
+        Arrays.sort(array);
+        return array;
+    }
+
+    // Таблица посещённых вершин с родителями на примитивах: открытая адресация с линейным пробированием
+    private static final class IntParentMap {
+        private int[] keys = new int[64];
+        private int[] parents = new int[64];
+        private int size;
+
+        boolean contains(int key) {
+            return keys[slot(key)] != EMPTY;
+        }
+
+        int get(int key) {
+            return parents[slot(key)];
+        }
+
+        void put(int key, int parent) {
+            int slot = slot(key);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                size++;
+            }
+            parents[slot] = parent;
+
+            if (size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        // Количество рёбер от вершины до начала поиска
+        int depthOf(int key) {
+            int depth = 0;
+            for (int user = get(key); user != ROOT; user = get(user)) {
+                depth++;
+            }
+            return depth;
+        }
+
+        private int slot(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldParents = parents;
+            keys = new int[oldKeys.length * 2];
+            parents = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    parents[slot] = oldParents[i];
+                }
+            }
+        }
+    }
+
+    // Растущий массив int без упаковки
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        static IntList of(int value) {
+            IntList list = new IntList();
+            list.add(value);
+            return list;
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        List<Integer> boxed() {
+            return Arrays.stream(values, 0, size).boxed().toList();
+        }
+    }
+}
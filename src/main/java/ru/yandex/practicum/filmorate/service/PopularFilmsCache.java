@@ -0,0 +1,72 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кэш готовых JSON-ответов списка популярных фильмов для частых значений amount.
+ * Хранит байты ответа и их gzip-версию; запись считается устаревшей,
+ * если версия данных о фильмах изменилась после её построения.
+ */
+@Component
+@RequiredArgsConstructor
+public class PopularFilmsCache {
+    // Наибольший размер списка, ответ для которого кэшируется
+    public static final int MAX_CACHED_AMOUNT = 100;
+
+    private final FilmService filmService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    // Получение готового ответа; пусто, если размер списка не кэшируется
+    public Optional<Entry> get(int amount) {
+        if (amount <= 0 || amount > MAX_CACHED_AMOUNT) {
+            return Optional.empty();
+        }
+
+        // Версия читается до построения списка: изменение во время построения сделает запись устаревшей
+        long version = filmService.getVersion();
+        Entry entry = entries.get(amount);
+        if (entry != null && entry.version() == version) {
+            return Optional.of(entry);
+        }
+
+        byte[] json = serialize(filmService.getTop(amount));
+        entry = new Entry(version, json, gzip(json));
+        entries.put(amount, entry);
+        return Optional.of(entry);
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Готовый ответ: версия данных, JSON и JSON, сжатый gzip
+    public record Entry(long version, byte[] json, byte[] gzip) {
+    }
+}
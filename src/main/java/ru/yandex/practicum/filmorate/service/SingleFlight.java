@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных запросов на чтение.
+ * Первый вызов с ключом выполняет вычисление, остальные вызовы с тем же ключом,
+ * пришедшие до его завершения, получают тот же результат (или то же исключение).
+ * Результат не кэшируется: после завершения следующий вызов вычисляет значение заново.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    // Выполнение вычисления или присоединение к уже выполняющемуся
+    public V execute(K key, Supplier<V> supplier) {
+        calls.increment();
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = supplier.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    // Счётчики объединения запросов
+    public Stats getStats() {
+        long callCount = calls.sum();
+        long executionCount = executions.sum();
+        return new Stats(
+                callCount,
+                executionCount,
+                callCount - executionCount,
+                callCount == 0 ? 0 : (double) (callCount - executionCount) / callCount
+        );
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // Количество вызовов, фактических вычислений, объединённых вызовов и доля объединённых
+    public record Stats(long calls, long executions, long coalesced, double coalescingRatio) {
+    }
+}
@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.service;
+
+import ru.yandex.practicum.filmorate.model.CatalogStats;
+import ru.yandex.practicum.filmorate.model.StatsVerification;
+
+public interface StatsService {
+    // Получение статистики из агрегатов, поддерживаемых хранилищами
+    CatalogStats getStats();
+
+    // Полный параллельный пересчёт статистики
+    CatalogStats recompute();
+
+    // Сравнение поддерживаемой статистики с полным пересчётом
+    StatsVerification verify();
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.model.*;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+
+    // Получение статистики за время, не зависящее от количества фильмов и пользователей
+    @Override
+    public CatalogStats getStats() {
+        return CatalogStats.of(filmStorage.getStats(), userStorage.getStats());
+    }
+
+    // Полный пересчёт по всем фильмам и пользователям параллельными потоками общего пула fork/join
+    @Override
+    public CatalogStats recompute() {
+        List<Film> films = filmStorage.getAllFilms();
+        List<User> users = userStorage.getUsers();
+
+        FilmStats filmStats = new FilmStats(
+                films.size(),
+                films.parallelStream().mapToLong(Film::getLikeCount).sum(),
+                films.parallelStream().mapToLong(film -> film.getDuration() == null ? 0 : film.getDuration()).sum(),
+                distribution(films.parallelStream().map(Film::getReleaseYear).filter(Objects::nonNull)),
+                distribution(films.parallelStream().map(Film::getLikeCount))
+        );
+
+        UserStats userStats = new UserStats(
+                users.size(),
+                users.parallelStream().mapToLong(User::getFriendCount).sum() / 2,
+                distribution(users.parallelStream().map(User::getFriendCount))
+        );
+
+        return CatalogStats.of(filmStats, userStats);
+    }
+
+    // Сравнение поддерживаемой статистики с полным пересчётом
+    @Override
+    public StatsVerification verify() {
+        CatalogStats incremental = getStats();
+        long started = System.nanoTime();
+        CatalogStats recomputed = recompute();
+        long recomputeMs = (System.nanoTime() - started) / 1_000_000;
+
+        return new StatsVerification(incremental, recomputed, incremental.equals(recomputed), recomputeMs);
+    }
+
+    // Параллельный подсчёт количества элементов по ключу
+    private static SortedMap<Integer, Long> distribution(Stream<Integer> keys) {
+        TreeMap<Integer, Long> counts = keys
+                .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting()));
+        return Collections.unmodifiableSortedMap(counts);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.yandex.practicum.filmorate.service;
 
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.List;
@@ -13,11 +15,25 @@ public interface UserService {
     // Получение списка всех пользователей
     List<User> getAll();
 
+    // Получение пользователей по списку ID
+    BatchResult<User> getByIds(List<Integer> ids);
+
     // Получение пользователя по ID
     User get(int id);
 
-    // Обновление пользователя
-    User update(User newUser);
+    // Получение пользователя по электронной почте
+    User getByEmail(String email);
+
+    // Получение пользователя по логину
+    User getByLogin(String login);
+
+    // Обновление пользователя без проверки версии
+    default User update(User newUser) {
+        return update(newUser, null);
+    }
+
+    // Обновление пользователя, если его текущая версия равна ожидаемой (null — без проверки)
+    User update(User newUser, Long expectedVersion);
 
     // Удаление пользователя по ID
     User delete(int id);
@@ -36,4 +52,16 @@ public interface UserService {
 
     // Получение списка общих друзей двух пользователей
     List<User> getMutualFriends(int id, int otherId);
+
+    // Кратчайшая цепочка друзей от пользователя до другого пользователя длиной не более maxDepth рукопожатий
+    List<User> getFriendPath(int id, int otherId, int maxDepth);
+
+    // Получение общих друзей группы пользователей
+    List<User> getCommonFriends(List<Integer> ids);
+
+    // Фильмы, популярные среди друзей пользователя: по убыванию числа друзей, поставивших лайк
+    List<Film> getPopularAmongFriends(int id, int amount);
+
+    // Получение фильмов, которым пользователь поставил лайк
+    List<Film> getLikedFilms(int id);
 }
@@ -2,18 +2,31 @@ package ru.yandex.practicum.filmorate.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.jfr.AddFriendEvent;
+import ru.yandex.practicum.filmorate.jfr.MutualFriendsEvent;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.UserStorage;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    // Наибольшая глубина поиска цепочки друзей
+    static final int MAX_PATH_DEPTH = 10;
+
     private final UserStorage userStorage;
+    private final FilmStorage filmStorage;
+    private final FeedService feedService;
 
     // Добавление пользователя
     @Override
@@ -27,28 +40,56 @@ public class UserServiceImpl implements UserService {
         return userStorage.getUsers();
     }
 
+    // Получение пользователей по списку ID
+    @Override
+    public BatchResult<User> getByIds(List<Integer> ids) {
+        BatchLimits.check(ids);
+        return userStorage.getUsers(ids);
+    }
+
     // Получение пользователя по ID
     @Override
     public User get(int id) {
         return userStorage.getUser(id);
     }
 
+    // Получение пользователя по электронной почте
+    @Override
+    public User getByEmail(String email) {
+        return userStorage.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("Пользователь с электронной почтой " + email + " не найден."));
+    }
+
+    // Получение пользователя по логину
+    @Override
+    public User getByLogin(String login) {
+        return userStorage.findByLogin(login)
+                .orElseThrow(() -> new NotFoundException("Пользователь с логином " + login + " не найден."));
+    }
+
     // Обновление пользователя
     @Override
-    public User update(User newUser) {
-        return userStorage.updateUser(newUser);
+    public User update(User newUser, Long expectedVersion) {
+        return userStorage.updateUser(newUser, expectedVersion);
     }
 
     // Удаление пользователя по ID
     @Override
     public User delete(int id) {
-        return userStorage.deleteUser(id);
+        // Удаление пользователя вместе с его дружбами и лайками
+        User deleted = userStorage.deleteUser(id);
+        filmStorage.deleteLikesByUser(id);
+        feedService.invalidateAll();
+        return deleted;
     }
 
-    // Удаление всех пользователей
+    // Удаление всех пользователей вместе с их лайками: ID новых пользователей начнутся заново
+    // и не должны унаследовать лайки удалённых
     @Override
     public void deleteAll() {
         userStorage.deleteUsers();
+        filmStorage.deleteLikes();
+        feedService.invalidateAll();
     }
 
     // Добавление пользователя в список друзей
@@ -63,13 +104,27 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("ID пользователя должен быть положительным.");
         }
 
-        // Получение списков друзей двух пользователей
-        Set<Integer> firstUserFriends = get(id).getFriends();
-        Set<Integer> secondUserFriends = get(friendId).getFriends();
+        if (id == friendId) {
+            throw new ValidationException("Пользователь не может дружить сам с собой.");
+        }
 
         // Взаимное добавление пользователей в друзья
-        firstUserFriends.add(friendId);
-        secondUserFriends.add(id);
+        AddFriendEvent event = new AddFriendEvent();
+        event.begin();
+        boolean added = userStorage.addFriend(id, friendId);
+        if (added) {
+            feedService.friendshipChanged(id, friendId);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.userId = id;
+            event.friendId = friendId;
+            event.added = added;
+            event.userFriendCount = friendCount(id);
+            event.friendFriendCount = friendCount(friendId);
+            event.commit();
+        }
     }
 
     // Удаление пользователя из друзей
@@ -84,13 +139,10 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("ID пользователя должен быть положительным.");
         }
 
-        // Получение списков друзей двух пользователей
-        Set<Integer> firstUserFriends = get(id).getFriends();
-        Set<Integer> secondUserFriends = get(friendId).getFriends();
-
         // Взаимное удаление из списков друзей
-        firstUserFriends.remove(friendId);
-        secondUserFriends.remove(id);
+        if (userStorage.deleteFriend(id, friendId)) {
+            feedService.friendshipChanged(id, friendId);
+        }
     }
 
     // Получение списка друзей
@@ -101,10 +153,8 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("ID пользователя должен быть положительным.");
         }
 
-        // Возвращение списка друзей
-        return get(id).getFriends().stream()
-                .map(this::get)
-                .toList();
+        // Возвращение списка друзей за один проход по хранилищу, отсутствующие ID пропускаются
+        return userStorage.getUsers(get(id).getFriends()).getFound();
     }
 
     // Получение списка общих друзей двух пользователей
@@ -119,13 +169,104 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("ID пользователя должен быть положительным.");
         }
 
-        // Получение списков друзей пользователей
-        List<User> firstUserFriends = getFriends(id);
-        List<User> secondUserFriends = getFriends(otherId);
+        MutualFriendsEvent event = new MutualFriendsEvent();
+        event.begin();
+
+        // Получение множеств ID друзей пользователей
+        Set<Integer> firstUserFriends = get(id).getFriends();
+        Set<Integer> secondUserFriends = get(otherId).getFriends();
 
-        // Возврат списка общих друзей
-        return firstUserFriends.stream()
+        // Возврат списка общих друзей: пересечение ID выполняется до получения пользователей
+        List<Integer> mutualIds = firstUserFriends.stream()
                 .filter(secondUserFriends::contains)
                 .collect(Collectors.toList());
+        List<User> mutualFriends = userStorage.getUsers(mutualIds).getFound();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.userId = id;
+            event.otherId = otherId;
+            event.userFriendCount = firstUserFriends.size();
+            event.otherFriendCount = secondUserFriends.size();
+            event.resultSize = mutualFriends.size();
+            event.commit();
+        }
+        return mutualFriends;
+    }
+
+    // Кратчайшая цепочка друзей двунаправленным поиском в ширину; пустой список, если цепочки нет
+    @Override
+    public List<User> getFriendPath(int id, int otherId, int maxDepth) {
+        // Проверка корректности ID пользователей
+        if (id <= 0) {
+            throw new ValidationException("ID пользователя должен быть положительным.");
+        }
+
+        if (otherId <= 0) {
+            throw new ValidationException("ID пользователя должен быть положительным.");
+        }
+
+        // Проверка глубины поиска, ограничивающей время и память
+        if (maxDepth <= 0 || maxDepth > MAX_PATH_DEPTH) {
+            throw new ValidationException("Глубина поиска должна быть от 1 до " + MAX_PATH_DEPTH + ".");
+        }
+
+        // Проверка существования пользователей
+        get(id);
+        get(otherId);
+
+        int[] path = FriendGraph.shortestPath(id, otherId, maxDepth, this::friendIds);
+        return userStorage.getUsers(Arrays.stream(path).boxed().toList()).getFound();
+    }
+
+    // Получение общих друзей группы пользователей многосторонним пересечением отсортированных списков друзей
+    @Override
+    public List<User> getCommonFriends(List<Integer> ids) {
+        BatchLimits.check(ids);
+
+        // Пользователи группы получаются одним пакетным запросом, а не по одному
+        BatchResult<User> group = userStorage.getUsers(ids);
+        if (!group.getMissingIds().isEmpty()) {
+            throw new NotFoundException("Пользователь с id = " + group.getMissingIds().get(0) + " не найден.");
+        }
+
+        List<Set<Integer>> friendSets = group.getFound().stream()
+                .map(User::getFriends)
+                .toList();
+        int[] commonIds = FriendGraph.intersectAll(friendSets);
+        return userStorage.getUsers(Arrays.stream(commonIds).boxed().toList()).getFound();
+    }
+
+    // ID друзей пользователей фронта поиска одним пакетным запросом; удалённых во время поиска в ответе нет
+    private Map<Integer, Set<Integer>> friendIds(List<Integer> ids) {
+        return userStorage.getUsers(ids).getFound().stream()
+                .collect(Collectors.toMap(User::getId, User::getFriends));
+    }
+
+    // Количество друзей пользователя; 0, если пользователь уже удалён
+    private int friendCount(int id) {
+        return userStorage.findUser(id).map(User::getFriendCount).orElse(0);
+    }
+
+    // Фильмы, популярные среди друзей пользователя
+    @Override
+    public List<Film> getPopularAmongFriends(int id, int amount) {
+        return feedService.getPopularAmongFriends(id, amount);
+    }
+
+    // Получение фильмов, которым пользователь поставил лайк
+    @Override
+    public List<Film> getLikedFilms(int id) {
+        // Проверка корректности ID пользователя
+        if (id <= 0) {
+            throw new ValidationException("ID пользователя должен быть положительным.");
+        }
+
+        // Проверка существования пользователя
+        if (!userStorage.containsUser(id)) {
+            throw new NotFoundException("Пользователь с id = " + id + " не найден.");
+        }
+
+        return filmStorage.getLikedFilms(id);
     }
 }
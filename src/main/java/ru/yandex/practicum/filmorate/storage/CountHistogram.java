@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Распределение количества объектов по целочисленному ключу (году, числу лайков, числу друзей).
+ * Безопасно для одновременного изменения; снимок содержит только непустые корзины,
+ * поэтому его размер не зависит от количества объектов.
+ */
+class CountHistogram {
+    private final ConcurrentHashMap<Integer, LongAdder> counts = new ConcurrentHashMap<>();
+
+    // Добавление объекта в корзину
+    void increment(int key) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    // Удаление объекта из корзины
+    void decrement(int key) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).decrement();
+    }
+
+    // Перенос объекта из одной корзины в другую
+    void move(int oldKey, int newKey) {
+        if (oldKey != newKey) {
+            decrement(oldKey);
+            increment(newKey);
+        }
+    }
+
+    // Очистка распределения
+    void clear() {
+        counts.clear();
+    }
+
+    // Неизменяемая копия распределения без пустых корзин
+    SortedMap<Integer, Long> snapshot() {
+        TreeMap<Integer, Long> snapshot = new TreeMap<>();
+        counts.forEach((key, count) -> {
+            long value = count.sum();
+            if (value != 0) {
+                snapshot.put(key, value);
+            }
+        });
+        return Collections.unmodifiableSortedMap(snapshot);
+    }
+}
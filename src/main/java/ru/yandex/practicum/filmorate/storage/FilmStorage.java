@@ -1,8 +1,14 @@
 package ru.yandex.practicum.filmorate.storage;
 
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmStats;
+import ru.yandex.practicum.filmorate.model.Like;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface FilmStorage {
     // Добавление фильма
@@ -11,15 +17,63 @@ public interface FilmStorage {
     // Получение фильма по ID
     Film getFilm(int id);
 
-    // Обновление фильма
-    Film updateFilm(Film newFilm);
+    // Поиск фильма по ID без выбрасывания исключения
+    Optional<Film> findFilm(int id);
+
+    // Проверка существования фильма
+    boolean containsFilm(int id);
+
+    // Обновление фильма без проверки версии
+    default Film updateFilm(Film newFilm) {
+        return updateFilm(newFilm, null);
+    }
+
+    // Обновление фильма, если его текущая версия равна ожидаемой (null — без проверки)
+    Film updateFilm(Film newFilm, Long expectedVersion);
 
     // Получение списка всех фильмов
     List<Film> getAllFilms();
 
+    // Получение фильмов по списку ID за один проход
+    BatchResult<Film> getFilms(Collection<Integer> ids);
+
     // Удаление фильма по ID
     Film deleteFilm(int id);
 
     // Удаление всех фильмов
     void deleteFilms();
+
+    // Добавление лайка; возвращает false, если лайк уже был
+    boolean addLike(int filmId, int userId);
+
+    // Удаление лайка; возвращает false, если лайка не было
+    boolean deleteLike(int filmId, int userId);
+
+    // Получение фильмов, которым пользователь поставил лайк
+    List<Film> getLikedFilms(int userId);
+
+    // ID фильмов, которым пользователь поставил лайк; представление только для чтения
+    Set<Integer> getLikedFilmIds(int userId);
+
+    // Удаление всех лайков пользователя; возвращает количество удалённых лайков
+    int deleteLikesByUser(int userId);
+
+    // Удаление лайков всех пользователей
+    void deleteLikes();
+
+    // Получение наиболее популярных фильмов с необязательными фильтрами по жанру и году выхода
+    List<Film> getPopular(int amount, Integer genreId, Integer year);
+
+    // Добавление фильмов с уже назначенными ID (массовый импорт);
+    // возвращает фильмы, не добавленные из-за занятого ID
+    List<Film> addFilms(Collection<Film> films);
+
+    // Добавление лайков без повторов (массовый импорт); возвращает количество добавленных лайков
+    int addLikes(Collection<Like> likes);
+
+    // Инкрементально поддерживаемые агрегаты по фильмам
+    FilmStats getStats();
+
+    // Версия данных: увеличивается при каждом изменении фильмов и лайков
+    long getVersion();
 }
@@ -2,55 +2,145 @@ package ru.yandex.practicum.filmorate.storage;
 
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
+import ru.yandex.practicum.filmorate.jfr.StorageLookupEvent;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmStats;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
 
+/**
+ * Хранилище фильмов в памяти, безопасное для одновременного доступа.
+ * Изменения одного фильма (лайки, обновление, удаление) выполняются под блокировкой его полосы,
+ * поэтому множество лайков, индексы популярности и агрегаты статистики меняются согласованно.
+ * Чтение не блокируется; обновлённый фильм подменяется новым объектом, поэтому читатели не видят
+ * частично обновлённых полей.
+ */
 @Component
-public class InMemoryFilmStorage implements FilmStorage {
-    private final Map<Integer, Film> films = new HashMap<>();
+public class InMemoryFilmStorage implements NodeFilmStorage {
+    // Количество полос блокировок фильмов
+    private static final int LOCK_STRIPES = 256;
+
+    // Наибольшее количество ID, которые фильтр может отклонить подряд при выдаче одного ID
+    private static final int MAX_SKIPPED_IDS = 1 << 16;
+
+    private final Map<Integer, Film> films = new ConcurrentHashMap<>();
+
+    // Обратный индекс: ID пользователя -> ID фильмов, которым он поставил лайк
+    private final Map<Integer, Set<Integer>> likedFilmsByUser = new ConcurrentHashMap<>();
+
+    // Индексы популярности: по всем фильмам, по жанрам и по годам выхода
+    private final PopularityIndex popular = new PopularityIndex();
+    private final Map<Integer, PopularityIndex> popularByGenre = new ConcurrentHashMap<>();
+    private final Map<Integer, PopularityIndex> popularByYear = new ConcurrentHashMap<>();
+
+    // Версия данных для инвалидации кэшированных ответов
+    private final AtomicLong version = new AtomicLong();
+
+    // Агрегаты для статистики, обновляемые при каждом изменении
+    private final CountHistogram filmsByYear = new CountHistogram();
+    private final CountHistogram likeDistribution = new CountHistogram();
+    private final LongAdder totalLikes = new LongAdder();
+    private final LongAdder totalDuration = new LongAdder();
+
+    // Последний выданный ID фильма
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    // ID, которые можно выдавать новым фильмам; на узле кластера — только ID его диапазона
+    private volatile IntPredicate idFilter = id -> true;
+
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
 
     // Добавление фильма
     @Override
     public Film createFilm(Film film) {
-        // Фильму присваивается ID
-        film.setId(getNextId());
-        films.put(film.getId(), film);
-        return film;
+        // Фильму присваивается ID; ID, уже занятый одновременным импортом, пропускается
+        while (true) {
+            film.setId(nextId());
+            boolean isStored = locks.withLock(film.getId(), () -> {
+                if (!store(film)) {
+                    return false;
+                }
+                version.incrementAndGet();
+                return true;
+            });
+
+            if (isStored) {
+                return film;
+            }
+        }
     }
 
     // Получение фильма по ID
     @Override
     public Film getFilm(int id) {
-        // Проверка существования фильма
-        if (!films.containsKey(id)) {
-            throw new NotFoundException("Ошибка получения: фильм с заданным ID не найден.");
-        }
+        return findFilm(id)
+                .orElseThrow(() -> new NotFoundException("Ошибка получения: фильм с заданным ID не найден."));
+    }
 
-        return films.get(id);
+    // Поиск фильма по ID без выбрасывания исключения
+    @Override
+    public Optional<Film> findFilm(int id) {
+        StorageLookupEvent event = new StorageLookupEvent();
+        event.begin();
+        Film film = films.get(id);
+        StorageLookupEvent.commit(event, "film", "id", 1, film == null ? 0 : 1);
+        return Optional.ofNullable(film);
     }
 
-    // Обновление фильма
+    // Проверка существования фильма
     @Override
-    public Film updateFilm(Film newFilm) {
-        // Проверка существования фильма
-        if (!films.containsKey(newFilm.getId())) {
-            throw new NotFoundException("Фильм с id = " + newFilm.getId() + "не найден.");
-        }
+    public boolean containsFilm(int id) {
+        return films.containsKey(id);
+    }
 
-        // Получение фильма для обновления
-        Film oldFilm = films.get(newFilm.getId());
+    // Обновление фильма: новая версия собирается отдельным объектом и подменяет текущую,
+    // поэтому читатели видят фильм целиком до или после обновления.
+    // Проверка версии и подмена выполняются под блокировкой полосы, чтобы индексы
+    // популярности не разошлись с одновременно меняющимися лайками
+    @Override
+    public Film updateFilm(Film newFilm, Long expectedVersion) {
+        return locks.withLock(newFilm.getId(), () -> {
+            // Получение фильма для обновления
+            Film oldFilm = films.get(newFilm.getId());
 
-        // Обновление названия фильма
-        oldFilm.setName(newFilm.getName());
-        // Обновление описания фильма
-        oldFilm.setDescription(newFilm.getDescription());
-        // Обновление даты релиза фильма
-        oldFilm.setReleaseDate(newFilm.getReleaseDate());
-        // Обновление длительности фильма
-        oldFilm.setDuration(newFilm.getDuration());
+            // Проверка существования фильма
+            if (oldFilm == null) {
+                throw new NotFoundException("Фильм с id = " + newFilm.getId() + "не найден.");
+            }
 
-        return oldFilm;
+            // Проверка версии, на основе которой клиент подготовил изменения
+            if (expectedVersion != null && expectedVersion != oldFilm.getVersion()) {
+                throw new PreconditionFailedException("Фильм с id = " + newFilm.getId()
+                        + " был изменён: текущая версия " + oldFilm.getVersion() + ".");
+            }
+
+            // Новая версия фильма с прежним множеством лайков
+            Film updated = oldFilm.toBuilder()
+                    .name(newFilm.getName())
+                    .description(newFilm.getDescription())
+                    .releaseDate(newFilm.getReleaseDate())
+                    .duration(newFilm.getDuration())
+                    .mpa(newFilm.getMpa())
+                    .genreMask(newFilm.getGenreMask())
+                    .version(oldFilm.getVersion() + 1)
+                    .build();
+
+            // Жанры, год выхода и длительность могут измениться, поэтому индексы перестраиваются
+            removeFromIndexes(oldFilm);
+            films.put(updated.getId(), updated);
+            addToIndexes(updated);
+            version.incrementAndGet();
+            return updated;
+        });
     }
 
     // Получение списка всех фильмов
@@ -59,31 +149,393 @@ public class InMemoryFilmStorage implements FilmStorage {
         return new ArrayList<>(films.values());
     }
 
+    // Получение фильмов по списку ID за один проход
+    @Override
+    public BatchResult<Film> getFilms(Collection<Integer> ids) {
+        StorageLookupEvent event = new StorageLookupEvent();
+        event.begin();
+        List<Film> found = new ArrayList<>(ids.size());
+        List<Integer> missingIds = new ArrayList<>();
+
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Film film = films.get(id);
+            if (film != null) {
+                found.add(film);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        StorageLookupEvent.commit(event, "film", "ids", found.size() + missingIds.size(), found.size());
+        return new BatchResult<>(found, missingIds);
+    }
+
     // Удаление фильма по ID
     @Override
     public Film deleteFilm(int id) {
-        // Проверка существования фильма
-        if (!films.containsKey(id)) {
-            throw new NotFoundException("Ошибка удаления: фильм с заданным ID не найден.");
-        }
+        return locks.withLock(id, () -> {
+            Film removed = films.remove(id);
+
+            // Проверка существования фильма
+            if (removed == null) {
+                throw new NotFoundException("Ошибка удаления: фильм с заданным ID не найден.");
+            }
 
-        return films.remove(id);
+            // Удаление фильма из обратного индекса поставивших лайк пользователей
+            for (Integer userId : removed.getLikes()) {
+                removeFromIndex(userId, id);
+            }
+
+            removeFromIndexes(removed);
+            version.incrementAndGet();
+            return removed;
+        });
     }
 
     // Удаление всех фильмов
     @Override
     public void deleteFilms() {
-        films.clear();
-    }
-
-    // Получение уникального ID для следующего фильма
-    private int getNextId() {
-        // Получение наибольшего ID на момент вызова метода
-        int currentMaxId = films.keySet()
-                .stream()
-                .mapToInt(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+        locks.withAllLocks(() -> {
+            films.clear();
+            likedFilmsByUser.clear();
+            popular.clear();
+            popularByGenre.clear();
+            popularByYear.clear();
+            filmsByYear.clear();
+            likeDistribution.clear();
+            totalLikes.reset();
+            totalDuration.reset();
+            lastId.set(0);
+            version.incrementAndGet();
+        });
+    }
+
+    // Добавление лайка
+    @Override
+    public boolean addLike(int filmId, int userId) {
+        return locks.withLock(filmId, () -> {
+            Film film = getFilm(filmId);
+
+            if (!film.getLikes().add(userId)) {
+                return false;
+            }
+
+            addToIndex(userId, filmId);
+            updateLikeIndexes(film, film.getLikes().size() - 1);
+            version.incrementAndGet();
+            return true;
+        });
+    }
+
+    // Удаление лайка
+    @Override
+    public boolean deleteLike(int filmId, int userId) {
+        return locks.withLock(filmId, () -> {
+            Film film = getFilm(filmId);
+
+            if (!film.getLikes().remove(userId)) {
+                return false;
+            }
+
+            removeFromIndex(userId, filmId);
+            updateLikeIndexes(film, film.getLikes().size() + 1);
+            version.incrementAndGet();
+            return true;
+        });
+    }
+
+    // Получение фильмов, которым пользователь поставил лайк
+    @Override
+    public List<Film> getLikedFilms(int userId) {
+        Set<Integer> filmIds = likedFilmsByUser.getOrDefault(userId, Collections.emptySet());
+        List<Film> likedFilms = new ArrayList<>(filmIds.size());
+
+        for (Integer filmId : filmIds) {
+            Film film = films.get(filmId);
+            if (film != null) {
+                likedFilms.add(film);
+            }
+        }
+
+        return likedFilms;
+    }
+
+    // ID фильмов, которым пользователь поставил лайк, без копирования множества
+    @Override
+    public Set<Integer> getLikedFilmIds(int userId) {
+        return Collections.unmodifiableSet(likedFilmsByUser.getOrDefault(userId, Collections.emptySet()));
+    }
+
+    // Удаление всех лайков пользователя за O(количество его лайков)
+    @Override
+    public int deleteLikesByUser(int userId) {
+        Set<Integer> filmIds = likedFilmsByUser.remove(userId);
+        if (filmIds == null) {
+            return 0;
+        }
+
+        for (Integer filmId : filmIds) {
+            locks.withLock(filmId, () -> {
+                Film film = films.get(filmId);
+                if (film != null && film.getLikes().remove(userId)) {
+                    // Лайк мог быть поставлен заново после изъятия записи пользователя из обратного индекса
+                    removeFromIndex(userId, filmId);
+                    updateLikeIndexes(film, film.getLikes().size() + 1);
+                }
+                return null;
+            });
+        }
+
+        version.incrementAndGet();
+        return filmIds.size();
+    }
+
+    // Удаление лайков всех пользователей вместе с обратным индексом и индексами популярности
+    @Override
+    public void deleteLikes() {
+        locks.withAllLocks(() -> {
+            for (Film film : films.values()) {
+                int oldLikes = film.getLikeCount();
+                if (oldLikes > 0) {
+                    film.getLikes().clear();
+                    updateLikeIndexes(film, oldLikes);
+                }
+            }
+            likedFilmsByUser.clear();
+            version.incrementAndGet();
+        });
+    }
+
+    // Добавление фильмов с уже назначенными ID; счётчик ID сдвигается за наибольший из них,
+    // фильмы с занятыми ID не добавляются и возвращаются
+    @Override
+    public List<Film> addFilms(Collection<Film> newFilms) {
+        List<Film> rejected = new ArrayList<>();
+
+        for (Film film : newFilms) {
+            lastId.accumulateAndGet(film.getId(), Math::max);
+            boolean isStored = locks.withLock(film.getId(), () -> store(film));
+            if (!isStored) {
+                rejected.add(film);
+            }
+        }
+
+        version.incrementAndGet();
+        return rejected;
+    }
+
+    // Добавление лайков пачкой; лайки несуществующим фильмам пропускаются
+    @Override
+    public int addLikes(Collection<Like> likes) {
+        int added = 0;
+
+        for (Like like : likes) {
+            boolean isAdded = locks.withLock(like.filmId(), () -> {
+                Film film = films.get(like.filmId());
+                if (film == null || !film.getLikes().add(like.userId())) {
+                    return false;
+                }
+
+                addToIndex(like.userId(), like.filmId());
+                updateLikeIndexes(film, film.getLikes().size() - 1);
+                return true;
+            });
+
+            if (isAdded) {
+                added++;
+            }
+        }
+
+        if (added > 0) {
+            version.incrementAndGet();
+        }
+        return added;
+    }
+
+    // Получение популярных фильмов из индекса: при обоих фильтрах обходится меньший из двух индексов
+    @Override
+    public List<Film> getPopular(int amount, Integer genreId, Integer year) {
+        PopularityIndex genreIndex = genreId == null ? null : popularByGenre.get(genreId);
+        PopularityIndex yearIndex = year == null ? null : popularByYear.get(year);
+
+        // Нет индекса — нет ни одного фильма с таким жанром или годом, обходить нечего
+        if ((genreId != null && genreIndex == null) || (year != null && yearIndex == null)) {
+            return new ArrayList<>();
+        }
+
+        PopularityIndex index = popular;
+        if (genreIndex != null && yearIndex != null) {
+            index = yearIndex.size() < genreIndex.size() ? yearIndex : genreIndex;
+        } else if (genreIndex != null) {
+            index = genreIndex;
+        } else if (yearIndex != null) {
+            index = yearIndex;
+        }
+
+        if (amount <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Film> result = new ArrayList<>(Math.min(amount, index.size()));
+        // Фильм, получивший лайк во время обхода, может встретиться дважды
+        Set<Integer> seen = new HashSet<>();
+        PrimitiveIterator.OfInt ids = index.descendingIds();
+
+        while (ids.hasNext() && result.size() < amount) {
+            int id = ids.nextInt();
+            Film film = films.get(id);
+            if (matches(film, genreId, year) && seen.add(id)) {
+                result.add(film);
+            }
+        }
+
+        return result;
+    }
+
+    // Агрегаты по фильмам; не зависит от количества фильмов
+    @Override
+    public FilmStats getStats() {
+        return new FilmStats(films.size(), totalLikes.sum(), totalDuration.sum(),
+                filmsByYear.snapshot(), likeDistribution.snapshot());
+    }
+
+    // Версия данных о фильмах
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Ограничение ID, выдаваемых новым фильмам
+    @Override
+    public void setIdFilter(IntPredicate idFilter) {
+        this.idFilter = idFilter;
+    }
+
+    // Следующий ID, проходящий фильтр; пропущенные ID больше не выдаются. Поиск ограничен,
+    // чтобы фильтр, отклоняющий все ID, или исчерпание диапазона не зацикливали добавление
+    private int nextId() {
+        for (int attempt = 0; attempt < MAX_SKIPPED_IDS; attempt++) {
+            int id = lastId.incrementAndGet();
+            if (id <= 0) {
+                throw new IllegalStateException("Диапазон ID фильмов исчерпан.");
+            }
+            if (idFilter.test(id)) {
+                return id;
+            }
+        }
+        throw new IllegalStateException("Фильтр отклонил " + MAX_SKIPPED_IDS + " ID фильмов подряд.");
+    }
+
+    // Сохранение фильма с потокобезопасным множеством лайков; вызывается под блокировкой фильма.
+    // Фильм с уже занятым ID не сохраняется, и возвращается false
+    private boolean store(Film film) {
+        Set<Integer> likes = ConcurrentHashMap.newKeySet();
+        likes.addAll(film.getLikes());
+        film.setLikes(likes);
+        if (films.putIfAbsent(film.getId(), film) != null) {
+            return false;
+        }
+
+        // Лайки, переданные вместе с фильмом, заносятся в обратный индекс
+        for (Integer userId : likes) {
+            addToIndex(userId, film.getId());
+        }
+
+        addToIndexes(film);
+        return true;
+    }
+
+    // Добавление фильма в множество лайков пользователя в обратном индексе
+    private void addToIndex(Integer userId, Integer filmId) {
+        likedFilmsByUser.compute(userId, (key, filmIds) -> {
+            Set<Integer> result = filmIds == null ? ConcurrentHashMap.newKeySet() : filmIds;
+            result.add(filmId);
+            return result;
+        });
+    }
+
+    // Удаление фильма из множества лайков пользователя в обратном индексе
+    private void removeFromIndex(Integer userId, Integer filmId) {
+        likedFilmsByUser.computeIfPresent(userId, (key, filmIds) -> {
+            filmIds.remove(filmId);
+            return filmIds.isEmpty() ? null : filmIds;
+        });
+    }
+
+    // Проверка соответствия фильма фильтрам по жанру и году
+    private boolean matches(Film film, Integer genreId, Integer year) {
+        return film != null
+                && (genreId == null || (film.getGenreMask() & Genre.bit(genreId)) != 0)
+                && (year == null || year.equals(film.getReleaseYear()));
+    }
+
+    // Добавление фильма во все подходящие индексы популярности и в агрегаты статистики
+    private void addToIndexes(Film film) {
+        int likes = film.getLikeCount();
+        popular.add(film.getId(), likes);
+        likeDistribution.increment(likes);
+        totalLikes.add(likes);
+        totalDuration.add(durationOf(film));
+
+        for (Genre genre : film.getGenres()) {
+            popularByGenre.computeIfAbsent(genre.getId(), key -> new PopularityIndex()).add(film.getId(), likes);
+        }
+
+        if (film.getReleaseYear() != null) {
+            popularByYear.computeIfAbsent(film.getReleaseYear(), key -> new PopularityIndex()).add(film.getId(), likes);
+            filmsByYear.increment(film.getReleaseYear());
+        }
+    }
+
+    // Удаление фильма из всех индексов популярности и из агрегатов статистики.
+    // Пустые индексы жанров и годов не удаляются: их немного, а удаление конкурировало бы с добавлением
+    private void removeFromIndexes(Film film) {
+        int likes = film.getLikeCount();
+        popular.remove(film.getId(), likes);
+        likeDistribution.decrement(likes);
+        totalLikes.add(-likes);
+        totalDuration.add(-durationOf(film));
+
+        for (Genre genre : film.getGenres()) {
+            PopularityIndex index = popularByGenre.get(genre.getId());
+            if (index != null) {
+                index.remove(film.getId(), likes);
+            }
+        }
+
+        if (film.getReleaseYear() != null) {
+            PopularityIndex index = popularByYear.get(film.getReleaseYear());
+            if (index != null) {
+                index.remove(film.getId(), likes);
+            }
+            filmsByYear.decrement(film.getReleaseYear());
+        }
+    }
+
+    // Перемещение фильма в индексах популярности и в распределении лайков после изменения их количества
+    private void updateLikeIndexes(Film film, int oldLikes) {
+        int newLikes = film.getLikeCount();
+        popular.update(film.getId(), oldLikes, newLikes);
+        likeDistribution.move(oldLikes, newLikes);
+        totalLikes.add(newLikes - oldLikes);
+
+        for (Genre genre : film.getGenres()) {
+            PopularityIndex index = popularByGenre.get(genre.getId());
+            if (index != null) {
+                index.update(film.getId(), oldLikes, newLikes);
+            }
+        }
+
+        if (film.getReleaseYear() != null) {
+            PopularityIndex index = popularByYear.get(film.getReleaseYear());
+            if (index != null) {
+                index.update(film.getId(), oldLikes, newLikes);
+            }
+        }
+    }
+
+    // Длительность фильма для агрегатов статистики
+    private static long durationOf(Film film) {
+        return film.getDuration() == null ? 0 : film.getDuration();
     }
 }
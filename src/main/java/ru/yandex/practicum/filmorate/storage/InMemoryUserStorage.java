@@ -3,15 +3,54 @@ package ru.yandex.practicum.filmorate.storage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.jfr.StorageLookupEvent;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserStats;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
 
+/**
+ * Хранилище пользователей в памяти, безопасное для одновременного доступа.
+ * Дружба меняется под блокировками полос обоих пользователей, захватываемыми в фиксированном порядке,
+ * поэтому списки друзей остаются взаимными, а встречные запросы не приводят к взаимоблокировке.
+ * Уникальность электронной почты и логина обеспечивают хеш-индексы: значение резервируется за
+ * пользователем через putIfAbsent до сохранения, поэтому конфликт обнаруживается за O(1) даже
+ * при одновременной регистрации.
+ */
 @Component
 @Slf4j
-public class InMemoryUserStorage implements UserStorage {
-    private final Map<Integer, User> users = new HashMap<>();
+public class InMemoryUserStorage implements NodeUserStorage {
+    // Количество полос блокировок пользователей
+    private static final int LOCK_STRIPES = 256;
+
+    // Наибольшее количество ID, которые фильтр может отклонить подряд при выдаче одного ID
+    private static final int MAX_SKIPPED_IDS = 1 << 16;
+
+    private final Map<Integer, User> users = new ConcurrentHashMap<>();
+
+    // Уникальные индексы: электронная почта и логин -> ID пользователя
+    private final Map<String, Integer> emailIndex = new ConcurrentHashMap<>();
+    private final Map<String, Integer> loginIndex = new ConcurrentHashMap<>();
+
+    // Агрегаты для статистики: распределение по числу друзей и сумма размеров списков друзей
+    private final CountHistogram friendCountDistribution = new CountHistogram();
+    private final LongAdder friendLinks = new LongAdder();
+
+    // Последний выданный ID пользователя
+    private final AtomicInteger lastId = new AtomicInteger();
+
+    // ID, которые можно выдавать новым пользователям; на узле кластера — только ID его диапазона
+    private volatile IntPredicate idFilter = id -> true;
+
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
 
     // Добавление пользователя
     @Override
@@ -22,10 +61,15 @@ public class InMemoryUserStorage implements UserStorage {
         }
 
         // Получение пользователем ID
-        user.setId(getNextId());
+        user.setId(nextId());
 
-        users.put(user.getId(), user);
-        return user;
+        // Резервирование электронной почты и логина за новым пользователем
+        reserve(user);
+
+        return locks.withLock(user.getId(), () -> {
+            store(user);
+            return user;
+        });
     }
 
     // Получение списка всех пользователей
@@ -34,82 +78,439 @@ public class InMemoryUserStorage implements UserStorage {
         return new ArrayList<>(users.values());
     }
 
+    // Получение пользователей по списку ID за один проход
+    @Override
+    public BatchResult<User> getUsers(Collection<Integer> ids) {
+        StorageLookupEvent event = new StorageLookupEvent();
+        event.begin();
+        List<User> found = new ArrayList<>(ids.size());
+        List<Integer> missingIds = new ArrayList<>();
+
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            User user = users.get(id);
+            if (user != null) {
+                found.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        StorageLookupEvent.commit(event, "user", "ids", found.size() + missingIds.size(), found.size());
+        return new BatchResult<>(found, missingIds);
+    }
+
     // Получение пользователя по ID
     @Override
     public User getUser(int id) {
-        // Проверка существования пользователя
-        if (!users.containsKey(id)) {
-            throw new NotFoundException("Пользователь с id = " + id + " не найден.");
-        }
+        return findUser(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + id + " не найден."));
+    }
 
-        return users.get(id);
+    // Поиск пользователя по ID без выбрасывания исключения
+    @Override
+    public Optional<User> findUser(int id) {
+        StorageLookupEvent event = new StorageLookupEvent();
+        event.begin();
+        User user = users.get(id);
+        StorageLookupEvent.commit(event, "user", "id", 1, user == null ? 0 : 1);
+        return Optional.ofNullable(user);
     }
 
-    // Обновление пользователя
+    // Проверка существования пользователя
     @Override
-    public User updateUser(User newUser) {
-        // Проверка существования пользователя
-        if (!users.containsKey(newUser.getId())) {
-            throw new NotFoundException("Пользователь с id = " + newUser.getId() + " не найден.");
-        }
+    public boolean containsUser(int id) {
+        return users.containsKey(id);
+    }
 
-        // Получение пользователя для обновления
-        User oldUser = users.get(newUser.getId());
+    // Поиск пользователя по электронной почте через индекс
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return lookup(emailIndex, email, "email");
+    }
 
-        // Проверка доступности электронной почты перед её обновлением
-        if (users.values()
-                .stream()
-                .filter(user -> user.getId() != newUser.getId())
-                .anyMatch(user -> Objects.equals(user.getEmail(), newUser.getEmail()))
-        ) {
-            throw new ValidationException("Эта электронная почта уже используется.");
-        }
+    // Поиск пользователя по логину через индекс
+    @Override
+    public Optional<User> findByLogin(String login) {
+        return lookup(loginIndex, login, "login");
+    }
 
-        // Обновление электронной почты пользователя
-        oldUser.setEmail(newUser.getEmail());
-        // Получение старого логина
-        String oldLogin = oldUser.getLogin();
-        // Обновление логина пользователя
-        oldUser.setLogin(newUser.getLogin());
-        // Обновление даты рождения пользователя
-        oldUser.setBirthday(newUser.getBirthday());
-
-        // Обновление имени пользователя
-        if (newUser.getName() != null && !newUser.getName().isEmpty()) {
-            oldUser.setName(newUser.getName());
-        } else {
-            if (Objects.equals(oldUser.getName(), oldLogin)) {
-                oldUser.setName(newUser.getLogin());
+    // Обновление пользователя без блокировок: новая версия собирается отдельным объектом и подменяет
+    // текущую через compare-and-set; при одновременном изменении попытка повторяется с актуальной версией
+    @Override
+    public User updateUser(User newUser, Long expectedVersion) {
+        while (true) {
+            // Получение пользователя для обновления
+            User oldUser = users.get(newUser.getId());
+
+            // Проверка существования пользователя
+            if (oldUser == null) {
+                throw new NotFoundException("Пользователь с id = " + newUser.getId() + " не найден.");
             }
-        }
 
-        return oldUser;
+            // Проверка версии, на основе которой клиент подготовил изменения
+            if (expectedVersion != null && expectedVersion != oldUser.getVersion()) {
+                throw new PreconditionFailedException("Пользователь с id = " + newUser.getId()
+                        + " был изменён: текущая версия " + oldUser.getVersion() + ".");
+            }
+
+            // Обновление имени пользователя: имя, совпадавшее со старым логином, следует за новым логином
+            String name = oldUser.getName();
+            if (newUser.getName() != null && !newUser.getName().isEmpty()) {
+                name = newUser.getName();
+            } else if (Objects.equals(oldUser.getName(), oldUser.getLogin())) {
+                name = newUser.getLogin();
+            }
+
+            // Новая версия пользователя с прежним списком друзей
+            User updated = oldUser.toBuilder()
+                    .email(newUser.getEmail())
+                    .login(newUser.getLogin())
+                    .name(name)
+                    .birthday(newUser.getBirthday())
+                    .version(oldUser.getVersion() + 1)
+                    .build();
+
+            // Резервирование новых электронной почты и логина; неизменившиеся значения уже принадлежат пользователю
+            String oldEmail = oldUser.getEmail();
+            String newEmail = updated.getEmail();
+            boolean emailChanged = !Objects.equals(oldEmail, newEmail);
+            boolean loginChanged = !Objects.equals(oldUser.getLogin(), updated.getLogin());
+            if (emailChanged) {
+                claim(emailIndex, newEmail, updated.getId(), "Эта электронная почта уже используется.");
+            }
+            if (loginChanged) {
+                try {
+                    claim(loginIndex, updated.getLogin(), updated.getId(), "Этот логин уже используется.");
+                } catch (ValidationException e) {
+                    if (emailChanged) {
+                        release(emailIndex, newEmail, updated.getId());
+                    }
+                    throw e;
+                }
+            }
+
+            // Пользователи сравниваются по ID, поэтому подмена проверяет идентичность текущего объекта
+            if (users.computeIfPresent(updated.getId(), (id, current) -> current == oldUser ? updated : current)
+                    == updated) {
+                // Освобождение прежних значений после успешной подмены
+                if (emailChanged) {
+                    release(emailIndex, oldEmail, updated.getId());
+                }
+                if (loginChanged) {
+                    release(loginIndex, oldUser.getLogin(), updated.getId());
+                }
+                return updated;
+            }
+
+            // Пользователь изменился одновременно с нами: резерв снимается, попытка повторяется
+            if (emailChanged) {
+                release(emailIndex, newEmail, updated.getId());
+            }
+            if (loginChanged) {
+                release(loginIndex, updated.getLogin(), updated.getId());
+            }
+        }
     }
 
     // Удаление пользователя по ID
     @Override
     public User deleteUser(int id) {
-        // Проверка существования пользователя
-        if (!users.containsKey(id)) {
-            throw new NotFoundException("Пользователь с id = " + id + " не найден.");
+        // После изъятия из хранилища новые изменения дружбы с пользователем невозможны,
+        // поэтому его список друзей дальше не меняется
+        User removed = locks.withLock(id, () -> {
+            User user = users.remove(id);
+
+            // Проверка существования пользователя
+            if (user == null) {
+                throw new NotFoundException("Пользователь с id = " + id + " не найден.");
+            }
+
+            release(emailIndex, user.getEmail(), id);
+            release(loginIndex, user.getLogin(), id);
+            friendCountDistribution.decrement(user.getFriendCount());
+            friendLinks.add(-user.getFriendCount());
+            return user;
+        });
+
+        // Удаление пользователя из списков друзей за O(количество его друзей)
+        for (Integer friendId : removed.getFriends()) {
+            locks.withLocks(id, friendId, () -> {
+                User friend = users.get(friendId);
+                if (friend != null && friend.getFriends().remove(id)) {
+                    friendCountChanged(friend.getFriendCount() + 1, friend.getFriendCount());
+                }
+                return null;
+            });
         }
 
-        return users.remove(id);
+        return removed;
     }
 
     // Удаление всех пользователей
     @Override
     public void deleteUsers() {
-        users.clear();
+        locks.withAllLocks(() -> {
+            users.clear();
+            emailIndex.clear();
+            loginIndex.clear();
+            friendCountDistribution.clear();
+            friendLinks.reset();
+            lastId.set(0);
+        });
+    }
+
+    // Взаимное добавление пользователей в друзья
+    @Override
+    public boolean addFriend(int id, int friendId) {
+        // Дружба с самим собой добавила бы одну ссылку вместо двух и сбила бы счётчик пар
+        if (id == friendId) {
+            throw new ValidationException("Пользователь не может дружить сам с собой.");
+        }
+
+        return locks.withLocks(id, friendId, () -> {
+            User user = getUser(id);
+            User friend = getUser(friendId);
+
+            if (!user.getFriends().add(friendId)) {
+                return false;
+            }
+
+            friendCountChanged(user.getFriendCount() - 1, user.getFriendCount());
+            if (friend.getFriends().add(id)) {
+                friendCountChanged(friend.getFriendCount() - 1, friend.getFriendCount());
+            }
+            return true;
+        });
+    }
+
+    // Взаимное удаление пользователей из друзей
+    @Override
+    public boolean deleteFriend(int id, int friendId) {
+        return locks.withLocks(id, friendId, () -> {
+            User user = getUser(id);
+            User friend = getUser(friendId);
+
+            if (!user.getFriends().remove(friendId)) {
+                return false;
+            }
+
+            friendCountChanged(user.getFriendCount() + 1, user.getFriendCount());
+            if (friend.getFriends().remove(id)) {
+                friendCountChanged(friend.getFriendCount() + 1, friend.getFriendCount());
+            }
+            return true;
+        });
+    }
+
+    // Добавление пользователей с уже назначенными ID; счётчик ID сдвигается за наибольший из них.
+    // Пользователи с занятыми электронной почтой или логином не добавляются и возвращаются вызывающему
+    @Override
+    public List<User> addUsers(Collection<User> newUsers) {
+        List<User> rejected = new ArrayList<>();
+
+        for (User user : newUsers) {
+            if (user.getName() == null || user.getName().isEmpty()) {
+                user.setName(user.getLogin());
+            }
+
+            try {
+                reserve(user);
+            } catch (ValidationException e) {
+                rejected.add(user);
+                continue;
+            }
+
+            locks.withLock(user.getId(), () -> {
+                store(user);
+                return null;
+            });
+            lastId.accumulateAndGet(user.getId(), Math::max);
+        }
+
+        return rejected;
+    }
+
+    // Добавление взаимной дружбы пачкой; пары с несуществующими пользователями пропускаются
+    @Override
+    public int addFriendships(Collection<Friendship> friendships) {
+        int added = 0;
+
+        for (Friendship friendship : friendships) {
+            boolean isAdded = locks.withLocks(friendship.userId(), friendship.friendId(), () -> {
+                User user = users.get(friendship.userId());
+                User friend = users.get(friendship.friendId());
+
+                if (user == null || friend == null || user == friend || !user.getFriends().add(friend.getId())) {
+                    return false;
+                }
+
+                friend.getFriends().add(user.getId());
+                friendCountChanged(user.getFriendCount() - 1, user.getFriendCount());
+                friendCountChanged(friend.getFriendCount() - 1, friend.getFriendCount());
+                return true;
+            });
+
+            if (isAdded) {
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+    // Добавление в список друзей пользователя половины дружбы с пользователем другого узла кластера;
+    // друг здесь не хранится, вторая половина добавляется на его узле
+    @Override
+    public boolean addFriendLink(int id, int friendId) {
+        return locks.withLock(id, () -> {
+            User user = getUser(id);
+            if (!user.getFriends().add(friendId)) {
+                return false;
+            }
+
+            friendCountChanged(user.getFriendCount() - 1, user.getFriendCount());
+            return true;
+        });
+    }
+
+    // Удаление из списка друзей пользователя половины дружбы с пользователем другого узла кластера
+    @Override
+    public boolean deleteFriendLink(int id, int friendId) {
+        return locks.withLock(id, () -> {
+            User user = getUser(id);
+            if (!user.getFriends().remove(friendId)) {
+                return false;
+            }
+
+            friendCountChanged(user.getFriendCount() + 1, user.getFriendCount());
+            return true;
+        });
+    }
+
+    // Добавление половин дружбы пачкой (массовый импорт); ссылки от несуществующих пользователей пропускаются
+    @Override
+    public int addFriendLinks(Collection<Friendship> links) {
+        int added = 0;
+
+        for (Friendship link : links) {
+            boolean isAdded = locks.withLock(link.userId(), () -> {
+                User user = users.get(link.userId());
+                if (user == null || !user.getFriends().add(link.friendId())) {
+                    return false;
+                }
+
+                friendCountChanged(user.getFriendCount() - 1, user.getFriendCount());
+                return true;
+            });
+
+            if (isAdded) {
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+    // Удаление половин дружбы пачкой, например с удалённым на другом узле пользователем
+    @Override
+    public void deleteFriendLinks(Collection<Friendship> links) {
+        for (Friendship link : links) {
+            locks.withLock(link.userId(), () -> {
+                User user = users.get(link.userId());
+                if (user != null && user.getFriends().remove(link.friendId())) {
+                    friendCountChanged(user.getFriendCount() + 1, user.getFriendCount());
+                }
+                return null;
+            });
+        }
+    }
+
+    // Агрегаты по пользователям; не зависит от количества пользователей
+    @Override
+    public UserStats getStats() {
+        return new UserStats(users.size(), friendLinks.sum() / 2, friendCountDistribution.snapshot());
+    }
+
+    // Ограничение ID, выдаваемых новым пользователям
+    @Override
+    public void setIdFilter(IntPredicate idFilter) {
+        this.idFilter = idFilter;
+    }
+
+    // Следующий ID, проходящий фильтр; пропущенные ID больше не выдаются. Поиск ограничен,
+    // чтобы фильтр, отклоняющий все ID, или исчерпание диапазона не зацикливали добавление
+    private int nextId() {
+        for (int attempt = 0; attempt < MAX_SKIPPED_IDS; attempt++) {
+            int id = lastId.incrementAndGet();
+            if (id <= 0) {
+                throw new IllegalStateException("Диапазон ID пользователей исчерпан.");
+            }
+            if (idFilter.test(id)) {
+                return id;
+            }
+        }
+        throw new IllegalStateException("Фильтр отклонил " + MAX_SKIPPED_IDS + " ID пользователей подряд.");
+    }
+
+    // Сохранение пользователя с потокобезопасным списком друзей; вызывается под блокировкой пользователя
+    private void store(User user) {
+        Set<Integer> friends = ConcurrentHashMap.newKeySet();
+        friends.addAll(user.getFriends());
+        user.setFriends(friends);
+        users.put(user.getId(), user);
+
+        friendCountDistribution.increment(user.getFriendCount());
+        friendLinks.add(user.getFriendCount());
+    }
+
+    // Резервирование электронной почты и логина за пользователем; при конфликте ничего не остаётся занятым
+    private void reserve(User user) {
+        String email = user.getEmail();
+        claim(emailIndex, email, user.getId(), "Эта электронная почта уже используется.");
+        try {
+            claim(loginIndex, user.getLogin(), user.getId(), "Этот логин уже используется.");
+        } catch (ValidationException e) {
+            release(emailIndex, email, user.getId());
+            throw e;
+        }
+    }
+
+    // Закрепление значения индекса за пользователем; занятое другим пользователем значение — ошибка
+    private static void claim(Map<String, Integer> index, String key, int id, String message) {
+        if (key == null) {
+            return;
+        }
+
+        Integer owner = index.putIfAbsent(key, id);
+        if (owner != null && owner != id) {
+            throw new ValidationException(message);
+        }
+    }
+
+    // Освобождение значения индекса, только если оно принадлежит пользователю
+    private static void release(Map<String, Integer> index, String key, int id) {
+        if (key != null) {
+            index.remove(key, id);
+        }
+    }
+
+    // Получение пользователя по значению индекса
+    private Optional<User> lookup(Map<String, Integer> index, String key, String keyName) {
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        StorageLookupEvent event = new StorageLookupEvent();
+        event.begin();
+        Integer id = index.get(key);
+        User user = id == null ? null : users.get(id);
+        StorageLookupEvent.commit(event, "user", keyName, 1, user == null ? 0 : 1);
+        return Optional.ofNullable(user);
     }
 
-    // Получение уникального ID для следующего фильма
-    private int getNextId() {
-        int currentMaxId = users.keySet()
-                .stream()
-                .mapToInt(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+    // Учёт изменения количества друзей пользователя в агрегатах статистики
+    private void friendCountChanged(int oldCount, int newCount) {
+        friendCountDistribution.move(oldCount, newCount);
+        friendLinks.add(newCount - oldCount);
     }
 }
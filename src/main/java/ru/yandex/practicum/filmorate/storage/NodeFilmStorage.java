@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Хранилище фильмов одного узла кластера: новые ID выдаются только из части диапазона.
+ */
+public interface NodeFilmStorage extends FilmStorage {
+    // Ограничение ID, выдаваемых новым фильмам
+    void setIdFilter(IntPredicate idFilter);
+}
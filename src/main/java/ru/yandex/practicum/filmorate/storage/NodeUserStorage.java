@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Friendship;
+
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+/**
+ * Хранилище пользователей одного узла кластера. Кроме общих операций позволяет выдавать новые ID
+ * только из части диапазона и хранить половины дружбы с пользователями, которые хранятся на других узлах.
+ */
+public interface NodeUserStorage extends UserStorage {
+    // Ограничение ID, выдаваемых новым пользователям
+    void setIdFilter(IntPredicate idFilter);
+
+    // Добавление половины дружбы с пользователем другого узла; возвращает false, если она уже была
+    boolean addFriendLink(int id, int friendId);
+
+    // Удаление половины дружбы с пользователем другого узла; возвращает false, если её не было
+    boolean deleteFriendLink(int id, int friendId);
+
+    // Добавление половин дружбы пачкой (массовый импорт); возвращает количество добавленных
+    int addFriendLinks(Collection<Friendship> links);
+
+    // Удаление половин дружбы пачкой
+    void deleteFriendLinks(Collection<Friendship> links);
+}
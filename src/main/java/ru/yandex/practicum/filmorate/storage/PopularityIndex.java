@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Упорядоченный индекс фильмов по количеству лайков.
+ * Ключ фильма — (лайки << 32) | (Integer.MAX_VALUE - ID): при обходе по убыванию фильмы идут
+ * от самых популярных, а при равенстве лайков — в порядке возрастания ID.
+ * Изменения одного фильма выполняются под его блокировкой в хранилище; обход не блокируется.
+ */
+class PopularityIndex {
+    private final NavigableSet<Long> keys = new ConcurrentSkipListSet<>();
+
+    // Размер отдельно: у ConcurrentSkipListSet он вычисляется обходом
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Добавление фильма в индекс
+    void add(int filmId, int likes) {
+        if (keys.add(key(filmId, likes))) {
+            size.incrementAndGet();
+        }
+    }
+
+    // Удаление фильма из индекса
+    void remove(int filmId, int likes) {
+        if (keys.remove(key(filmId, likes))) {
+            size.decrementAndGet();
+        }
+    }
+
+    // Перемещение фильма после изменения количества лайков
+    void update(int filmId, int oldLikes, int newLikes) {
+        if (keys.remove(key(filmId, oldLikes))) {
+            keys.add(key(filmId, newLikes));
+        }
+    }
+
+    // Очистка индекса
+    void clear() {
+        keys.clear();
+        size.set(0);
+    }
+
+    // Количество фильмов в индексе
+    int size() {
+        return size.get();
+    }
+
+    // Обход ID фильмов от самых популярных
+    PrimitiveIterator.OfInt descendingIds() {
+        Iterator<Long> iterator = keys.descendingIterator();
+
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return Integer.MAX_VALUE - (int) (iterator.next() & 0xFFFFFFFFL);
+            }
+        };
+    }
+
+    // Ключ фильма в индексе
+    private static long key(int filmId, int likes) {
+        return ((long) likes << 32) | (Integer.MAX_VALUE - filmId);
+    }
+}
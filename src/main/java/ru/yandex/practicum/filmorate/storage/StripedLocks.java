@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Набор блокировок, разделённых по ID сущности.
+ * Операции над разными сущностями выполняются параллельно, над одной — последовательно.
+ * Пары блокировок захватываются в порядке номеров полос, поэтому взаимоблокировки невозможны.
+ */
+class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    StripedLocks(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Количество полос должно быть степенью двойки.");
+        }
+
+        this.locks = new ReentrantLock[stripes];
+        this.mask = stripes - 1;
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Выполнение действия под блокировкой одной сущности
+    <T> T withLock(int id, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(id)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Выполнение действия под блокировками двух сущностей
+    <T> T withLocks(int firstId, int secondId, Supplier<T> action) {
+        int first = Math.min(stripe(firstId), stripe(secondId));
+        int second = Math.max(stripe(firstId), stripe(secondId));
+
+        locks[first].lock();
+        try {
+            if (first == second) {
+                return action.get();
+            }
+
+            locks[second].lock();
+            try {
+                return action.get();
+            } finally {
+                locks[second].unlock();
+            }
+        } finally {
+            locks[first].unlock();
+        }
+    }
+
+    // Выполнение действия под всеми блокировками (очистка хранилища)
+    void withAllLocks(Runnable action) {
+        int locked = 0;
+        try {
+            for (ReentrantLock lock : locks) {
+                lock.lock();
+                locked++;
+            }
+            action.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    // Номер полосы по ID с перемешиванием битов, чтобы соседние ID попадали в разные полосы
+    private int stripe(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -1,8 +1,13 @@
 package ru.yandex.practicum.filmorate.storage;
 
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserStats;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface UserStorage {
     // Добавление пользователя
@@ -11,15 +16,51 @@ public interface UserStorage {
     // Получение списка пользователей
     List<User> getUsers();
 
+    // Получение пользователей по списку ID за один проход
+    BatchResult<User> getUsers(Collection<Integer> ids);
+
     // Получение пользователя по ID
     User getUser(int id);
 
-    // Обновление пользователя
-    User updateUser(User newUser);
+    // Поиск пользователя по ID без выбрасывания исключения
+    Optional<User> findUser(int id);
+
+    // Проверка существования пользователя
+    boolean containsUser(int id);
+
+    // Поиск пользователя по электронной почте
+    Optional<User> findByEmail(String email);
+
+    // Поиск пользователя по логину
+    Optional<User> findByLogin(String login);
+
+    // Обновление пользователя без проверки версии
+    default User updateUser(User newUser) {
+        return updateUser(newUser, null);
+    }
+
+    // Обновление пользователя, если его текущая версия равна ожидаемой (null — без проверки)
+    User updateUser(User newUser, Long expectedVersion);
 
     // Удаление пользователя по ID
     User deleteUser(int id);
 
     // Удаление всех пользователей
     void deleteUsers();
+
+    // Взаимное добавление пользователей в друзья; возвращает false, если они уже друзья
+    boolean addFriend(int id, int friendId);
+
+    // Взаимное удаление пользователей из друзей; возвращает false, если они не были друзьями
+    boolean deleteFriend(int id, int friendId);
+
+    // Добавление пользователей с уже назначенными ID (массовый импорт);
+    // возвращает пользователей, не добавленных из-за занятых электронной почты или логина
+    List<User> addUsers(Collection<User> users);
+
+    // Добавление взаимной дружбы без повторов (массовый импорт); возвращает количество новых пар
+    int addFriendships(Collection<Friendship> friendships);
+
+    // Инкрементально поддерживаемые агрегаты по пользователям
+    UserStats getStats();
 }
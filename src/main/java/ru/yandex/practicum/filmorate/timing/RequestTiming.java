@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Замеры этапов одного запроса, привязанные к обрабатывающему его потоку.
+ * Этапы вкладываются друг в друга (контроллер вызывает сервис, сервис — хранилище),
+ * поэтому для каждого этапа учитывается собственное время без вложенных этапов,
+ * и сумма этапов не превышает общей длительности запроса.
+ */
+public final class RequestTiming {
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    // Собственное время этапов, индекс — порядковый номер этапа
+    private final long[] stageNanos = new long[TimingStage.values().length];
+
+    // Время вложенных этапов на каждом уровне вложенности; уровень 0 — сам запрос
+    private long[] childNanos = new long[8];
+    private int depth;
+
+    private RequestTiming() {
+    }
+
+    // Начало замеров запроса в текущем потоке
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    // Замеры запроса текущего потока; null вне замеряемого запроса (например, в фоновых потоках)
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    // Завершение замеров; возвращает общую длительность запроса
+    public long finish() {
+        CURRENT.remove();
+        return System.nanoTime() - startNanos;
+    }
+
+    // Вход в этап; возвращает момент начала, который передаётся в exit
+    public long enter() {
+        depth++;
+        if (depth == childNanos.length) {
+            childNanos = Arrays.copyOf(childNanos, depth * 2);
+        }
+        childNanos[depth] = 0;
+        return System.nanoTime();
+    }
+
+    // Выход из этапа: его время без вложенных этапов добавляется к этапу, а полное — к объемлющему уровню
+    public void exit(TimingStage stage, long enterNanos) {
+        long elapsed = System.nanoTime() - enterNanos;
+        stageNanos[stage.ordinal()] += elapsed - childNanos[depth];
+        depth--;
+        childNanos[depth] += elapsed;
+    }
+
+    // Собственное время этапов в миллисекундах; этапы, в которые запрос не заходил, пропускаются
+    public Map<String, Double> stagesMs() {
+        Map<String, Double> stages = new LinkedHashMap<>();
+        for (TimingStage stage : TimingStage.values()) {
+            if (stageNanos[stage.ordinal()] > 0) {
+                stages.put(stage.getMetric(), toMillis(stageNanos[stage.ordinal()]));
+            }
+        }
+        return stages;
+    }
+
+    // Значение заголовка Server-Timing: этапы и общая длительность
+    public String toHeader(long totalNanos) {
+        StringJoiner header = new StringJoiner(", ");
+        stagesMs().forEach((metric, ms) -> header.add(metric(metric, ms)));
+        header.add(metric("total", toMillis(totalNanos)));
+        return header.toString();
+    }
+
+    static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static String metric(String name, double ms) {
+        return String.format(Locale.ROOT, "%s;dur=%.3f", name, ms);
+    }
+}
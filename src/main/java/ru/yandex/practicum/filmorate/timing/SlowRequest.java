@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Разбивка медленного запроса по этапам
+public record SlowRequest(
+        Instant timestamp,
+        String method,
+        String uri,
+        int status,
+        double totalMs,
+        Map<String, Double> stagesMs
+) {
+}
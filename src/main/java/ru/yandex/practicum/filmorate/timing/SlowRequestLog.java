@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Кольцевой буфер последних медленных запросов фиксированной ёмкости.
+ * Запись не блокирует обработку запросов; при переполнении вытесняются самые старые записи.
+ */
+public class SlowRequestLog {
+    private final AtomicReferenceArray<SlowRequest> entries;
+
+    // Порядковый номер следующей записи
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowRequestLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость журнала медленных запросов должна быть положительной.");
+        }
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    // Добавление записи на место самой старой
+    public void add(SlowRequest request) {
+        long index = next.getAndIncrement();
+        entries.set((int) (index % entries.length()), request);
+    }
+
+    // Записи от новых к старым; снимок не атомарен относительно одновременно добавляемых записей
+    public List<SlowRequest> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - entries.length());
+
+        List<SlowRequest> result = new ArrayList<>((int) (end - start));
+        for (long index = end - 1; index >= start; index--) {
+            SlowRequest request = entries.get((int) (index % entries.length()));
+            if (request != null) {
+                result.add(request);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON-конвертер, относящий чтение тела запроса и запись ответа к этапу сериализации.
+ * Заменяет стандартный конвертер Spring Boot, поэтому сохраняет поддержку MappingJacksonValue
+ * и фильтра полей.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return super.read(type, contextClass, inputMessage);
+        }
+
+        long start = timing.enter();
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            timing.exit(TimingStage.SERIALIZATION, start);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        long start = timing.enter();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timing.exit(TimingStage.SERIALIZATION, start);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Валидатор тел запросов (@Valid), относящий проверку к этапу валидации.
+ */
+@RequiredArgsConstructor
+public class TimedValidator implements SmartValidator {
+    private final SmartValidator delegate;
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            delegate.validate(target, errors, validationHints);
+            return;
+        }
+
+        long start = timing.enter();
+        try {
+            delegate.validate(target, errors, validationHints);
+        } finally {
+            timing.exit(TimingStage.VALIDATION, start);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.AopUtils;
+
+/**
+ * Оборачивание контроллеров, сервисов и хранилищ фильмов и пользователей в прокси,
+ * замеряющие время вызовов их методов в рамках текущего запроса.
+ * Вызовы вне замеряемого запроса (фоновые задачи, параллельные потоки) проходят без замеров.
+ */
+public class TimingBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    public TimingBeanPostProcessor() {
+        MethodInterceptor interceptor = invocation -> {
+            RequestTiming timing = RequestTiming.current();
+            TimingStage stage = TimingStage.of(AopUtils.getTargetClass(invocation.getThis()));
+            if (timing == null || stage == null) {
+                return invocation.proceed();
+            }
+
+            long start = timing.enter();
+            try {
+                return invocation.proceed();
+            } finally {
+                timing.exit(stage, start);
+            }
+        };
+
+        this.advisor = new DefaultPointcutAdvisor(interceptor);
+        // Замер охватывает и проверки других советов, например валидацию параметров методов
+        this.beforeExistingAdvisors = true;
+    }
+
+    @Override
+    protected boolean isEligible(Class<?> targetClass) {
+        return TimingStage.of(targetClass) != null;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Замеры этапов обработки запросов сервлетного API (включение: filmorate.timing.enabled=true).
+ * Без свойства ни один из бинов не создаётся, и запросы обрабатываются без накладных расходов.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "filmorate.timing", name = "enabled", havingValue = "true")
+public class TimingConfig {
+    // Прокси для контроллеров, сервисов и хранилищ; статический, чтобы создаваться до обрабатываемых бинов
+    @Bean
+    public static TimingBeanPostProcessor timingBeanPostProcessor() {
+        return new TimingBeanPostProcessor();
+    }
+
+    @Bean
+    public SlowRequestLog slowRequestLog(TimingProperties properties) {
+        return new SlowRequestLog(properties.getSlowRequestsCapacity());
+    }
+
+    // Фильтр выполняется раньше контроля допуска, чтобы учитывать и отклонённые запросы
+    @Bean
+    public FilterRegistrationBean<TimingFilter> timingFilter(TimingProperties properties,
+                                                             SlowRequestLog slowRequestLog) {
+        FilterRegistrationBean<TimingFilter> registration =
+                new FilterRegistrationBean<>(new TimingFilter(properties, slowRequestLog));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    // Заменяет JSON-конвертер Spring Boot, использующий тот же ObjectMapper
+    @Bean
+    public TimedJsonHttpMessageConverter timedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJsonHttpMessageConverter(objectMapper);
+    }
+
+    // Валидатор тел запросов с замером времени проверки
+    @Bean
+    public WebMvcConfigurer timingValidatorConfigurer(LocalValidatorFactoryBean validator) {
+        return new WebMvcConfigurer() {
+            @Override
+            public Validator getValidator() {
+                return new TimedValidator(validator);
+            }
+        };
+    }
+}
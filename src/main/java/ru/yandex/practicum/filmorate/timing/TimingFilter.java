@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер запроса целиком и выдача разбивки по этапам в заголовке Server-Timing.
+ * Тело ответа буферизуется, чтобы заголовок можно было добавить после сериализации;
+ * потоковые выгрузки (/bulk/**) не замеряются и не буферизуются.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TimingFilter extends OncePerRequestFilter {
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final TimingProperties properties;
+    private final SlowRequestLog slowRequests;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/bulk/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        RequestTiming timing = RequestTiming.start();
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            long totalNanos = timing.finish();
+            wrapper.setHeader(SERVER_TIMING_HEADER, timing.toHeader(totalNanos));
+
+            if (totalNanos >= TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs())) {
+                SlowRequest slow = new SlowRequest(
+                        Instant.now(),
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        wrapper.getStatus(),
+                        RequestTiming.toMillis(totalNanos),
+                        timing.stagesMs()
+                );
+                slowRequests.add(slow);
+                log.debug("Медленный запрос {} {}: {} мс, этапы {}.",
+                        slow.method(), slow.uri(), slow.totalMs(), slow.stagesMs());
+            }
+
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки замера этапов обработки запросов (filmorate.timing.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.timing")
+public class TimingProperties {
+    // Включение замеров и заголовка Server-Timing
+    private boolean enabled = false;
+
+    // Длительность запроса, начиная с которой его разбивка по этапам сохраняется в журнал медленных
+    private long slowThresholdMs = 200;
+
+    // Количество последних медленных запросов, хранимых в журнале
+    private int slowRequestsCapacity = 128;
+}
@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import ru.yandex.practicum.filmorate.controller.FilmController;
+import ru.yandex.practicum.filmorate.controller.UserController;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+/**
+ * Этапы обработки запроса, время которых попадает в заголовок Server-Timing.
+ */
+public enum TimingStage {
+    VALIDATION("validation"),
+    CONTROLLER("controller"),
+    SERVICE("service"),
+    STORAGE("storage"),
+    SERIALIZATION("serialization");
+
+    // Этап, к которому относятся вызовы методов класса; вычисляется один раз на класс
+    private static final ClassValue<TimingStage> BY_CLASS = new ClassValue<>() {
+        @Override
+        protected TimingStage computeValue(Class<?> type) {
+            if (FilmController.class.isAssignableFrom(type) || UserController.class.isAssignableFrom(type)) {
+                return CONTROLLER;
+            }
+            if (FilmService.class.isAssignableFrom(type) || UserService.class.isAssignableFrom(type)) {
+                return SERVICE;
+            }
+            if (FilmStorage.class.isAssignableFrom(type) || UserStorage.class.isAssignableFrom(type)) {
+                return STORAGE;
+            }
+            return null;
+        }
+    };
+
+    // Имя метрики в заголовке Server-Timing
+    private final String metric;
+
+    TimingStage(String metric) {
+        this.metric = metric;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    // Этап для класса бина; null, если класс не замеряется
+    public static TimingStage of(Class<?> type) {
+        return BY_CLASS.get(type);
+    }
+}
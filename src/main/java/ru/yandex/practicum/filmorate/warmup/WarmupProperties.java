@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки прогрева горячих путей после запуска (filmorate.warmup.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.warmup")
+public class WarmupProperties {
+    // Включение прогрева; до его окончания приложение не сообщает о готовности
+    private boolean enabled = false;
+
+    // Размер синтетического набора данных
+    private int users = 2_000;
+    private int films = 500;
+
+    // Количество вызовов каждой операции и число раундов, на которые они делятся для замера эффекта
+    private int iterations = 20_000;
+    private int rounds = 10;
+
+    // Предельная длительность прогрева: по её истечении оставшиеся раунды пропускаются
+    private long maxDurationMs = 30_000;
+}
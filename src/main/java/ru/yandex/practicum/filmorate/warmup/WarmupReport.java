@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.warmup;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Итоги прогрева.
+ *
+ * @param rounds     количество выполненных раундов
+ * @param operations среднее время операции в первом и последнем раундах по названиям операций
+ * @param error      причина неудачного прогрева
+ */
+public record WarmupReport(State state,
+                           Instant startedAt,
+                           long durationMs,
+                           int rounds,
+                           Map<String, OperationEffect> operations,
+                           String error) {
+    public enum State {
+        DISABLED,
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Эффект прогрева одной операции.
+     *
+     * @param firstRoundMicros среднее время вызова в первом раунде, в основном в интерпретаторе
+     * @param lastRoundMicros  среднее время вызова в последнем раунде, после JIT-компиляции
+     * @param speedup          отношение первого времени к последнему
+     */
+    public record OperationEffect(double firstRoundMicros, double lastRoundMicros, double speedup) {
+    }
+
+    static WarmupReport of(State state) {
+        return new WarmupReport(state, null, 0, 0, Map.of(), null);
+    }
+}
@@ -0,0 +1,175 @@
+package ru.yandex.practicum.filmorate.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.dataset.DatasetSpec;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FeedServiceImpl;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FilmServiceImpl;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.service.UserServiceImpl;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев горячих путей после запуска контекста: популярные фильмы, общие друзья и JSON-сериализация
+ * вызываются тысячи раз, чтобы JIT скомпилировал их до прихода реальных запросов. Операции выполняются
+ * над отдельными хранилищами с синтетическими данными, поэтому рабочие данные не затрагиваются.
+ * Раннер выполняется до публикации ReadinessState.ACCEPTING_TRAFFIC, так что готовность
+ * приложения наступает только после прогрева.
+ */
+@Slf4j
+@Component
+public class WarmupRunner implements ApplicationRunner {
+    private final WarmupProperties properties;
+    private final ObjectMapper mapper;
+    private final ApplicationEventPublisher publisher;
+
+    private volatile WarmupReport report;
+
+    // Результат вызовов, чтобы JIT не отбросил их как неиспользуемые
+    private long blackhole;
+
+    public WarmupRunner(WarmupProperties properties, ObjectMapper mapper, ApplicationEventPublisher publisher) {
+        this.properties = properties;
+        this.mapper = mapper;
+        this.publisher = publisher;
+        this.report = WarmupReport.of(properties.isEnabled() ? WarmupReport.State.PENDING : WarmupReport.State.DISABLED);
+    }
+
+    // Итоги прогрева
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        Instant startedAt = Instant.now();
+        report = new WarmupReport(WarmupReport.State.RUNNING, startedAt, 0, 0, Map.of(), null);
+        long started = System.nanoTime();
+
+        try {
+            report = warmUp(startedAt, started);
+            log.info("Прогрев завершён за {} мс: {}", report.durationMs(), report.operations());
+        } catch (RuntimeException e) {
+            // Неудачный прогрев не должен мешать приложению обслуживать запросы
+            log.warn("Прогрев прерван: {}", e.getMessage(), e);
+            report = new WarmupReport(WarmupReport.State.FAILED, startedAt, elapsedMs(started), 0, Map.of(),
+                    e.getMessage());
+        }
+    }
+
+    private WarmupReport warmUp(Instant startedAt, long started) {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        new DatasetGenerator(DatasetSpec.builder()
+                .users(properties.getUsers())
+                .films(properties.getFilms())
+                .maxFriends(Math.min(200, properties.getUsers()))
+                .build())
+                .populate(userStorage, filmStorage);
+
+        FeedService feedService = new FeedServiceImpl(userStorage, filmStorage);
+        FilmService filmService = new FilmServiceImpl(filmStorage, userStorage, feedService);
+        UserService userService = new UserServiceImpl(userStorage, filmStorage, feedService);
+        SplittableRandom random = new SplittableRandom(properties.getUsers());
+        byte[] filmJson = write(filmService.getTop(1).get(0));
+
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("films.popular", () -> {
+            int genreId = random.nextInt(Genre.DIRECTORY.size() + 1);
+            consume(filmService.getTop(10, genreId == 0 ? null : genreId, null).size());
+        });
+        operations.put("users.mutual-friends", () -> consume(userService.getMutualFriends(
+                1 + random.nextInt(properties.getUsers()), 1 + random.nextInt(properties.getUsers())).size()));
+        operations.put("json.write", () -> {
+            List<Film> films = filmService.getTop(10);
+            List<User> friends = userService.getFriends(1 + random.nextInt(properties.getUsers()));
+            consume(write(films).length + write(friends).length);
+        });
+        operations.put("json.read", () -> consume(read(filmJson).getId()));
+
+        int rounds = Math.max(1, properties.getRounds());
+        int perRound = Math.max(1, properties.getIterations() / rounds);
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(properties.getMaxDurationMs());
+        Map<String, long[]> roundNanos = new LinkedHashMap<>();
+        operations.keySet().forEach(name -> roundNanos.put(name, new long[rounds]));
+
+        int completed = 0;
+        while (completed < rounds && (completed == 0 || System.nanoTime() < deadline)) {
+            for (Map.Entry<String, Runnable> operation : operations.entrySet()) {
+                long roundStarted = System.nanoTime();
+                for (int i = 0; i < perRound; i++) {
+                    operation.getValue().run();
+                }
+                roundNanos.get(operation.getKey())[completed] = System.nanoTime() - roundStarted;
+            }
+            completed++;
+        }
+
+        Map<String, WarmupReport.OperationEffect> effects = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : roundNanos.entrySet()) {
+            double first = entry.getValue()[0] / 1_000.0 / perRound;
+            double last = entry.getValue()[completed - 1] / 1_000.0 / perRound;
+            effects.put(entry.getKey(), new WarmupReport.OperationEffect(round(first), round(last),
+                    last > 0 ? round(first / last) : 0));
+        }
+
+        return new WarmupReport(WarmupReport.State.COMPLETED, startedAt, elapsedMs(started), completed, effects,
+                null);
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Film read(byte[] json) {
+        try {
+            return mapper.readValue(json, Film.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void consume(long value) {
+        blackhole += value;
+    }
+
+    private static long elapsedMs(long started) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1_000) / 1_000.0;
+    }
+}
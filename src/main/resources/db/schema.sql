@@ -0,0 +1,47 @@
+-- Схема базы данных из README; применяется при запуске в режиме filmorate.storage.mode=write-behind
+CREATE TABLE IF NOT EXISTS mpa_rating (
+    id   INTEGER PRIMARY KEY,
+    name VARCHAR(10) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS genre (
+    id   INTEGER PRIMARY KEY,
+    name VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id       INTEGER PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL,
+    login    VARCHAR(255) NOT NULL,
+    name     VARCHAR(255),
+    birthday DATE NOT NULL
+);
+
+-- Дружба взаимна, поэтому каждая пара хранится в обоих направлениях
+CREATE TABLE IF NOT EXISTS friendship (
+    user_id   INTEGER NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    friend_id INTEGER NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    PRIMARY KEY (user_id, friend_id)
+);
+
+-- Рейтинг фильма в приложении необязателен, поэтому rating_id допускает NULL
+CREATE TABLE IF NOT EXISTS films (
+    id           INTEGER PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    description  VARCHAR(200) NOT NULL,
+    release_date DATE NOT NULL,
+    duration     INTEGER NOT NULL,
+    rating_id    INTEGER REFERENCES mpa_rating (id)
+);
+
+CREATE TABLE IF NOT EXISTS film_genre (
+    film_id  INTEGER NOT NULL REFERENCES films (id) ON DELETE CASCADE,
+    genre_id INTEGER NOT NULL REFERENCES genre (id),
+    PRIMARY KEY (film_id, genre_id)
+);
+
+CREATE TABLE IF NOT EXISTS likes (
+    film_id INTEGER NOT NULL REFERENCES films (id) ON DELETE CASCADE,
+    user_id INTEGER NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    PRIMARY KEY (film_id, user_id)
+);
@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Отказы фильтра контроля допуска: коды ответа, заголовок Retry-After и определение клиента
+@SpringBootTest(properties = {
+        "filmorate.admission.enabled=true",
+        "filmorate.admission.bucket-capacity=10",
+        "filmorate.admission.refill-per-second=1",
+        "filmorate.admission.max-clients=3",
+        "filmorate.admission.trusted-proxies=10.0.0.1"
+})
+@AutoConfigureMockMvc
+public class AdmissionControlFilterTest {
+    private static final String PROXY = "10.0.0.1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionControlFilter filter;
+
+    @Test // Исчерпанная корзина клиента — 429 с Retry-After, смена X-Client-Id не даёт новой корзины
+    void shouldRejectClientAboveRateLimit() throws Exception {
+        listFilms("192.0.2.1", null).andExpect(status().isOk());
+        listFilms("192.0.2.1", null).andExpect(status().isOk());
+
+        listFilms("192.0.2.1", "other-client")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, matchesPattern("[1-5]")))
+                .andExpect(jsonPath("$.description").exists());
+    }
+
+    @Test // Доверенный прокси передаёт идентификатор клиента, и каждый клиент получает свою корзину
+    void shouldTrustClientIdFromProxy() throws Exception {
+        listFilms(PROXY, "first").andExpect(status().isOk());
+        listFilms(PROXY, "first").andExpect(status().isOk());
+        listFilms(PROXY, "first").andExpect(status().isTooManyRequests());
+
+        listFilms(PROXY, "second").andExpect(status().isOk());
+    }
+
+    @Test // Запрос, уже допущенный другим узлом кластера, не расходует корзину
+    void shouldSkipExemptRequests() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/films")
+                            .with(remoteAddress("192.0.2.2"))
+                            .requestAttr(AdmissionControlFilter.EXEMPT_ATTRIBUTE, Boolean.TRUE))
+                    .andExpect(status().isOk());
+        }
+
+        listFilms("192.0.2.2", null).andExpect(status().isOk());
+    }
+
+    @Test // Количество отслеживаемых клиентов ограничено, вытесняются давние клиенты
+    void shouldBoundTrackedClients() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            listFilms(PROXY, "sprayed-" + i).andExpect(status().isOk());
+        }
+
+        assertEquals(3, filter.getClientCount(), "Число корзин не должно превышать max-clients");
+    }
+
+    @Test // Достигнут лимит одновременных запросов к эндпоинту — 503 с Retry-After
+    void shouldRejectAboveConcurrencyLimit() throws Exception {
+        listFilms(PROXY, "warm-up").andExpect(status().isOk());
+        AdaptiveConcurrencyLimiter limiter = filter.getLimiters().get("films-list");
+
+        int held = 0;
+        while (limiter.tryAcquire()) {
+            held++;
+        }
+        try {
+            listFilms(PROXY, "concurrent")
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            for (int i = 0; i < held; i++) {
+                limiter.release(0);
+            }
+        }
+    }
+
+    private ResultActions listFilms(String remoteAddress, String clientId) throws Exception {
+        var request = get("/films").with(remoteAddress(remoteAddress));
+        if (clientId != null) {
+            request.header(AdmissionControlFilter.CLIENT_ID_HEADER, clientId);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlTest {
+    private static final Function<String, String[]> NO_PARAMS = name -> null;
+
+    @Test // Проверка исчерпания и пополнения корзины токенов
+    void shouldRefillTokenBucket() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertEquals(0, bucket.tryConsume(10, 0), "Полная корзина должна пропускать запрос");
+        long wait = bucket.tryConsume(5, 0);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait, 10, "Неверное время ожидания пополнения");
+        assertEquals(0, bucket.tryConsume(5, TimeUnit.SECONDS.toNanos(1)), "Корзина должна пополниться");
+    }
+
+    @Test // Проверка отказа при достижении лимита одновременных запросов
+    void shouldRejectAboveConcurrencyLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(), "Третий запрос должен быть отклонён");
+        assertEquals(2, limiter.getInFlight(), "Отклонённый запрос не должен занимать место");
+    }
+
+    @Test // Проверка уменьшения лимита при медленных ответах и роста при быстрых
+    void shouldAdaptLimitToLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 40, 100);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+        assertTrue(limiter.getLimit() < 20, "Лимит должен уменьшиться при медленных ответах");
+
+        int reduced = limiter.getLimit();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertTrue(limiter.getLimit() > reduced, "Лимит должен расти при быстрых ответах");
+    }
+
+    @Test // Проверка классификации запросов по стоимости
+    void shouldClassifyExpensiveEndpoints() {
+        assertNull(EndpointCost.classify("GET", "/films/1", NO_PARAMS, 100), "Получение фильма — дешёвый запрос");
+        assertNull(EndpointCost.classify("GET", "/films/popular", params("amount", "10"), 100),
+                "Короткий топ — дешёвый запрос");
+        assertEquals("popular",
+                EndpointCost.classify("GET", "/films/popular", params("amount", "100000"), 100).endpoint());
+        assertEquals(101, EndpointCost.classify("GET", "/films/popular", params("amount", "100000"), 100).tokens());
+        assertEquals("films-list", EndpointCost.classify("GET", "/films", NO_PARAMS, 100).endpoint());
+        assertEquals("mutual-friends",
+                EndpointCost.classify("GET", "/users/1/friends/common/2", NO_PARAMS, 100).endpoint());
+        assertNull(EndpointCost.classify("GET", "/films", params("ids", "1,2,3"), 100),
+                "Короткий список ID — дешёвый запрос");
+        assertNull(EndpointCost.classify("POST", "/films", NO_PARAMS, 100), "Изменяющие запросы не ограничиваются");
+        assertNull(EndpointCost.classify("GET", "/users", params("email", "a@mail.ru"), 100),
+                "Поиск по индексу электронной почты — дешёвый запрос");
+        assertEquals(3, EndpointCost.classify("GET", "/users/1/path/2", params("maxDepth", "6"), 100).tokens());
+    }
+
+    @Test // Повторяющийся параметр ids учитывается целиком, а не по первому значению
+    void shouldPriceAllRepeatedIds() {
+        String[] ids = new String[150];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = String.valueOf(i + 1);
+        }
+
+        EndpointCost cost = EndpointCost.classify("GET", "/films", params("ids", ids), 100);
+        assertNotNull(cost, "Длинный список ID в повторяющемся параметре — дорогой запрос");
+        assertEquals("multi-get", cost.endpoint());
+        assertEquals(2, cost.tokens());
+        assertEquals(cost, EndpointCost.classify("GET", "/films", params("ids", String.join(",", ids)), 100),
+                "Стоимость не должна зависеть от способа передачи списка");
+    }
+
+    private static Function<String, String[]> params(String name, String... values) {
+        return parameter -> parameter.equals(name) ? values : null;
+    }
+}
@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнение сервлетного и реактивного стеков при растущем числе одновременных запросов.
+ * Запуск: mvn test -Preactive -Dtest=WebStackBenchmarkTest -Dbench.stacks=true
+ */
+@EnabledIfSystemProperty(named = "bench.stacks", matches = "true")
+public class WebStackBenchmarkTest {
+    private static final int USERS = Integer.getInteger("bench.users", 500);
+    private static final int FILMS = Integer.getInteger("bench.films", 200);
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 20_000);
+    private static final int[] CONCURRENCY = {16, 64, 256};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @Test // Пропускная способность и p99 обоих стеков на одинаковых данных
+    void shouldCompareServletAndReactiveStacks() throws Exception {
+        try (ConfigurableApplicationContext servlet = start();
+             ConfigurableApplicationContext reactive = start("reactive")) {
+            int servletPort = port(servlet);
+            int reactivePort = port(reactive);
+
+            seed(servletPort);
+            seed(reactivePort);
+
+            for (int concurrency : CONCURRENCY) {
+                report("servlet", concurrency, run(servletPort, concurrency));
+                report("reactive", concurrency, run(reactivePort, concurrency));
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(FilmorateApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "logging.level.org.zalando.logbook=INFO")
+                .run();
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    // Одинаковые данные для обоих стеков: ID совпадают, так как хранилища пусты
+    private void seed(int port) throws Exception {
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < USERS; i++) {
+            String body = "{\"email\":\"bench" + i + "@example.com\",\"login\":\"bench" + i + "\","
+                    + "\"birthday\":\"1990-01-01\"}";
+            assertEquals(200, send(post(port, "/users", body)).statusCode(), "Пользователь не создан");
+        }
+
+        for (int i = 0; i < FILMS; i++) {
+            String body = "{\"name\":\"Фильм " + i + "\",\"description\":\"Описание\","
+                    + "\"releaseDate\":\"2000-01-01\",\"duration\":100}";
+            assertEquals(200, send(post(port, "/films", body)).statusCode(), "Фильм не создан");
+        }
+
+        for (int userId = 1; userId <= USERS; userId++) {
+            for (int i = 0; i < 20; i++) {
+                int friendId = 1 + random.nextInt(USERS);
+                if (friendId != userId) {
+                    send(put(port, "/users/" + userId + "/friends/" + friendId));
+                }
+            }
+            send(put(port, "/films/" + (1 + random.nextInt(FILMS)) + "/like/" + userId));
+        }
+    }
+
+    // Закрытая модель: не более concurrency запросов одновременно
+    private Result run(int port, int concurrency) throws Exception {
+        SplittableRandom random = new SplittableRandom(11);
+        Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        LongAdder failures = new LongAdder();
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<?>> futures = new ArrayList<>(REQUESTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            String path = switch (i % 3) {
+                case 0 -> "/users/" + (1 + random.nextInt(USERS)) + "/friends/common/" + (1 + random.nextInt(USERS));
+                case 1 -> "/films/popular?amount=10";
+                default -> "/films/" + (1 + random.nextInt(FILMS));
+            };
+
+            permits.acquire();
+            long sentAt = System.nanoTime();
+            futures.add(client.sendAsync(HttpRequest.newBuilder(uri(port, path)).build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAt));
+                        if (error != null || response.statusCode() != 200) {
+                            failures.increment();
+                        }
+                        permits.release();
+                    }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(0, failures.sum(), "Все запросы должны завершаться успешно");
+        return new Result(REQUESTS / (elapsed / 1e9), latency);
+    }
+
+    private static void report(String stack, int concurrency, Result result) {
+        System.out.printf("%-8s concurrency=%-4d throughput=%,.0f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                stack,
+                concurrency,
+                result.throughput(),
+                result.latency().getValueAtPercentile(50) / 1000.0,
+                result.latency().getValueAtPercentile(99) / 1000.0,
+                result.latency().getMaxValue() / 1000.0);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest post(int port, String path, String body) {
+        return HttpRequest.newBuilder(uri(port, path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest put(int port, String path) {
+        return HttpRequest.newBuilder(uri(port, path))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(double throughput, Histogram latency) {
+    }
+}
@@ -0,0 +1,111 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнение размера и скорости сериализации списка фильмов в JSON, CBOR и Smile.
+ * Запуск: mvn test -Dtest=WireFormatBenchmarkTest -Dbench.wire=true
+ */
+@EnabledIfSystemProperty(named = "bench.wire", matches = "true")
+public class WireFormatBenchmarkTest {
+    private static final int FILMS = Integer.getInteger("bench.films", 5_000);
+    private static final int LIKES_PER_FILM = Integer.getInteger("bench.likes", 50);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 20);
+
+    private static final TypeReference<List<Film>> FILM_LIST = new TypeReference<>() {
+    };
+
+    @Test // Бинарные форматы должны быть компактнее JSON и корректно восстанавливать данные
+    void shouldCompareWireFormats() throws Exception {
+        List<Film> films = generateFilms();
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", configure(JsonMapper.builder().findAndAddModules().build()));
+        mappers.put("cbor", configure(CBORMapper.builder().findAndAddModules().build()));
+        mappers.put("smile", configure(SmileMapper.builder().findAndAddModules().build()));
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(films);
+
+            // Прогрев перед замером
+            for (int i = 0; i < ITERATIONS; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(films), FILM_LIST);
+            }
+
+            long writeNanos = 0;
+            long readNanos = 0;
+            List<Film> decoded = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                payload = mapper.writeValueAsBytes(films);
+                long written = System.nanoTime();
+                decoded = mapper.readValue(payload, FILM_LIST);
+                readNanos += System.nanoTime() - written;
+                writeNanos += written - start;
+            }
+
+            assertEquals(films.size(), decoded.size(), "Количество фильмов после декодирования отличается");
+            assertEquals(films.get(0).getLikes(), decoded.get(0).getLikes(), "Лайки после декодирования отличаются");
+            assertEquals(films.get(0).getReleaseDate(), decoded.get(0).getReleaseDate(), "Даты после декодирования отличаются");
+
+            sizes.put(entry.getKey(), payload.length);
+            System.out.printf("%-6s size=%,d bytes, serialize=%.2f ms, deserialize=%.2f ms%n",
+                    entry.getKey(),
+                    payload.length,
+                    writeNanos / 1e6 / ITERATIONS,
+                    readNanos / 1e6 / ITERATIONS);
+        }
+
+        assertTrue(sizes.get("cbor") < sizes.get("json"), "CBOR должен быть компактнее JSON");
+        assertTrue(sizes.get("smile") < sizes.get("json"), "Smile должен быть компактнее JSON");
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        // Настройки совпадают с настройками Jackson в Spring Boot
+        return mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static List<Film> generateFilms() {
+        Random random = new Random(42);
+        List<Film> films = new ArrayList<>(FILMS);
+
+        for (int i = 1; i <= FILMS; i++) {
+            Film film = Film.builder()
+                    .id(i)
+                    .name("Фильм " + i)
+                    .description("Описание фильма " + i)
+                    .releaseDate(LocalDate.of(1950 + random.nextInt(70), 1 + random.nextInt(12), 1))
+                    .duration(60 + random.nextInt(120))
+                    .build();
+
+            for (int j = 0; j < LIKES_PER_FILM; j++) {
+                film.getLikes().add(1 + random.nextInt(1_000_000));
+            }
+
+            films.add(film);
+        }
+
+        return films;
+    }
+}
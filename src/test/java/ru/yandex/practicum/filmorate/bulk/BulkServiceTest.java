@@ -0,0 +1,124 @@
+package ru.yandex.practicum.filmorate.bulk;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkServiceTest {
+    // Настройки совпадают с настройками Jackson в Spring Boot
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test // Выгруженные данные должны полностью восстанавливаться в пустых хранилищах
+    void shouldRoundTripDataset() throws Exception {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        User first = userStorage.addUser(user("first"));
+        User second = userStorage.addUser(user("second"));
+        userStorage.addFriend(first.getId(), second.getId());
+        Film film = film("Чужой");
+        film.setGenres(List.of(new Genre(4, null)));
+        filmStorage.createFilm(film);
+        filmStorage.addLike(film.getId(), second.getId());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BulkService(userStorage, filmStorage, mapper, validator).export(out);
+
+        InMemoryUserStorage importedUsers = new InMemoryUserStorage();
+        InMemoryFilmStorage importedFilms = new InMemoryFilmStorage();
+        ImportReport report = new BulkService(importedUsers, importedFilms, mapper, validator)
+                .importRecords(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(5, report.lines(), "Неверное количество строк выгрузки");
+        assertEquals(0, report.rejected(), "Корректные записи не должны отклоняться: " + report.errors());
+        assertEquals(1, report.friendships(), "Дружба должна выгружаться один раз на пару");
+        assertEquals(Set.of(second.getId()), importedUsers.getUser(first.getId()).getFriends());
+        assertEquals(Set.of(first.getId()), importedUsers.getUser(second.getId()).getFriends());
+        assertEquals(Set.of(second.getId()), importedFilms.getFilm(film.getId()).getLikes());
+        assertEquals(film.getGenres(), importedFilms.getFilm(film.getId()).getGenres());
+        assertEquals(List.of(film), importedFilms.getPopular(10, 4, null), "Фильм должен попасть в индекс жанра");
+        assertEquals(3, importedUsers.addUser(user("third")).getId(), "ID должны выдаваться после импортированных");
+    }
+
+    @Test // Некорректные записи и ссылки на несуществующие сущности должны отклоняться с номером строки
+    void shouldRejectInvalidRecords() throws Exception {
+        String ndjson = """
+                {"type":"user","data":{"id":1,"email":"a@mail.ru","login":"a","birthday":"2000-01-01"}}
+                {"type":"user","data":{"id":1,"email":"b@mail.ru","login":"b","birthday":"2000-01-01"}}
+                {"type":"user","data":{"id":2,"email":"bad","login":"c","birthday":"2000-01-01"}}
+
+                {"type":"like","data":{"filmId":7,"userId":1}}
+                not json
+                """;
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+
+        ImportReport report = new BulkService(userStorage, new InMemoryFilmStorage(), mapper, validator)
+                .importRecords(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, report.lines(), "Пустые строки не должны учитываться");
+        assertEquals(1, report.users(), "Должен быть загружен один пользователь");
+        assertEquals(4, report.rejected(), "Неверное количество отклонённых строк");
+        assertTrue(report.errors().get(0).startsWith("Строка 3:"), "Ошибки разбора должны идти первыми");
+        assertEquals("a@mail.ru", userStorage.getUser(1).getEmail(), "Первая запись с ID должна сохраниться");
+    }
+
+    @Test // Фильм, занявший ID между проверкой и вставкой, не перезаписывается, а строка импорта отклоняется
+    void shouldRejectFilmWhoseIdWasTakenConcurrently() throws Exception {
+        // Проверка существования всегда промахивается, как при гонке с одновременным POST /films
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage() {
+            @Override
+            public boolean containsFilm(int id) {
+                return false;
+            }
+        };
+        Film existing = filmStorage.createFilm(film("Чужой"));
+        String ndjson = "{\"type\":\"film\",\"data\":{\"id\":" + existing.getId() + ",\"name\":\"Солярис\","
+                + "\"description\":\"Драма\",\"releaseDate\":\"1972-03-20\",\"duration\":167}}\n";
+
+        ImportReport report = new BulkService(new InMemoryUserStorage(), filmStorage, mapper, validator)
+                .importRecords(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(0, report.films(), "Фильм с занятым ID не должен загружаться");
+        assertEquals(1, report.rejected(), "Строка должна быть отклонена");
+        assertTrue(report.errors().get(0).startsWith("Строка 1:"), "Ошибка должна указывать номер строки");
+        assertEquals("Чужой", filmStorage.getFilm(existing.getId()).getName(), "Фильм не должен перезаписываться");
+        assertEquals(1, filmStorage.getStats().films(), "Статистика должна учитывать один фильм");
+    }
+
+    private static User user(String login) {
+        return User.builder()
+                .email(login + "@mail.ru")
+                .login(login)
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private static Film film(String name) {
+        return Film.builder()
+                .name(name)
+                .description("Фантастика, Ужасы")
+                .releaseDate(LocalDate.of(1979, 6, 22))
+                .duration(116)
+                .build();
+    }
+}
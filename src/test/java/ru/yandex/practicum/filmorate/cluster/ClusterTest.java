@@ -0,0 +1,257 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClusterTest {
+    private static final int NODES = 3;
+    private static final String SECRET = "test-secret";
+
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final int[] ports = new int[NODES];
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports[i] = socket.getLocalPort();
+            }
+            nodes.add("http://localhost:" + ports[i]);
+        }
+
+        for (int i = 0; i < NODES; i++) {
+            contexts.add(new SpringApplicationBuilder(FilmorateApplication.class)
+                    .run(
+                            "--server.port=" + ports[i],
+                            "--filmorate.cluster.enabled=true",
+                            "--filmorate.cluster.nodes=" + String.join(",", nodes),
+                            "--filmorate.cluster.node-index=" + i,
+                            "--filmorate.cluster.secret=" + SECRET,
+                            "--logging.level.org.zalando.logbook=INFO"
+                    ));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test // Узел выдаёт ID только из своей части, а запрос по ID выполняется на узле-владельце
+    void shouldCreateOnOwnNodeAndRouteById() throws Exception {
+        for (int node = 0; node < NODES; node++) {
+            Partitioner partitioner = new Partitioner(NODES, node);
+            int userId = createUser(node);
+            int filmId = createFilm(node, "Фильм узла " + node);
+            assertTrue(partitioner.isLocal(userId), "ID пользователя должен принадлежать создавшему узлу");
+            assertTrue(partitioner.isLocal(filmId), "ID фильма должен принадлежать создавшему узлу");
+
+            for (int other = 0; other < NODES; other++) {
+                HttpResponse<String> response = send(get(other, "/users/" + userId));
+                assertEquals(200, response.statusCode(), "Пользователь должен быть доступен через любой узел");
+                assertEquals(String.valueOf(node), response.headers().firstValue(ClusterClient.NODE_HEADER)
+                        .orElse(null), "Запрос должен выполняться на узле-владельце");
+                assertEquals(userId, mapper.readTree(response.body()).get("id").asInt());
+
+                response = send(get(other, "/films/" + filmId));
+                assertEquals(200, response.statusCode(), "Фильм должен быть доступен через любой узел");
+            }
+
+            // Запрос от узла, помеченный как уже направленный, не передаётся дальше
+            int other = (node + 1) % NODES;
+            HttpResponse<String> local = send(get(other, "/users/" + userId)
+                    .header(ClusterClient.SECRET_HEADER, SECRET)
+                    .header(ClusterClient.LOCAL_HEADER, "true"));
+            assertEquals(200, local.statusCode(), local.body());
+            assertEquals(String.valueOf(other), local.headers().firstValue(ClusterClient.NODE_HEADER)
+                    .orElse(null), "Запрос от узла должен выполняться там, куда пришёл");
+
+            // Пометку от клиента без секрета узлов маршрутизация не учитывает
+            HttpResponse<String> routed = send(get(other, "/users/" + userId)
+                    .header(ClusterClient.LOCAL_HEADER, "true"));
+            assertEquals(200, routed.statusCode(), routed.body());
+            assertEquals(String.valueOf(node), routed.headers().firstValue(ClusterClient.NODE_HEADER)
+                    .orElse(null), "Запрос клиента должен передаваться узлу-владельцу");
+        }
+
+        assertEquals(404, send(get(0, "/users/999999")).statusCode(), "Несуществующий пользователь — 404");
+    }
+
+    @Test // Внутренние эндпоинты доступны только с секретом узлов
+    void shouldRejectInternalEndpointsWithoutSecret() throws Exception {
+        assertEquals(403, send(get(0, "/cluster/users")).statusCode(), "Без секрета — 403");
+        assertEquals(403, send(get(0, "/cluster/users").header(ClusterClient.SECRET_HEADER, "wrong"))
+                .statusCode(), "С неверным секретом — 403");
+        assertEquals(403, send(delete(0, "/cluster/users")).statusCode(), "Удаление без секрета — 403");
+        assertEquals(200, send(get(0, "/cluster/users").header(ClusterClient.SECRET_HEADER, SECRET))
+                .statusCode(), "С секретом узлов — 200");
+    }
+
+    @Test // Дружба, лайки, популярные фильмы и лента должны учитывать данные всех узлов
+    void shouldCombineDataOfAllNodes() throws Exception {
+        int first = createUser(0);
+        int second = createUser(1);
+        int third = createUser(2);
+        int fourth = createUser(0);
+
+        assertEquals(200, send(put(2, "/users/" + first + "/friends/" + second)).statusCode());
+        assertEquals(200, send(put(0, "/users/" + first + "/friends/" + third)).statusCode());
+        assertEquals(200, send(put(1, "/users/" + second + "/friends/" + third)).statusCode());
+
+        assertEquals(Set.of(first, third), Set.copyOf(ids(send(get(0, "/users/" + second + "/friends")).body())),
+                "Друзья с других узлов должны быть в списке");
+        assertEquals(List.of(third), ids(send(get(2, "/users/" + first + "/friends/common/" + second))
+                .body()), "Общий друг с другого узла должен находиться");
+        assertEquals(List.of(third), ids(send(get(1, "/users/friends/common?ids=" + first + "," + second))
+                .body()), "Общий друг группы с разных узлов должен находиться");
+        assertEquals(404, send(get(1, "/users/friends/common?ids=" + first + ",999999")).statusCode(),
+                "Несуществующий пользователь группы — 404");
+
+        assertEquals(200, send(put(2, "/users/" + fourth + "/friends/" + third)).statusCode());
+        assertEquals(List.of(fourth, third, second), ids(send(get(1, "/users/" + fourth + "/path/" + second))
+                .body()), "Цепочка друзей должна проходить через узлы");
+
+        int liked = createFilm(1, "Два лайка");
+        int lessLiked = createFilm(2, "Один лайк");
+        assertEquals(200, send(put(0, "/films/" + liked + "/like/" + second)).statusCode());
+        assertEquals(200, send(put(0, "/films/" + liked + "/like/" + third)).statusCode());
+        assertEquals(200, send(put(1, "/films/" + lessLiked + "/like/" + third)).statusCode());
+
+        assertEquals(List.of(liked, lessLiked), ids(send(get(1, "/users/" + first + "/feed/popular?amount=10"))
+                .body()), "Лента должна сливать рейтинги узлов");
+
+        List<Integer> popular = ids(send(get(0, "/films/popular?amount=100")).body());
+        assertTrue(popular.indexOf(liked) < popular.indexOf(lessLiked), "Больше лайков — выше в списке");
+
+        // Лайки на другом узле должны сбрасывать кэш популярных фильмов этого узла
+        assertEquals(200, send(put(0, "/films/" + lessLiked + "/like/" + first)).statusCode());
+        assertEquals(200, send(put(0, "/films/" + lessLiked + "/like/" + fourth)).statusCode());
+        popular = ids(send(get(0, "/films/popular?amount=100")).body());
+        assertTrue(popular.indexOf(lessLiked) < popular.indexOf(liked), "Популярные должны учитывать новые лайки");
+
+        // Лайки, принятые только узлом фильма, становятся видны на этом узле не позже устаревания снимка версий
+        assertEquals(200, send(put(1, "/films/" + liked + "/like/" + first)).statusCode());
+        assertEquals(200, send(put(1, "/films/" + liked + "/like/" + fourth)).statusCode());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        do {
+            popular = ids(send(get(0, "/films/popular?amount=100")).body());
+        } while (popular.indexOf(liked) > popular.indexOf(lessLiked) && System.nanoTime() < deadline);
+        assertTrue(popular.indexOf(liked) < popular.indexOf(lessLiked), "Кэш должен учитывать лайки других узлов");
+
+        List<Integer> all = ids(send(get(1, "/users")).body());
+        assertTrue(all.containsAll(List.of(first, second, third, fourth)), "Список должен включать все узлы");
+        assertEquals(all.stream().sorted().toList(), all, "Список должен быть упорядочен по ID");
+    }
+
+    @Test // Обновление по ID из тела, уникальность почты между узлами и удаление с дружбой на других узлах
+    void shouldUpdateCheckUniquenessAndDeleteAcrossNodes() throws Exception {
+        int user = createUser(0);
+        int friend = createUser(1);
+        assertEquals(200, send(put(2, "/users/" + user + "/friends/" + friend)).statusCode());
+
+        int owner = owner(user);
+        int other = (owner + 1) % NODES;
+        String update = "{\"id\":" + user + ",\"email\":\"renamed" + user + "@example.com\",\"login\":\"renamed"
+                + user + "\",\"name\":\"Новое имя\",\"birthday\":\"1990-01-01\"}";
+        HttpResponse<String> updated = send(HttpRequest.newBuilder(uri(other, "/users"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(update)));
+        assertEquals(200, updated.statusCode(), updated.body());
+        assertEquals(String.valueOf(owner), updated.headers().firstValue(ClusterClient.NODE_HEADER).orElse(null),
+                "Обновление должно выполняться на узле-владельце");
+        assertEquals("Новое имя", mapper.readTree(send(get(other, "/users/" + user)).body())
+                .get("name").asText());
+
+        // Почта занята пользователем другого узла
+        String duplicate = "{\"email\":\"renamed" + user + "@example.com\",\"login\":\"dup" + user + "\","
+                + "\"birthday\":\"1990-01-01\"}";
+        assertEquals(400, send(post(other, "/users", duplicate)).statusCode(),
+                "Почта должна быть уникальной во всём кластере");
+
+        assertEquals(200, send(delete(2, "/users/" + friend)).statusCode());
+        assertEquals(List.of(), ids(send(get(0, "/users/" + user + "/friends")).body()),
+                "Удалённый пользователь не должен оставаться в друзьях на другом узле");
+    }
+
+    private static int createUser(int node) throws Exception {
+        int n = sequence.incrementAndGet();
+        String body = "{\"email\":\"cluster" + n + "@example.com\",\"login\":\"cluster" + n + "\","
+                + "\"birthday\":\"1990-01-01\"}";
+        HttpResponse<String> response = send(post(node, "/users", body));
+        assertEquals(200, response.statusCode(), response.body());
+        return mapper.readTree(response.body()).get("id").asInt();
+    }
+
+    private static int createFilm(int node, String name) throws Exception {
+        String body = "{\"name\":\"" + name + "\",\"description\":\"Описание\","
+                + "\"releaseDate\":\"2000-01-01\",\"duration\":100}";
+        HttpResponse<String> response = send(post(node, "/films", body));
+        assertEquals(200, response.statusCode(), response.body());
+        return mapper.readTree(response.body()).get("id").asInt();
+    }
+
+    private static int owner(int id) {
+        return new Partitioner(NODES, 0).owner(id);
+    }
+
+    private static List<Integer> ids(String body) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode node : mapper.readTree(body)) {
+            ids.add(node.get("id").asInt());
+        }
+        return ids;
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder get(int node, String path) {
+        return HttpRequest.newBuilder(uri(node, path)).GET();
+    }
+
+    private static HttpRequest.Builder post(int node, String path, String body) {
+        return HttpRequest.newBuilder(uri(node, path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static HttpRequest.Builder put(int node, String path) {
+        return HttpRequest.newBuilder(uri(node, path)).PUT(HttpRequest.BodyPublishers.noBody());
+    }
+
+    private static HttpRequest.Builder delete(int node, String path) {
+        return HttpRequest.newBuilder(uri(node, path)).DELETE();
+    }
+
+    private static URI uri(int node, String path) {
+        return URI.create("http://localhost:" + ports[node] + path);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilmVersionVectorTest {
+
+    @Test // Узлы опрашиваются раз в ttl, а запись через этот узел требует нового опроса
+    void shouldPollOncePerTtlUnlessInvalidated() {
+        StubClient client = new StubClient(List.of(new NodeVersion(1, 5), new NodeVersion(2, 7)));
+        FilmVersionVector versions = new FilmVersionVector(client, Duration.ofHours(1));
+
+        long generation = versions.generation();
+        assertEquals(generation, versions.generation(), "Без изменений поколение не меняется");
+        assertEquals(1, client.polls.get(), "Внутри ttl узлы не должны опрашиваться повторно");
+
+        client.versions = List.of(new NodeVersion(1, 6), new NodeVersion(2, 7));
+        assertEquals(generation, versions.generation(), "Внутри ttl используется прежний снимок");
+
+        versions.invalidate();
+        assertTrue(versions.generation() > generation, "После записи изменение должно быть видно сразу");
+        assertEquals(2, client.polls.get(), "Запись должна вызывать ровно один новый опрос");
+    }
+
+    @Test // Перезапуск узла с тем же значением счётчика меняет поколение
+    void shouldDetectRestartWithRepeatedCounter() {
+        StubClient client = new StubClient(List.of(new NodeVersion(1, 3), new NodeVersion(2, 4)));
+        FilmVersionVector versions = new FilmVersionVector(client, Duration.ZERO);
+
+        long generation = versions.generation();
+        assertEquals(generation, versions.generation(), "Тот же снимок не должен менять поколение");
+
+        // Сумма счётчиков та же, что и до перезапуска второго узла
+        client.versions = List.of(new NodeVersion(1, 5), new NodeVersion(3, 2));
+        assertTrue(versions.generation() > generation, "Перезапуск узла должен сменить поколение");
+        assertEquals(3, client.polls.get(), "При нулевом ttl каждое чтение опрашивает узлы");
+    }
+
+    // Клиент, отвечающий заданными версиями узлов без обращения по сети
+    private static class StubClient extends ClusterClient {
+        private final AtomicInteger polls = new AtomicInteger();
+        private volatile List<NodeVersion> versions;
+
+        StubClient(List<NodeVersion> versions) {
+            super(List.of("http://localhost:1", "http://localhost:2", "http://localhost:3"), 0,
+                    Duration.ofSeconds(1), "secret", new ObjectMapper());
+            this.versions = versions;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> gather(String method, String path, Object body, TypeReference<T> type) {
+            polls.incrementAndGet();
+            return (List<T>) versions;
+        }
+    }
+}
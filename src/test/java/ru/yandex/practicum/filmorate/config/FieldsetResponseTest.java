@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Параметр fields= в ответах контроллеров: только запрошенные поля и вычисляемые счётчики
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FieldsetResponseTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test // Список фильмов с полями id и likeCount: множество лайков не выводится
+    void shouldReturnRequestedFilmFields() throws Exception {
+        int filmId = create("/films", "{\"name\":\"Чужой\",\"description\":\"Фантастика\","
+                + "\"releaseDate\":\"1979-06-22\",\"duration\":116}");
+        int userId = create("/users", user("fieldset-liker"));
+        mockMvc.perform(put("/films/" + filmId + "/like/" + userId)).andExpect(status().isOk());
+
+        JsonNode films = read(mockMvc.perform(get("/films").param("fields", "id,likeCount"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        JsonNode film = find(films, filmId);
+        assertEquals(Set.of("id", "likeCount"), names(film), "Должны остаться только запрошенные поля");
+        assertEquals(1, film.get("likeCount").asInt(), "Неверное количество лайков");
+    }
+
+    @Test // Друзья пользователя с полями id, login и friendCount: множество друзей не выводится
+    void shouldReturnRequestedFriendFields() throws Exception {
+        int userId = create("/users", user("fieldset-user"));
+        int friendId = create("/users", user("fieldset-friend"));
+        mockMvc.perform(put("/users/" + userId + "/friends/" + friendId)).andExpect(status().isOk());
+
+        JsonNode friends = read(mockMvc.perform(get("/users/" + userId + "/friends")
+                        .param("fields", "id,login,friendCount"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        assertEquals(1, friends.size(), "Ожидался один друг");
+        JsonNode friend = friends.get(0);
+        assertEquals(Set.of("id", "login", "friendCount"), names(friend), "Должны остаться только запрошенные поля");
+        assertEquals(friendId, friend.get("id").asInt(), "Неверный ID друга");
+        assertEquals(1, friend.get("friendCount").asInt(), "Неверное количество друзей");
+    }
+
+    private int create(String path, String body) throws Exception {
+        return read(mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn()).get("id").asInt();
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return mapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static JsonNode find(JsonNode items, int id) {
+        for (JsonNode item : items) {
+            if (item.get("id").asInt() == id) {
+                return item;
+            }
+        }
+        throw new AssertionError("Элемент с ID " + id + " не найден");
+    }
+
+    private static Set<String> names(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static String user(String login) {
+        return "{\"email\":\"" + login + "@example.com\",\"login\":\"" + login + "\",\"birthday\":\"1990-01-01\"}";
+    }
+}
@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldsetSerializationTest {
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .addMixIn(Film.class, FieldsetConfig.FieldsetMixin.class)
+            .addMixIn(User.class, FieldsetConfig.FieldsetMixin.class)
+            .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+    @Test // Проверка сериализации фильма целиком при отсутствии параметра fields=
+    void shouldSerializeAllFieldsWithoutFilter() throws Exception {
+        Film film = Film.builder()
+                .id(1)
+                .name("Чужой")
+                .description("Фантастика, Ужасы")
+                .releaseDate(LocalDate.of(1979, 6, 22))
+                .duration(116)
+                .likes(Set.of(1, 2, 3))
+                .build();
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(film));
+
+        assertEquals(3, json.get("likes").size(), "Лайки должны сериализоваться");
+        assertEquals(3, json.get("likeCount").asInt(), "Неверное количество лайков");
+    }
+
+    @Test // Проверка исключения множества друзей при запросе отдельных полей
+    void shouldSkipExcludedFields() throws Exception {
+        User user = User.builder()
+                .id(1)
+                .email("abc@gmail.com")
+                .login("Admin")
+                .birthday(LocalDate.of(1997, 8, 14))
+                .friends(Set.of(2, 3))
+                .build();
+
+        String json = mapper.writer(new SimpleFilterProvider()
+                        .addFilter(FieldsetConfig.FILTER_ID,
+                                SimpleBeanPropertyFilter.filterOutAllExcept("id", "login", "friendCount")))
+                .writeValueAsString(user);
+        JsonNode node = mapper.readTree(json);
+
+        assertEquals(3, node.size(), "Должны остаться только запрошенные поля");
+        assertEquals(2, node.get("friendCount").asInt(), "Неверное количество друзей");
+        assertFalse(node.has("friends"), "Множество друзей не должно сериализоваться");
+    }
+}
@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Выбор формата ответа контроллеров по заголовку Accept и чтение тела запроса по Content-Type
+@SpringBootTest
+@AutoConfigureMockMvc
+public class WireFormatNegotiationTest {
+    private static final MediaType CBOR = MediaType.parseMediaType(WireFormatConfig.APPLICATION_CBOR_VALUE);
+    private static final MediaType SMILE = MediaType.parseMediaType(WireFormatConfig.APPLICATION_SMILE_VALUE);
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new CBORMapper();
+    private final ObjectMapper smile = new SmileMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private int filmId;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        MvcResult result = mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Чужой\",\"description\":\"Фантастика\","
+                                + "\"releaseDate\":\"1979-06-22\",\"duration\":116}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        filmId = json.readTree(result.getResponse().getContentAsByteArray()).get("id").asInt();
+    }
+
+    @Test // Фильм в CBOR: Content-Type ответа совпадает с Accept, тело декодируется
+    void shouldReturnCborWhenAccepted() throws Exception {
+        JsonNode film = decode(cbor, mockMvc.perform(get("/films/" + filmId).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn());
+
+        assertEquals(filmId, film.get("id").asInt(), "Неверный ID фильма");
+        assertEquals("Чужой", film.get("name").asText(), "Неверное название фильма");
+    }
+
+    @Test // Популярные фильмы в Smile минуют кэш готового JSON, но так же варьируются по Accept
+    void shouldReturnSmileWhenAccepted() throws Exception {
+        JsonNode films = decode(smile, mockMvc.perform(get("/films/popular").param("amount", "100").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn());
+
+        assertTrue(films.isArray(), "Ожидался список фильмов");
+        assertTrue(films.findValuesAsText("name").contains("Чужой"), "Фильм должен быть в списке популярных");
+    }
+
+    @Test // Тело запроса в Smile читается по Content-Type, JSON остаётся форматом по умолчанию
+    void shouldReadSmileBodyAndDefaultToJson() throws Exception {
+        byte[] body = smile.writeValueAsBytes(json.readTree("{\"name\":\"Солярис\",\"description\":\"Драма\","
+                + "\"releaseDate\":\"1972-03-20\",\"duration\":167}"));
+
+        JsonNode film = decode(json, mockMvc.perform(post("/films").contentType(SMILE).content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn());
+
+        assertEquals("Солярис", film.get("name").asText(), "Неверное название фильма");
+    }
+
+    private static JsonNode decode(ObjectMapper mapper, MvcResult result) throws Exception {
+        return mapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -8,24 +9,36 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.service.FeedServiceImpl;
+import ru.yandex.practicum.filmorate.service.FilmService;
 import ru.yandex.practicum.filmorate.service.FilmServiceImpl;
+import ru.yandex.practicum.filmorate.service.PopularFilmsCache;
 import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
 import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
 
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FilmControllerTest {
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final InMemoryUserStorage userStorage = new InMemoryUserStorage();
+    private final FilmService filmService = new FilmServiceImpl(
+            filmStorage,
+            userStorage,
+            new FeedServiceImpl(userStorage, filmStorage)
+    );
     private final FilmController filmController = new FilmController(
-            new FilmServiceImpl(
-                    new InMemoryFilmStorage(),
-                    new InMemoryUserStorage()
-            )
+            filmService,
+            new PopularFilmsCache(filmService, new ObjectMapper().findAndRegisterModules())
     );
     private Film film;
     private Film anotherFilm;
@@ -276,7 +289,7 @@ public class FilmControllerTest {
                 .duration(137)
                 .build();
 
-        Film updatedFilm = filmController.updateFilm(anotherFilm);
+        Film updatedFilm = filmController.updateFilm(anotherFilm, null);
         assertEquals(anotherFilm, updatedFilm, "Фильм не обновился");
     }
 
@@ -293,7 +306,7 @@ public class FilmControllerTest {
                 .duration(137)
                 .build();
 
-        Film updatedFilm = filmController.updateFilm(anotherFilm);
+        Film updatedFilm = filmController.updateFilm(anotherFilm, null);
         assertEquals(anotherFilm, updatedFilm, "Фильм не обновился");
     }
 
@@ -312,10 +325,83 @@ public class FilmControllerTest {
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
-                () -> filmController.updateFilm(anotherFilm),
+                () -> filmController.updateFilm(anotherFilm, null),
                 "Исключение при попытке обновить несуществующий фильм"
         );
 
         assertEquals("Фильм с id = " + anotherFilm.getId() + "не найден.", exception.getMessage());
     }
+
+    @Test
+        // Проверка отказа в обновлении фильма по устаревшей версии из заголовка If-Match
+    void shouldNotUpdateFilmWithStaleVersion() {
+        filmController.addFilm(film);
+
+        anotherFilm = Film.builder()
+                .id(film.getId())
+                .name("Чужой 2")
+                .description("Фантастика, Ужасы")
+                .releaseDate(LocalDate.of(1994, 3, 25))
+                .duration(137)
+                .build();
+
+        assertEquals(1, filmController.updateFilm(anotherFilm, "\"0\"").getVersion(),
+                "Версия должна увеличиться после обновления");
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> filmController.updateFilm(anotherFilm, "\"0\""),
+                "Исключение при обновлении по устаревшей версии"
+        );
+        assertEquals("Чужой 2", filmController.getFilm(film.getId()).getName(), "Фильм должен остаться прежним");
+    }
+
+    @Test
+        // Проверка выбрасывания исключения без стек-трейса при попытке лайка от несуществующего пользователя
+    void shouldNotAddLikeFromNonExistentUser() {
+        filmController.addFilm(film);
+
+        NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> filmController.addLike(film.getId(), 42),
+                "Исключение при попытке поставить лайк от несуществующего пользователя"
+        );
+
+        assertEquals("Пользователь с таким ID не найден", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length, "Исключение не должно заполнять стек-трейс");
+    }
+
+    @Test
+        // Проверка фильтрации популярных фильмов по жанру и году выхода
+    void shouldGetTopByGenreAndYear() {
+        film.setGenres(List.of(new Genre(2, null), new Genre(1, null)));
+        filmController.addFilm(film);
+
+        anotherFilm = Film.builder()
+                .name("Чужой 2")
+                .description("Фантастика, Ужасы")
+                .releaseDate(LocalDate.of(1986, 7, 18))
+                .duration(137)
+                .mpa(new Mpa(4, null))
+                .build();
+        anotherFilm.setGenres(List.of(new Genre(4, null)));
+        filmController.addFilm(anotherFilm);
+
+        assertEquals(List.of(new Genre(1, "Комедия"), new Genre(2, "Драма")), film.getGenres(),
+                "Жанры должны возвращаться по возрастанию ID с названиями");
+        assertEquals("R", anotherFilm.getMpa().getName(), "Рейтинг должен заполняться из справочника");
+        assertEquals(List.of(film), filmService.getTop(10, 2, null), "Неверный топ по жанру");
+        assertEquals(List.of(anotherFilm), filmService.getTop(10, null, 1986), "Неверный топ по году");
+        assertTrue(filmService.getTop(10, 4, 1979).isEmpty(), "Топ по жанру и году должен быть пуст");
+        assertEquals(List.of(film), filmService.getTop(10, 1, 1979), "Неверный топ по жанру и году");
+        assertTrue(filmService.getTop(10, 1, 2050).isEmpty(), "Фильмов этого года нет — топ должен быть пуст");
+    }
+
+    @Test
+        // Проверка выбрасывания исключения при добавлении фильма с несуществующим жанром
+    void shouldNotAddFilmWithUnknownGenre() {
+        film.setGenres(List.of(new Genre(999, null)));
+
+        assertThrows(NotFoundException.class, () -> filmController.addFilm(film),
+                "Исключение при попытке добавить фильм с несуществующим жанром");
+    }
 }
@@ -8,19 +8,29 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.PreconditionFailedException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FeedServiceImpl;
 import ru.yandex.practicum.filmorate.service.UserServiceImpl;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
 import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class UserControllerTest {
-    private final UserController userController = new UserController(new UserServiceImpl(new InMemoryUserStorage()));
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final InMemoryUserStorage userStorage = new InMemoryUserStorage();
+    private final UserController userController = new UserController(
+            new UserServiceImpl(userStorage, filmStorage, new FeedServiceImpl(userStorage, filmStorage))
+    );
     private User user;
     private User anotherUser;
 
@@ -223,7 +233,7 @@ public class UserControllerTest {
                 .birthday(LocalDate.of(1997, 8, 14))
                 .build();
 
-        User updatedUser = userController.updateUser(anotherUser);
+        User updatedUser = userController.updateUser(anotherUser, null);
 
         assertEquals(1, userController.getUsers().size(), "Пользователь не добавлен");
         assertEquals(user, updatedUser, "Пользователь не обновлен");
@@ -245,7 +255,7 @@ public class UserControllerTest {
                 .birthday(LocalDate.of(1997, 8, 14))
                 .build();
 
-        User updatedUser = userController.updateUser(anotherUser);
+        User updatedUser = userController.updateUser(anotherUser, null);
 
         assertEquals(1, userController.getUsers().size(), "Пользователь не добавлен");
         assertEquals(user, updatedUser, "Пользователь не обновлен");
@@ -270,7 +280,7 @@ public class UserControllerTest {
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
-                () -> userController.updateUser(anotherUser),
+                () -> userController.updateUser(anotherUser, null),
                 "Исключение при попытке обновить несуществующего пользователя"
         );
         assertEquals("Пользователь с id = " + anotherUser.getId() + " не найден.", exception.getMessage());
@@ -300,9 +310,172 @@ public class UserControllerTest {
 
         ValidationException exception = assertThrows(
                 ValidationException.class,
-                () -> userController.updateUser(anotherUser),
+                () -> userController.updateUser(anotherUser, null),
                 "Исключение при попытке обновить пользователя с использованной электронной почтой"
         );
         assertEquals("Эта электронная почта уже используется.", exception.getMessage());
     }
+
+    @Test // Проверка увеличения версии и отказа в обновлении по устаревшему If-Match
+    void shouldRejectUpdateWithStaleVersion() {
+        userController.addUser(user);
+
+        anotherUser = User.builder()
+                .id(user.getId())
+                .email("abcde@gmail.com")
+                .login("Mod")
+                .name("James")
+                .birthday(LocalDate.of(1997, 8, 14))
+                .build();
+
+        User updatedUser = userController.updateUser(anotherUser, "\"0\"");
+        assertEquals(1, updatedUser.getVersion(), "Версия должна увеличиться после обновления");
+
+        PreconditionFailedException exception = assertThrows(
+                PreconditionFailedException.class,
+                () -> userController.updateUser(anotherUser, "\"0\""),
+                "Исключение при обновлении по устаревшей версии"
+        );
+        assertEquals("Пользователь с id = " + user.getId() + " был изменён: текущая версия 1.",
+                exception.getMessage());
+        assertThrows(PreconditionFailedException.class, () -> userController.updateUser(anotherUser, "W/\"1\""),
+                "Слабый тег не должен совпадать при строгом сравнении");
+        assertEquals(2, userController.updateUser(anotherUser, "\"1\"").getVersion(),
+                "Обновление по актуальной версии должно пройти");
+    }
+
+    @Test // Проверка уникальности электронной почты и логина при добавлении пользователя
+    void shouldNotAddUserWithUsedEmailOrLogin() {
+        userController.addUser(user);
+
+        anotherUser = User.builder()
+                .email(user.getEmail())
+                .login("Moderator")
+                .birthday(LocalDate.of(2001, 5, 8))
+                .build();
+        ValidationException emailException = assertThrows(
+                ValidationException.class,
+                () -> userController.addUser(anotherUser),
+                "Исключение при добавлении пользователя с используемой электронной почтой"
+        );
+        assertEquals("Эта электронная почта уже используется.", emailException.getMessage());
+
+        anotherUser.setEmail("mod@gmail.com");
+        anotherUser.setLogin(user.getLogin());
+        ValidationException loginException = assertThrows(
+                ValidationException.class,
+                () -> userController.addUser(anotherUser),
+                "Исключение при добавлении пользователя с используемым логином"
+        );
+        assertEquals("Этот логин уже используется.", loginException.getMessage());
+
+        anotherUser.setLogin("Moderator");
+        userController.addUser(anotherUser);
+        assertEquals(2, userController.getUsers().size(), "Электронная почта после отказа не должна оставаться занятой");
+    }
+
+    @Test // Адреса электронной почты сравниваются точно: различие в регистре — другой адрес
+    void shouldCompareEmailsExactly() {
+        userController.addUser(user);
+
+        anotherUser = User.builder()
+                .email("ABC@gmail.com")
+                .login("Moderator")
+                .birthday(LocalDate.of(2001, 5, 8))
+                .build();
+        userController.addUser(anotherUser);
+
+        assertEquals(user.getId(), userController.getUserByEmail("abc@gmail.com").getId());
+        assertEquals(anotherUser.getId(), userController.getUserByEmail("ABC@gmail.com").getId());
+        assertThrows(NotFoundException.class, () -> userController.getUserByEmail("Abc@gmail.com"),
+                "Поиск по электронной почте должен учитывать регистр");
+    }
+
+    @Test // Проверка поиска пользователя по электронной почте и логину после обновления и удаления
+    void shouldFindUserByEmailAndLogin() {
+        userController.addUser(user);
+
+        anotherUser = User.builder()
+                .id(user.getId())
+                .email("new@gmail.com")
+                .login("NewAdmin")
+                .birthday(LocalDate.of(1997, 8, 14))
+                .build();
+        userController.updateUser(anotherUser, null);
+
+        assertEquals(user.getId(), userController.getUserByEmail("new@gmail.com").getId());
+        assertEquals(user.getId(), userController.getUserByLogin("NewAdmin").getId());
+        assertThrows(NotFoundException.class, () -> userController.getUserByEmail("abc@gmail.com"),
+                "Прежняя электронная почта должна освобождаться при обновлении");
+        assertThrows(NotFoundException.class, () -> userController.getUserByLogin("Admin"),
+                "Прежний логин должен освобождаться при обновлении");
+
+        userController.deleteUser(user.getId());
+        assertThrows(NotFoundException.class, () -> userController.getUserByEmail("new@gmail.com"),
+                "Электронная почта должна освобождаться при удалении");
+    }
+
+    @Test // Проверка получения пользователей по списку ID с отсутствующими ID
+    void shouldGetUsersByIdsAndReportMissing() {
+        userController.addUser(user);
+
+        BatchResult<User> result = userController.getUsersByIds(List.of(user.getId(), 42, user.getId()));
+
+        assertEquals(List.of(user), result.getFound(), "Должен быть найден один пользователь");
+        assertEquals(List.of(42), result.getMissingIds(), "Отсутствующий ID должен быть указан");
+    }
+
+    @Test // Проверка удаления лайков и дружб вместе с пользователем
+    void shouldCascadeLikesAndFriendsOnDelete() {
+        anotherUser = User.builder()
+                .email("mod@gmail.com")
+                .login("Moderator")
+                .birthday(LocalDate.of(2001, 5, 8))
+                .build();
+        userController.addUser(user);
+        userController.addUser(anotherUser);
+        userController.addFriend(user.getId(), anotherUser.getId());
+
+        Film film = filmStorage.createFilm(Film.builder()
+                .name("Чужой")
+                .description("Фантастика, Ужасы")
+                .releaseDate(LocalDate.of(1979, 6, 22))
+                .duration(116)
+                .build());
+        filmStorage.addLike(film.getId(), user.getId());
+
+        assertEquals(List.of(film), userController.getLikedFilms(user.getId()), "Фильм должен быть в списке лайков");
+
+        userController.deleteUser(user.getId());
+
+        assertTrue(film.getLikes().isEmpty(), "Лайк удалённого пользователя должен быть удалён");
+        assertTrue(userController.getFriends(anotherUser.getId()).isEmpty(),
+                "Удалённый пользователь должен исчезнуть из списка друзей");
+        assertTrue(filmStorage.getLikedFilms(user.getId()).isEmpty(), "Обратный индекс должен быть очищен");
+    }
+
+    @Test // Проверка удаления лайков при удалении всех пользователей: новый пользователь с тем же ID их не наследует
+    void shouldDeleteLikesWithAllUsers() {
+        userController.addUser(user);
+        Film film = filmStorage.createFilm(Film.builder()
+                .name("Чужой")
+                .description("Фантастика, Ужасы")
+                .releaseDate(LocalDate.of(1979, 6, 22))
+                .duration(116)
+                .build());
+        filmStorage.addLike(film.getId(), user.getId());
+
+        userController.deleteUsers();
+        User newcomer = userController.addUser(User.builder()
+                .email("new@gmail.com")
+                .login("Newcomer")
+                .birthday(LocalDate.of(2001, 5, 8))
+                .build());
+
+        assertEquals(user.getId(), newcomer.getId(), "ID пользователей должны начаться заново");
+        assertTrue(userController.getLikedFilms(newcomer.getId()).isEmpty(),
+                "Новый пользователь не должен унаследовать лайки");
+        assertTrue(film.getLikes().isEmpty(), "Лайки удалённых пользователей должны быть удалены");
+        assertEquals(0, filmStorage.getStats().likes(), "Статистика лайков должна обнулиться");
+    }
 }
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Заголовок ETag в ответах и его использование в If-Match
+@SpringBootTest
+@AutoConfigureMockMvc
+public class VersionETagTest {
+    private static final String FILM = "{\"name\":\"Чужой\",\"description\":\"Фантастика\","
+            + "\"releaseDate\":\"1979-06-22\",\"duration\":116";
+    private static final String USER = "{\"email\":\"etag@example.com\",\"login\":\"etag\","
+            + "\"birthday\":\"1990-01-01\"";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test // ETag из ответа на GET принимается в If-Match, ответ на PUT несёт новую версию
+    void shouldSendFilmVersionAsETag() throws Exception {
+        int id = create("/films", FILM + "}");
+
+        String etag = mockMvc.perform(get("/films/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/films").header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(FILM + ",\"id\":" + id + "}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test // Слабый тег не совпадает с версией пользователя
+    void shouldRejectWeakUserETag() throws Exception {
+        int id = create("/users", USER + "}");
+
+        mockMvc.perform(get("/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(put("/users").header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USER + ",\"id\":" + id + "}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/users").header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USER + ",\"id\":" + id + "}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    private int create(String path, String body) throws Exception {
+        return mapper.readTree(mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray()).get("id").asInt();
+    }
+}
@@ -0,0 +1,106 @@
+package ru.yandex.practicum.filmorate.dataset;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.bulk.BulkService;
+import ru.yandex.practicum.filmorate.bulk.ImportReport;
+import ru.yandex.practicum.filmorate.model.FilmStats;
+import ru.yandex.practicum.filmorate.model.UserStats;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetGeneratorTest {
+    // Настройки совпадают с настройками Jackson в Spring Boot
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final DatasetSpec spec = DatasetSpec.builder()
+            .users(2_000)
+            .films(300)
+            .maxFriends(300)
+            .batchSize(500)
+            .build();
+
+    @Test // Одинаковый seed должен давать побайтно одинаковый набор данных, другой seed — другой
+    void shouldGenerateSameDatasetForSameSeed() throws IOException {
+        byte[] first = ndjson(spec);
+
+        assertArrayEquals(first, ndjson(spec), "Набор данных должен зависеть только от параметров");
+        assertFalse(Arrays.equals(first, ndjson(spec.toBuilder().seed(7).build())),
+                "Другой seed должен давать другой набор данных");
+    }
+
+    @Test // Хранилища должны принимать все сгенерированные записи, степени друзей — иметь тяжёлый хвост
+    void shouldPopulateStorages() {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+
+        DatasetSummary summary = new DatasetGenerator(spec).populate(userStorage, filmStorage);
+        UserStats userStats = userStorage.getStats();
+        FilmStats filmStats = filmStorage.getStats();
+
+        assertEquals(2_000, summary.users());
+        assertEquals(300, summary.films());
+        assertEquals(summary.users(), userStats.users());
+        assertEquals(summary.friendships(), userStats.friendships(), "Дружба не должна повторяться");
+        assertEquals(summary.films(), filmStats.films());
+        assertEquals(summary.likes(), filmStats.likes(), "Лайки не должны повторяться");
+        assertTrue(summary.friendships() > 0 && summary.likes() > 0, "Связи должны генерироваться");
+
+        int maxDegree = userStats.friendCountDistribution().lastKey();
+        long lowDegreeUsers = userStats.friendCountDistribution().headMap(3).values().stream()
+                .mapToLong(Long::longValue).sum();
+        assertTrue(maxDegree > 30, "У самых популярных пользователей должно быть много друзей: " + maxDegree);
+        assertTrue(lowDegreeUsers > summary.users() / 2, "У большинства пользователей должно быть мало друзей");
+
+        assertThrows(IllegalStateException.class, () -> new DatasetGenerator(spec).populate(userStorage, filmStorage),
+                "Набор данных не должен загружаться поверх существующих данных");
+    }
+
+    @Test // NDJSON генератора должен загружаться через /bulk/import без отклонённых записей
+    void shouldWriteImportableNdjson() throws IOException {
+        DatasetSummary summary;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NdjsonDatasetSink sink = new NdjsonDatasetSink(out, mapper)) {
+            summary = new DatasetGenerator(spec).generate(sink);
+        }
+
+        ImportReport report = new BulkService(new InMemoryUserStorage(), new InMemoryFilmStorage(), mapper,
+                Validation.buildDefaultValidatorFactory().getValidator())
+                .importRecords(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(0, report.rejected(), "Сгенерированные записи не должны отклоняться: " + report.errors());
+        assertEquals(summary.users(), report.users());
+        assertEquals(summary.films(), report.films());
+        assertEquals(summary.friendships(), report.friendships());
+        assertEquals(summary.likes(), report.likes());
+    }
+
+    @Test // Некорректные параметры должны отклоняться до генерации
+    void shouldRejectInvalidSpec() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DatasetGenerator(spec.toBuilder().friendExponent(1).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DatasetGenerator(spec.toBuilder().minLikes(10).maxLikes(5).build()));
+    }
+
+    private byte[] ndjson(DatasetSpec spec) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NdjsonDatasetSink sink = new NdjsonDatasetSink(out, mapper)) {
+            new DatasetGenerator(spec).generate(sink);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FeedServiceImpl;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FilmServiceImpl;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.service.UserServiceImpl;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrRecordingServiceTest {
+    private final JfrRecordingService recordingService = new JfrRecordingService();
+    private final InMemoryUserStorage userStorage = new InMemoryUserStorage();
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final FeedService feedService = new FeedServiceImpl(userStorage, filmStorage);
+    private final UserService userService = new UserServiceImpl(userStorage, filmStorage, feedService);
+    private final FilmService filmService = new FilmServiceImpl(filmStorage, userStorage, feedService);
+
+    @AfterEach
+    void afterEach() {
+        try {
+            recordingService.stop();
+        } catch (NotFoundException ignored) {
+            // Запись уже остановлена тестом
+        }
+    }
+
+    @Test // События предметной области должны попадать в запись вместе с размерами данных
+    void shouldRecordDomainEvents() throws Exception {
+        User first = userService.add(user("first"));
+        User second = userService.add(user("second"));
+        User third = userService.add(user("third"));
+        Film film = filmService.create(Film.builder()
+                .name("Чужой")
+                .description("Фантастика")
+                .releaseDate(LocalDate.of(1979, 5, 25))
+                .duration(117)
+                .build());
+
+        recordingService.start(60, 16);
+        userService.addFriend(first.getId(), third.getId());
+        userService.addFriend(second.getId(), third.getId());
+        assertEquals(1, userService.getMutualFriends(first.getId(), second.getId()).size());
+        filmService.addLike(film.getId(), first.getId());
+        assertEquals(List.of(film), filmService.getTop(10));
+        List<RecordedEvent> events = read(recordingService.stop());
+
+        RecordedEvent mutual = single(events, "ru.yandex.practicum.filmorate.GetMutualFriends");
+        assertEquals(1, mutual.getInt("userFriendCount"), "Размер множества друзей первого пользователя");
+        assertEquals(1, mutual.getInt("otherFriendCount"), "Размер множества друзей второго пользователя");
+        assertEquals(1, mutual.getInt("resultSize"), "Количество общих друзей");
+
+        RecordedEvent like = single(events, "ru.yandex.practicum.filmorate.Like");
+        assertTrue(like.getBoolean("add") && like.getBoolean("changed"), "Лайк должен быть добавлен");
+        assertEquals(1, like.getInt("likeCount"), "Количество лайков после добавления");
+
+        assertEquals(1, single(events, "ru.yandex.practicum.filmorate.GetTop").getInt("resultSize"));
+        assertEquals(2, events.stream()
+                .filter(event -> event.getEventType().getName().equals("ru.yandex.practicum.filmorate.AddFriend"))
+                .count(), "Должно быть записано два добавления в друзья");
+        assertTrue(events.stream()
+                .anyMatch(event -> event.getEventType().getName().equals("ru.yandex.practicum.filmorate.StorageLookup")
+                        && "user".equals(event.getString("entity"))), "Поиск пользователей должен записываться");
+    }
+
+    @Test // Одновременно может идти только одна запись, а её параметры ограничены
+    void shouldRejectConcurrentOrUnboundedRecording() {
+        assertThrows(ValidationException.class, () -> recordingService.start(0, 16));
+        assertThrows(ValidationException.class, () -> recordingService.start(60, JfrRecordingService.MAX_SIZE_MB + 1));
+        assertThrows(NotFoundException.class, recordingService::status, "Без записи состояние недоступно");
+
+        assertEquals("RUNNING", recordingService.start(60, 16).state());
+        assertThrows(ValidationException.class, () -> recordingService.start(60, 16));
+    }
+
+    private static List<RecordedEvent> read(byte[] recording) throws Exception {
+        Path file = Files.createTempFile("filmorate-test-", ".jfr");
+        try {
+            Files.write(file, recording);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), "Ожидалось одно событие " + name);
+        return matching.get(0);
+    }
+
+    private static User user(String login) {
+        return User.builder()
+                .email(login + "@mail.ru")
+                .login(login)
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
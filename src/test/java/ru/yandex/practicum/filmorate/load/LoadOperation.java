@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.load;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Операции нагрузочного прогона и их веса по умолчанию
+enum LoadOperation {
+    GET_FILMS("getFilms", 2),
+    GET_FILM("getFilm", 25),
+    ADD_FILM("addFilm", 3),
+    UPDATE_FILM("updateFilm", 3),
+    ADD_LIKE("addLike", 10),
+    DELETE_LIKE("deleteLike", 5),
+    GET_TOP("getTop", 20),
+    GET_USER("getUser", 15),
+    GET_FRIENDS("getFriends", 10),
+    GET_MUTUAL_FRIENDS("getMutualFriends", 7);
+
+    private final String name;
+    private final int defaultWeight;
+
+    LoadOperation(String name, int defaultWeight) {
+        this.name = name;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    static LoadOperation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестная операция: " + name));
+    }
+
+    // Тело запроса для операций, изменяющих фильмы
+    static String filmJson(Integer id, RandomGenerator random) {
+        return "{"
+                + (id == null ? "" : "\"id\":" + id + ",")
+                + "\"name\":\"Нагрузочный фильм\","
+                + "\"description\":\"Фильм, созданный нагрузочным тестом\","
+                + "\"releaseDate\":\"" + (1950 + random.nextInt(70)) + "-01-01\","
+                + "\"duration\":" + (60 + random.nextInt(120))
+                + "}";
+    }
+}
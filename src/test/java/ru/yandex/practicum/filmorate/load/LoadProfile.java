@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Параметры нагрузочного прогона, задаются системными свойствами load.*
+record LoadProfile(
+        int ratePerSecond,
+        Duration duration,
+        Duration warmup,
+        int users,
+        int films,
+        int friendsPerUser,
+        int likesPerUser,
+        long seed,
+        Map<LoadOperation, Integer> mix,
+        Path reportPath
+) {
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("load.rate", 200),
+                Duration.ofSeconds(Integer.getInteger("load.duration", 20)),
+                Duration.ofSeconds(Integer.getInteger("load.warmup", 5)),
+                Integer.getInteger("load.users", 1_000),
+                Integer.getInteger("load.films", 500),
+                Integer.getInteger("load.friendsPerUser", 10),
+                Integer.getInteger("load.likesPerUser", 5),
+                Long.getLong("load.seed", 42L),
+                parseMix(System.getProperty("load.mix", "")),
+                Path.of(System.getProperty("load.report", "target/load-report.json"))
+        );
+    }
+
+    // Формат смеси: getFilm=30,getTop=20,... Операции без веса получают вес по умолчанию
+    static Map<LoadOperation, Integer> parseMix(String value) {
+        Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            mix.put(operation, operation.getDefaultWeight());
+        }
+
+        if (value.isBlank()) {
+            return mix;
+        }
+
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Некорректный элемент смеси: " + part);
+            }
+            mix.put(LoadOperation.fromName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+
+        return mix;
+    }
+}
@@ -0,0 +1,293 @@
+package ru.yandex.practicum.filmorate.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочный прогон по открытой модели: запросы отправляются с заданной частотой
+ * независимо от времени ответа, задержка отсчитывается от запланированного момента отправки.
+ * Запуск: mvn test -Pload-test [-Dload.rate=500 -Dload.duration=60 -Dload.mix=getFilm=50,getTop=50]
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.org.zalando.logbook=INFO"
+)
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+public class LoadTest {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final List<Integer> userIds = new ArrayList<>();
+    private final List<Integer> filmIds = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Test // Прогон смеси операций с фиксированной частотой и запись отчёта
+    void shouldRunOpenLoopLoad() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        SplittableRandom random = new SplittableRandom(profile.seed());
+
+        seed(profile, random);
+
+        // Прогрев без записи результатов
+        run(profile, profile.warmup(), random);
+        RunResult result = run(profile, profile.duration(), random);
+
+        Files.createDirectories(profile.reportPath().toAbsolutePath().getParent());
+        mapper.writeValue(profile.reportPath().toFile(), report(profile, result));
+        System.out.println("Отчёт нагрузочного прогона: " + profile.reportPath().toAbsolutePath());
+
+        assertTrue(result.sent() > 0, "Не отправлено ни одного запроса");
+        assertEquals(0, result.stats().values().stream().mapToLong(s -> s.errors.sum()).sum(),
+                "Сервер не должен отвечать ошибками 5xx");
+    }
+
+    // Заполнение приложения данными через API
+    private void seed(LoadProfile profile, SplittableRandom random) throws IOException, InterruptedException {
+        for (int i = 0; i < profile.users(); i++) {
+            String body = "{\"email\":\"load" + i + "@example.com\",\"login\":\"load" + i + "\","
+                    + "\"name\":\"Load " + i + "\",\"birthday\":\"1990-01-01\"}";
+            userIds.add(createdId(send(post("/users", body))));
+        }
+
+        for (int i = 0; i < profile.films(); i++) {
+            filmIds.add(createdId(send(post("/films", LoadOperation.filmJson(null, random)))));
+        }
+
+        for (int userId : userIds) {
+            for (int i = 0; i < profile.friendsPerUser(); i++) {
+                int friendId = pick(userIds, random);
+                if (friendId != userId) {
+                    send(put("/users/" + userId + "/friends/" + friendId));
+                }
+            }
+
+            for (int i = 0; i < profile.likesPerUser(); i++) {
+                send(put("/films/" + pick(filmIds, random) + "/like/" + userId));
+            }
+        }
+    }
+
+    // Отправка запросов с постоянной частотой в течение заданного времени
+    private RunResult run(LoadProfile profile, Duration duration, SplittableRandom random)
+            throws InterruptedException {
+        Map<LoadOperation, OperationStats> stats = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        LoadOperation[] operations = LoadOperation.values();
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += profile.mix().getOrDefault(operations[i], 0);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        AtomicLong pending = new AtomicLong();
+        long sent = 0;
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            int ticket = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= ticket) {
+                index++;
+            }
+
+            LoadOperation operation = operations[index];
+            OperationStats operationStats = stats.get(operation);
+            long scheduledAt = intended;
+
+            pending.incrementAndGet();
+            sent++;
+            client.sendAsync(request(operation, random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        operationStats.record(System.nanoTime() - scheduledAt,
+                                error != null ? 599 : response.statusCode());
+                        pending.decrementAndGet();
+                    });
+        }
+
+        // Ожидание ответов на уже отправленные запросы
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (pending.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        return new RunResult(sent, System.nanoTime() - start, stats);
+    }
+
+    private HttpRequest request(LoadOperation operation, SplittableRandom random) {
+        int userId = pick(userIds, random);
+        int filmId = pick(filmIds, random);
+
+        return switch (operation) {
+            case GET_FILMS -> get("/films");
+            case GET_FILM -> get("/films/" + filmId);
+            case ADD_FILM -> post("/films", LoadOperation.filmJson(null, random));
+            case UPDATE_FILM -> HttpRequest.newBuilder(uri("/films"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(LoadOperation.filmJson(filmId, random)))
+                    .build();
+            case ADD_LIKE -> put("/films/" + filmId + "/like/" + userId);
+            case DELETE_LIKE -> HttpRequest.newBuilder(uri("/films/" + filmId + "/like/" + userId))
+                    .DELETE()
+                    .build();
+            case GET_TOP -> get("/films/popular?amount=10");
+            case GET_USER -> get("/users/" + userId);
+            case GET_FRIENDS -> get("/users/" + userId + "/friends");
+            case GET_MUTUAL_FRIENDS -> get("/users/" + userId + "/friends/common/" + pick(userIds, random));
+        };
+    }
+
+    private Map<String, Object> report(LoadProfile profile, RunResult result) {
+        double seconds = result.elapsedNanos() / 1e9;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long completed = 0;
+
+        for (Map.Entry<LoadOperation, OperationStats> entry : result.stats().entrySet()) {
+            OperationStats stats = entry.getValue();
+            Histogram histogram = stats.latencyMicros;
+            completed += histogram.getTotalCount();
+
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", histogram.getTotalCount());
+            values.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            values.put("success", stats.success.sum());
+            values.put("shed", stats.shed.sum());
+            values.put("clientErrors", stats.clientErrors.sum());
+            values.put("serverErrors", stats.errors.sum());
+            values.put("meanMs", histogram.getMean() / 1000.0);
+            values.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+            values.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+            values.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+            values.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+            values.put("maxMs", histogram.getMaxValue() / 1000.0);
+            operations.put(entry.getKey().getName(), values);
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("ratePerSecond", profile.ratePerSecond());
+        settings.put("durationSeconds", profile.duration().toSeconds());
+        settings.put("warmupSeconds", profile.warmup().toSeconds());
+        settings.put("users", profile.users());
+        settings.put("films", profile.films());
+        settings.put("seed", profile.seed());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        profile.mix().forEach((operation, weight) -> mix.put(operation.getName(), weight));
+        settings.put("mix", mix);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("profile", settings);
+        report.put("sent", result.sent());
+        report.put("completed", completed);
+        report.put("elapsedSeconds", seconds);
+        report.put("throughputPerSecond", completed / seconds);
+        report.put("operations", operations);
+        return report;
+    }
+
+    private int createdId(HttpResponse<String> response) throws IOException {
+        assertEquals(200, response.statusCode(), "Не удалось создать объект: " + response.body());
+        return mapper.readTree(response.body()).get("id").asInt();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest put(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int pick(List<Integer> ids, SplittableRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private record RunResult(long sent, long elapsedNanos, Map<LoadOperation, OperationStats> stats) {
+    }
+
+    // Распределение задержек и счётчики ответов одной операции
+    private static final class OperationStats {
+        private final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder success = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+
+            // Отказы контроля допуска (429 и 503) учитываются отдельно от ошибок
+            if (status == 429 || status == 503) {
+                shed.increment();
+            } else if (status >= 500) {
+                errors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            } else {
+                success.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package ru.yandex.practicum.filmorate.persistence;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindTest {
+    private final InMemoryUserStorage memoryUsers = new InMemoryUserStorage();
+    private final InMemoryFilmStorage memoryFilms = new InMemoryFilmStorage();
+
+    private JdbcConnectionPool pool;
+    private WriteBehindQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.close();
+        }
+        pool.dispose();
+    }
+
+    @Test // Изменения через обёртки должны попадать в базу, а база — загружаться в пустые хранилища без потерь
+    void shouldPersistChangesAndWarmStart() throws InterruptedException {
+        H2Store store = store("wb-persist", new PersistenceProperties());
+        UserStorage users = new WriteBehindUserStorage(memoryUsers, queue);
+        FilmStorage films = new WriteBehindFilmStorage(memoryFilms, queue);
+
+        User first = users.addUser(user(1));
+        User second = users.addUser(user(2));
+        User third = users.addUser(user(3));
+        users.addFriend(first.getId(), second.getId());
+        users.addFriend(first.getId(), third.getId());
+        users.addFriend(second.getId(), third.getId());
+        users.deleteFriend(first.getId(), third.getId());
+        users.updateUser(second.toBuilder().name("Новое имя").build());
+
+        Film noRating = films.createFilm(film("Без рейтинга", null));
+        Film rated = films.createFilm(film("С рейтингом", Mpa.DIRECTORY.get(2)));
+        films.updateFilm(rated.toBuilder().genreMask(Genre.bit(1) | Genre.bit(4)).build());
+        films.addLike(noRating.getId(), first.getId());
+        films.addLike(rated.getId(), first.getId());
+        films.addLike(rated.getId(), second.getId());
+        films.addLike(rated.getId(), third.getId());
+        films.deleteLike(rated.getId(), second.getId());
+        users.deleteUser(third.getId());
+        films.deleteLikesByUser(third.getId());
+
+        users.addUsers(List.of(user(10), user(11)));
+        films.addFilms(List.of(film("Импорт", Mpa.DIRECTORY.get(0)).toBuilder().id(10).build()));
+        users.addFriendships(List.of(new Friendship(10, 11), new Friendship(1, 10)));
+        films.addLikes(List.of(new Like(10, 10), new Like(10, 11)));
+
+        assertTrue(queue.awaitFlushed(Duration.ofSeconds(10)), "Изменения должны быть записаны в базу");
+        assertEquals(0, queue.getStats().failures(), "Запись не должна завершаться ошибками: "
+                + queue.getStats().lastError());
+        assertEqualsLoaded(store);
+    }
+
+    @Test // Переполнение очереди не должно терять изменения: база перезаписывается из памяти целиком
+    void shouldResyncAfterOverflow() throws InterruptedException {
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setQueueCapacity(2);
+        properties.setOfferTimeoutMs(1);
+        properties.setBatchSize(1);
+
+        // Поток записи ждёт соединения, пока очередь не переполнится
+        CountDownLatch blocked = new CountDownLatch(1);
+        H2Store store = store("wb-overflow", properties, blocked);
+        UserStorage users = new WriteBehindUserStorage(memoryUsers, queue);
+        FilmStorage films = new WriteBehindFilmStorage(memoryFilms, queue);
+
+        Film film = films.createFilm(film("Фильм", Mpa.DIRECTORY.get(1)));
+        for (int i = 1; i <= 20; i++) {
+            User user = users.addUser(user(i));
+            films.addLike(film.getId(), user.getId());
+            if (i > 1) {
+                users.addFriend(user.getId(), user.getId() - 1);
+            }
+        }
+        blocked.countDown();
+
+        assertTrue(queue.awaitFlushed(Duration.ofSeconds(10)), "Изменения должны быть записаны в базу");
+        assertTrue(queue.getStats().overflows() > 0, "Очередь должна была переполниться");
+        assertEqualsLoaded(store);
+    }
+
+    private H2Store store(String name, PersistenceProperties properties) {
+        return store(name, properties, new CountDownLatch(0));
+    }
+
+    // База в памяти, соединения с которой выдаются только после открытия защёлки
+    private H2Store store(String name, PersistenceProperties properties, CountDownLatch connectionsAllowed) {
+        pool = JdbcConnectionPool.create("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        DataSource dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection")) {
+                        connectionsAllowed.await();
+                    }
+                    try {
+                        return method.invoke(pool, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+
+        new H2Store(pool).createSchema();
+        H2Store store = new H2Store(dataSource);
+        queue = new WriteBehindQueue(store, memoryUsers, memoryFilms, properties);
+        return store;
+    }
+
+    // Содержимое базы, загруженное в новые хранилища, должно совпадать с хранилищами в памяти
+    private void assertEqualsLoaded(H2Store store) {
+        InMemoryUserStorage loadedUsers = new InMemoryUserStorage();
+        InMemoryFilmStorage loadedFilms = new InMemoryFilmStorage();
+        store.load(loadedUsers, loadedFilms);
+
+        assertEquals(users(memoryUsers), users(loadedUsers), "Пользователи и дружба должны совпадать");
+        assertEquals(films(memoryFilms), films(loadedFilms), "Фильмы и лайки должны совпадать");
+    }
+
+    private static Map<Integer, String> users(UserStorage storage) {
+        Map<Integer, String> users = new TreeMap<>();
+        for (User user : storage.getUsers()) {
+            users.put(user.getId(), String.join("|", user.getEmail(), user.getLogin(), user.getName(),
+                    user.getBirthday().toString(), new TreeSet<>(user.getFriends()).toString()));
+        }
+        return users;
+    }
+
+    private static Map<Integer, String> films(FilmStorage storage) {
+        Map<Integer, String> films = new TreeMap<>();
+        for (Film film : storage.getAllFilms()) {
+            films.put(film.getId(), String.join("|", film.getName(), film.getDescription(),
+                    film.getReleaseDate().toString(), String.valueOf(film.getDuration()),
+                    film.getMpa() == null ? "-" : String.valueOf(film.getMpa().getId()),
+                    Long.toString(film.getGenreMask()), new TreeSet<>(film.getLikes()).toString()));
+        }
+        return films;
+    }
+
+    private static User user(int number) {
+        return User.builder()
+                .id(number)
+                .email("user" + number + "@example.com")
+                .login("user" + number)
+                .name("Пользователь " + number)
+                .birthday(LocalDate.of(1990, 1, 1).plusDays(number))
+                .build();
+    }
+
+    private static Film film(String name, Mpa mpa) {
+        return Film.builder()
+                .name(name)
+                .description("Описание")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .mpa(mpa)
+                .build();
+    }
+}
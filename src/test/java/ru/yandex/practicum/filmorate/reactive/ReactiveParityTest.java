@@ -0,0 +1,200 @@
+package ru.yandex.practicum.filmorate.reactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Совпадение маршрутов, кодов ответа и тел ответов функциональных обработчиков WebFlux
+ * и сервлетных контроллеров: одинаковые запросы отправляются в оба приложения с пустыми хранилищами.
+ * Запуск: mvn test -Preactive
+ */
+public class ReactiveParityTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static ConfigurableApplicationContext servlet;
+    private static ConfigurableApplicationContext reactive;
+    private static WebTestClient servletClient;
+    private static WebTestClient reactiveClient;
+
+    @BeforeAll
+    static void startApplications() {
+        servlet = start();
+        reactive = start("reactive");
+        servletClient = client(servlet);
+        reactiveClient = client(reactive);
+    }
+
+    @AfterAll
+    static void stopApplications() {
+        reactive.close();
+        servlet.close();
+    }
+
+    @Test // Пользователи и друзья: успешные ответы и ошибки совпадают
+    void shouldMatchUserRoutes() throws IOException {
+        assertParity(HttpMethod.POST, "/users", user("first"), 200);
+        assertParity(HttpMethod.POST, "/users", user("second"), 200);
+        assertParity(HttpMethod.POST, "/users", user("third"), 200);
+        assertParity(HttpMethod.POST, "/users", "{\"email\":\"not-an-email\",\"login\":\"bad\","
+                + "\"birthday\":\"1990-01-01\"}", 400);
+        assertParity(HttpMethod.POST, "/users", user("first"), 400);
+
+        assertParity(HttpMethod.GET, "/users/1", null, 200);
+        assertParity(HttpMethod.GET, "/users/999", null, 404);
+        assertParity(HttpMethod.GET, "/users?ids=1,2,999", null, 200);
+        assertParity(HttpMethod.GET, "/users?login=second", null, 200);
+
+        assertParity(HttpMethod.PUT, "/users/1/friends/2", null, 200);
+        assertParity(HttpMethod.PUT, "/users/1/friends/3", null, 200);
+        assertParity(HttpMethod.PUT, "/users/2/friends/3", null, 200);
+        assertParity(HttpMethod.PUT, "/users/1/friends/999", null, 404);
+        assertParity(HttpMethod.GET, "/users/1/friends", null, 200);
+        assertParity(HttpMethod.GET, "/users/1/friends/common/2", null, 200);
+        assertParity(HttpMethod.GET, "/users/friends/common?ids=1,2", null, 200);
+        assertParity(HttpMethod.DELETE, "/users/1/friends/3", null, 200);
+        assertParity(HttpMethod.GET, "/users/3/friends", null, 200);
+    }
+
+    @Test // Фильмы, лайки и популярные фильмы: успешные ответы и ошибки совпадают
+    void shouldMatchFilmRoutes() throws IOException {
+        assertParity(HttpMethod.POST, "/users", user("liker"), 200);
+        int userId = id(servletClient, "/users?login=liker");
+        assertEquals(userId, id(reactiveClient, "/users?login=liker"), "ID пользователей должны совпадать");
+
+        assertParity(HttpMethod.POST, "/films", film("Чужой"), 200);
+        assertParity(HttpMethod.POST, "/films", film("Солярис"), 200);
+        assertParity(HttpMethod.POST, "/films", "{\"name\":\"\",\"description\":\"Пусто\","
+                + "\"releaseDate\":\"2000-01-01\",\"duration\":100}", 400);
+
+        assertParity(HttpMethod.PUT, "/films/2/like/" + userId, null, 200);
+        assertParity(HttpMethod.PUT, "/films/2/like/999", null, 404);
+        assertParity(HttpMethod.DELETE, "/films/1/like/" + userId, null, 404);
+        assertParity(HttpMethod.GET, "/films/popular?amount=5", null, 200);
+        assertParity(HttpMethod.GET, "/films/popular?genreId=999", null, 404);
+        assertParity(HttpMethod.GET, "/films/1", null, 200);
+        assertParity(HttpMethod.GET, "/films/999", null, 404);
+        assertParity(HttpMethod.GET, "/users/" + userId + "/liked-films", null, 200);
+        assertParity(HttpMethod.GET, "/genres", null, 200);
+        assertParity(HttpMethod.GET, "/mpa/1", null, 200);
+    }
+
+    @Test // Устаревшая версия в If-Match — 412 в обоих вариантах API
+    void shouldMatchPreconditionFailure() throws IOException {
+        assertParity(HttpMethod.POST, "/films", film("Версия"), 200);
+        int filmId = id(servletClient, "/films/popular?amount=1000", "Версия");
+
+        String update = "{\"id\":" + filmId + ",\"name\":\"Версия 2\",\"description\":\"Описание\","
+                + "\"releaseDate\":\"2000-01-01\",\"duration\":100}";
+        EntityExchangeResult<byte[]> servletResult =
+                exchange(servletClient, HttpMethod.PUT, "/films", update, "\"99\"");
+        EntityExchangeResult<byte[]> reactiveResult =
+                exchange(reactiveClient, HttpMethod.PUT, "/films", update, "\"99\"");
+        assertEquals(412, servletResult.getStatus().value(), "Сервлетный API должен вернуть 412");
+        assertEquals(servletResult.getStatus(), reactiveResult.getStatus(), "Коды ответа должны совпадать");
+        assertEquals(json(servletResult), json(reactiveResult), "Тела ответов должны совпадать");
+    }
+
+    @Test // Ответ в CBOR по заголовку Accept, как у сервлетных контроллеров
+    void shouldReturnCborWhenAccepted() throws IOException {
+        assertParity(HttpMethod.POST, "/films", film("Сталкер"), 200);
+
+        for (WebTestClient client : new WebTestClient[]{servletClient, reactiveClient}) {
+            byte[] body = client.get().uri("/films/popular?amount=1000")
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+                    .expectBody().returnResult().getResponseBody();
+            assertTrue(new CBORMapper().readTree(body).findValuesAsText("name").contains("Сталкер"),
+                    "Фильм должен декодироваться из CBOR");
+        }
+    }
+
+    @Test // Вызовы сервисов выполняются вне событийных потоков
+    void shouldRunBlockingCallsOffEventLoop() {
+        String thread = BlockingCalls.call(() -> Thread.currentThread().getName()).block();
+
+        assertNotNull(thread);
+        assertTrue(thread.startsWith("boundedElastic"), "Вызов должен выполняться на boundedElastic: " + thread);
+    }
+
+    // Одинаковый запрос к обоим приложениям: совпадают код ответа и тело
+    private static void assertParity(HttpMethod method, String path, String body, int expectedStatus)
+            throws IOException {
+        EntityExchangeResult<byte[]> servletResult = exchange(servletClient, method, path, body, null);
+        EntityExchangeResult<byte[]> reactiveResult = exchange(reactiveClient, method, path, body, null);
+
+        assertEquals(expectedStatus, servletResult.getStatus().value(), method + " " + path + ": сервлетный API");
+        assertEquals(servletResult.getStatus(), reactiveResult.getStatus(), method + " " + path + ": коды ответа");
+        assertEquals(json(servletResult), json(reactiveResult), method + " " + path + ": тела ответов");
+    }
+
+    private static EntityExchangeResult<byte[]> exchange(WebTestClient client, HttpMethod method, String path,
+                                                         String body, String ifMatch) {
+        WebTestClient.RequestBodySpec request = client.method(method).uri(path);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        WebTestClient.RequestHeadersSpec<?> spec = body == null
+                ? request
+                : request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        return spec.exchange().expectBody().returnResult();
+    }
+
+    private static JsonNode json(EntityExchangeResult<byte[]> result) throws IOException {
+        byte[] body = result.getResponseBody();
+        return body == null || body.length == 0 ? null : mapper.readTree(body);
+    }
+
+    private static int id(WebTestClient client, String path) throws IOException {
+        return json(exchange(client, HttpMethod.GET, path, null, null)).get("id").asInt();
+    }
+
+    // ID фильма с заданным названием из списка
+    private static int id(WebTestClient client, String path, String name) throws IOException {
+        for (JsonNode film : json(exchange(client, HttpMethod.GET, path, null, null))) {
+            if (name.equals(film.get("name").asText())) {
+                return film.get("id").asInt();
+            }
+        }
+        throw new AssertionError("Фильм " + name + " не найден");
+    }
+
+    private static String user(String login) {
+        return "{\"email\":\"" + login + "@example.com\",\"login\":\"" + login + "\",\"birthday\":\"1990-01-01\"}";
+    }
+
+    private static String film(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Описание\",\"releaseDate\":\"2000-01-01\","
+                + "\"duration\":100}";
+    }
+
+    private static ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(FilmorateApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "logging.level.org.zalando.logbook=INFO")
+                .run();
+    }
+
+    private static WebTestClient client(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.dataset.DatasetGenerator;
+import ru.yandex.practicum.filmorate.dataset.DatasetSpec;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedServiceTest {
+    private final InMemoryUserStorage userStorage = new InMemoryUserStorage();
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final FeedService feedService = new FeedServiceImpl(userStorage, filmStorage);
+    private final UserService userService = new UserServiceImpl(userStorage, filmStorage, feedService);
+    private final FilmService filmService = new FilmServiceImpl(filmStorage, userStorage, feedService);
+
+    @Test // Лента должна совпадать с полным подсчётом лайков друзей и сортировкой
+    void shouldRankFilmsByFriendLikes() {
+        new DatasetGenerator(DatasetSpec.builder().users(500).films(200).maxFriends(150).build())
+                .populate(userStorage, filmStorage);
+
+        for (int id = 1; id <= 500; id += 7) {
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (int friendId : userStorage.getUser(id).getFriends()) {
+                filmStorage.getLikedFilmIds(friendId).forEach(filmId -> counts.merge(filmId, 1, Integer::sum));
+            }
+            List<Integer> expected = counts.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(20)
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            assertEquals(expected, ids(userService.getPopularAmongFriends(id, 20)), "Неверная лента пользователя " + id);
+            assertEquals(expected.subList(0, Math.min(5, expected.size())),
+                    ids(userService.getPopularAmongFriends(id, 5)), "Короткая лента должна быть началом длинной");
+        }
+    }
+
+    @Test // Кэшированная лента должна сбрасываться при изменении лайков друзей и самой дружбы
+    void shouldInvalidateCachedFeed() {
+        User user = userStorage.addUser(user(0));
+        List<User> friends = new ArrayList<>();
+        for (int i = 1; i <= FeedServiceImpl.CACHED_FROM_FRIENDS; i++) {
+            User friend = userStorage.addUser(user(i));
+            userService.addFriend(user.getId(), friend.getId());
+            friends.add(friend);
+        }
+        Film first = filmStorage.createFilm(film("Первый"));
+        Film second = filmStorage.createFilm(film("Второй"));
+
+        filmService.addLike(first.getId(), friends.get(0).getId());
+        filmService.addLike(first.getId(), friends.get(1).getId());
+        filmService.addLike(second.getId(), friends.get(2).getId());
+        assertEquals(List.of(first.getId(), second.getId()), ids(userService.getPopularAmongFriends(user.getId(), 10)));
+
+        // Лайки друзей меняют порядок фильмов в кэшированной ленте
+        filmService.addLike(second.getId(), friends.get(3).getId());
+        filmService.addLike(second.getId(), friends.get(4).getId());
+        assertEquals(List.of(second.getId(), first.getId()), ids(userService.getPopularAmongFriends(user.getId(), 10)));
+
+        // Лайки бывших друзей в ленте не учитываются
+        userService.deleteFriend(user.getId(), friends.get(3).getId());
+        userService.deleteFriend(user.getId(), friends.get(4).getId());
+        filmService.deleteLike(first.getId(), friends.get(0).getId());
+        assertEquals(List.of(first.getId(), second.getId()), ids(userService.getPopularAmongFriends(user.getId(), 10)));
+
+        assertThrows(ValidationException.class, () -> userService.getPopularAmongFriends(user.getId(), 0));
+    }
+
+    private static List<Integer> ids(List<Film> films) {
+        return films.stream().map(Film::getId).toList();
+    }
+
+    private static User user(int index) {
+        return User.builder()
+                .email("feed" + index + "@mail.ru")
+                .login("feed" + index)
+                .birthday(LocalDate.of(2000, 1, 1))
+                .build();
+    }
+
+    private static Film film(String name) {
+        return Film.builder()
+                .name(name)
+                .description("Описание")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(100)
+                .build();
+    }
+}
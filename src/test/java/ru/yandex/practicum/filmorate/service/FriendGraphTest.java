@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FriendGraphTest {
+    @Test // Цепочка должна быть кратчайшей и состоять из друзей; глубина поиска должна ограничиваться
+    void shouldFindShortestPathWithinDepth() {
+        Map<Integer, Set<Integer>> graph = new HashMap<>();
+        for (int i = 1; i < 6; i++) {
+            link(graph, i, i + 1);
+        }
+        link(graph, 1, 7);
+        link(graph, 7, 5);
+
+        assertArrayEquals(new int[]{1, 7, 5, 6}, FriendGraph.shortestPath(1, 6, 6, batch(graph)));
+        assertArrayEquals(new int[]{3}, FriendGraph.shortestPath(3, 3, 1, batch(graph)));
+        assertEquals(0, FriendGraph.shortestPath(1, 6, 2, batch(graph)).length,
+                "Цепочка длиннее глубины поиска не должна находиться");
+        assertEquals(0, FriendGraph.shortestPath(1, 8, 6, batch(graph)).length,
+                "Для несвязанных пользователей цепочки нет");
+    }
+
+    @Test // Друзья всего фронта запрашиваются одним вызовом на каждый уровень поиска
+    void shouldRequestFriendsOncePerLevel() {
+        Map<Integer, Set<Integer>> graph = new HashMap<>();
+        for (int leaf = 10; leaf < 20; leaf++) {
+            link(graph, 1, leaf);
+            link(graph, leaf, 100 + leaf);
+            link(graph, 2, 200 + leaf);
+        }
+        link(graph, 119, 219);
+
+        List<Integer> frontierSizes = new ArrayList<>();
+        Function<List<Integer>, Map<Integer, Set<Integer>>> friends = batch(graph);
+        int[] path = FriendGraph.shortestPath(1, 2, 6, ids -> {
+            frontierSizes.add(ids.size());
+            return friends.apply(ids);
+        });
+
+        assertArrayEquals(new int[]{1, 19, 119, 219, 2}, path);
+        assertEquals(List.of(1, 1, 10, 10), frontierSizes, "Каждый фронт должен запрашиваться одним вызовом");
+    }
+
+    @Test // Длина цепочки должна совпадать с обычным поиском в ширину на случайном графе
+    void shouldMatchPlainBreadthFirstSearch() {
+        Random random = new Random(42);
+        Map<Integer, Set<Integer>> graph = new HashMap<>();
+        int users = 2_000;
+        for (int i = 0; i < users * 2; i++) {
+            int a = 1 + random.nextInt(users);
+            int b = 1 + random.nextInt(users);
+            if (a != b) {
+                link(graph, a, b);
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            int from = 1 + random.nextInt(users);
+            int to = 1 + random.nextInt(users);
+            int[] path = FriendGraph.shortestPath(from, to, 8, batch(graph));
+            int expected = distance(graph, from, to);
+
+            if (expected < 0 || expected > 8) {
+                assertEquals(0, path.length, "Цепочки в пределах глубины быть не должно");
+                continue;
+            }
+            assertEquals(expected + 1, path.length, "Цепочка должна быть кратчайшей");
+            assertEquals(from, path[0]);
+            assertEquals(to, path[path.length - 1]);
+            for (int j = 1; j < path.length; j++) {
+                assertTrue(friends(graph, path[j - 1]).contains(path[j]), "Соседи в цепочке должны быть друзьями");
+            }
+        }
+    }
+
+    @Test // Пересечение нескольких множеств должно совпадать с последовательным retainAll
+    void shouldIntersectAllSets() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            List<Set<Integer>> sets = new ArrayList<>();
+            int count = 1 + random.nextInt(5);
+            for (int j = 0; j < count; j++) {
+                Set<Integer> set = new HashSet<>();
+                int size = random.nextInt(300);
+                for (int k = 0; k < size; k++) {
+                    set.add(1 + random.nextInt(400));
+                }
+                sets.add(set);
+            }
+
+            Set<Integer> expected = new TreeSet<>(sets.get(0));
+            sets.forEach(expected::retainAll);
+
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), FriendGraph.intersectAll(sets));
+        }
+    }
+
+    private static void link(Map<Integer, Set<Integer>> graph, int a, int b) {
+        graph.computeIfAbsent(a, id -> new HashSet<>()).add(b);
+        graph.computeIfAbsent(b, id -> new HashSet<>()).add(a);
+    }
+
+    private static Function<List<Integer>, Map<Integer, Set<Integer>>> batch(Map<Integer, Set<Integer>> graph) {
+        return ids -> {
+            Map<Integer, Set<Integer>> friends = new HashMap<>();
+            ids.forEach(id -> friends.put(id, friends(graph, id)));
+            return friends;
+        };
+    }
+
+    private static Set<Integer> friends(Map<Integer, Set<Integer>> graph, int id) {
+        return graph.getOrDefault(id, Set.of());
+    }
+
+    private static int distance(Map<Integer, Set<Integer>> graph, int from, int to) {
+        Map<Integer, Integer> distances = new HashMap<>(Map.of(from, 0));
+        Deque<Integer> queue = new ArrayDeque<>(List.of(from));
+        while (!queue.isEmpty()) {
+            int user = queue.poll();
+            if (user == to) {
+                return distances.get(user);
+            }
+            for (int friend : friends(graph, user)) {
+                if (distances.putIfAbsent(friend, distances.get(user) + 1) == null) {
+                    queue.add(friend);
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.UserStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PopularFilmsCacheTest {
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final UserStorage userStorage = new InMemoryUserStorage();
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final FilmService filmService = new FilmServiceImpl(filmStorage, userStorage,
+            new FeedServiceImpl(userStorage, filmStorage));
+    private final PopularFilmsCache cache = new PopularFilmsCache(filmService, mapper);
+
+    private Film film;
+    private User user;
+
+    @BeforeEach
+    void beforeEach() {
+        film = filmService.create(Film.builder()
+                .name("Чужой")
+                .description("Фантастика, Ужасы")
+                .releaseDate(LocalDate.of(1979, 6, 22))
+                .duration(116)
+                .build());
+        user = userStorage.addUser(User.builder()
+                .email("abc@gmail.com")
+                .login("Admin")
+                .birthday(LocalDate.of(1997, 8, 14))
+                .build());
+    }
+
+    @Test // Проверка повторного использования готового ответа без изменений данных
+    void shouldReuseEntryWhileDataUnchanged() {
+        PopularFilmsCache.Entry first = cache.get(10).orElseThrow();
+        PopularFilmsCache.Entry second = cache.get(10).orElseThrow();
+
+        assertSame(first, second, "Ответ должен браться из кэша");
+    }
+
+    @Test // Проверка инвалидации готового ответа при добавлении лайка
+    void shouldRebuildEntryAfterLike() throws IOException {
+        PopularFilmsCache.Entry before = cache.get(10).orElseThrow();
+        filmService.addLike(film.getId(), user.getId());
+        PopularFilmsCache.Entry after = cache.get(10).orElseThrow();
+
+        assertNotSame(before, after, "Ответ должен быть перестроен");
+        JsonNode json = mapper.readTree(after.json());
+        assertEquals(1, json.get(0).get("likes").size(), "Лайк должен попасть в ответ");
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(after.gzip()))) {
+            assertArrayEquals(after.json(), in.readAllBytes(), "Сжатый ответ должен совпадать с JSON");
+        }
+    }
+
+    @Test // Проверка отсутствия кэширования редких размеров списка
+    void shouldNotCacheLargeAmounts() {
+        assertTrue(cache.get(PopularFilmsCache.MAX_CACHED_AMOUNT + 1).isEmpty());
+    }
+
+    @Test // Список популярных фильмов отдаётся всем объединённым запросам, поэтому изменять его нельзя
+    void shouldReturnUnmodifiableTop() {
+        List<Film> top = filmService.getTop(10);
+
+        assertThrows(UnsupportedOperationException.class, top::clear, "Список должен быть неизменяемым");
+        assertEquals(List.of(film), filmService.getTop(10));
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+    private final SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+
+    @Test // Проверка объединения одновременных вызовов с одинаковым ключом
+    void shouldShareInFlightComputation() throws Exception {
+        int threads = 16;
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute(1, () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "фильм";
+            }));
+            started.await();
+
+            List<Future<String>> joiners = new ArrayList<>();
+            for (int i = 1; i < threads; i++) {
+                joiners.add(executor.submit(() -> singleFlight.execute(1, () -> {
+                    computations.incrementAndGet();
+                    return "повтор";
+                })));
+            }
+
+            // Ожидание, пока все вызовы присоединятся к выполняющемуся вычислению
+            while (singleFlight.getStats().calls() < threads) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("фильм", first.get());
+            for (Future<String> joiner : joiners) {
+                assertEquals("фильм", joiner.get(), "Вызов должен получить общий результат");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SingleFlight.Stats stats = singleFlight.getStats();
+        assertEquals(1, computations.get(), "Вычисление должно выполниться один раз");
+        assertEquals(threads, stats.calls());
+        assertEquals(threads - 1, stats.coalesced());
+    }
+
+    @Test // Проверка передачи исключения и повторного вычисления после завершения
+    void shouldPropagateErrorAndRecompute() {
+        assertThrows(NotFoundException.class, () -> singleFlight.execute(2, () -> {
+            throw new NotFoundException("Фильм не найден.");
+        }));
+
+        assertEquals("фильм", singleFlight.execute(2, () -> "фильм"), "Ошибка не должна кэшироваться");
+        assertEquals(2, singleFlight.getStats().executions());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.CatalogStats;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.StatsVerification;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsServiceTest {
+    private final InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+    private final InMemoryUserStorage userStorage = new InMemoryUserStorage();
+    private final StatsService statsService = new StatsServiceImpl(filmStorage, userStorage);
+
+    @Test // Агрегаты должны обновляться при каждом изменении и совпадать с полным пересчётом
+    void shouldMaintainStatsIncrementally() {
+        User first = userStorage.addUser(user("first"));
+        User second = userStorage.addUser(user("second"));
+        User third = userStorage.addUser(user("third"));
+        userStorage.addFriend(first.getId(), second.getId());
+        userStorage.addFriend(first.getId(), third.getId());
+        assertThrows(ValidationException.class, () -> userStorage.addFriend(third.getId(), third.getId()),
+                "Дружба с самим собой должна отклоняться");
+
+        Film alien = filmStorage.createFilm(film("Чужой", 1979, 116));
+        Film aliens = filmStorage.createFilm(film("Чужие", 1986, 137));
+        filmStorage.createFilm(film("Нечто", 1982, 109));
+        filmStorage.addLike(alien.getId(), first.getId());
+        filmStorage.addLike(alien.getId(), second.getId());
+        filmStorage.addLike(aliens.getId(), first.getId());
+
+        Film updated = film("Чужие", 1979, 137);
+        updated.setId(aliens.getId());
+        filmStorage.updateFilm(updated);
+        userStorage.deleteUser(second.getId());
+        filmStorage.deleteLikesByUser(second.getId());
+
+        CatalogStats stats = statsService.getStats();
+
+        assertEquals(3, stats.films(), "Неверное количество фильмов");
+        assertEquals(2, stats.users(), "Неверное количество пользователей");
+        assertEquals(2, stats.likes(), "Неверное количество лайков");
+        assertEquals(1, stats.friendships(), "Неверное количество пар друзей");
+        assertEquals((116 + 137 + 109) / 3.0, stats.averageDuration(), 1e-9, "Неверная средняя длительность");
+        assertEquals(Map.of(1979, 2L, 1982, 1L), stats.filmsByYear(), "Неверное распределение по годам");
+        assertEquals(Map.of(0, 1L, 1, 2L), stats.likeDistribution(), "Неверное распределение лайков");
+        assertEquals(Map.of(1, 2L), stats.friendCountDistribution(), "Неверное распределение друзей");
+
+        StatsVerification verification = statsService.verify();
+        assertTrue(verification.consistent(), "Инкрементальная статистика должна совпадать с пересчётом");
+    }
+
+    private static User user(String login) {
+        return User.builder()
+                .email(login + "@mail.ru")
+                .login(login)
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private static Film film(String name, int year, int duration) {
+        return Film.builder()
+                .name(name)
+                .description("Фантастика")
+                .releaseDate(LocalDate.of(year, 6, 1))
+                .duration(duration)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package ru.yandex.practicum.filmorate.startup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнение времени до первого успешного запроса для обычной и оптимизированной сборки.
+ * Запуск после сборки: mvn package -Pfast-startup -DskipTests,
+ * затем mvn test -Dtest=StartupTimeTest -Dstartup.enabled=true
+ */
+@EnabledIfSystemProperty(named = "startup.enabled", matches = "true")
+public class StartupTimeTest {
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private static final Path DEFAULT_JAR = Path.of("target/filmorate-0.0.1-SNAPSHOT.jar");
+    private static final Path OPTIMIZED_JAR = Path.of("target/cds/filmorate-0.0.1-SNAPSHOT-cds.jar");
+    private static final Path CDS_ARCHIVE = Path.of("target/cds/application.jsa");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test // Оптимизированная сборка должна отвечать на первый запрос быстрее обычной
+    void shouldReportTimeToFirstRequest() throws Exception {
+        assertTrue(Files.exists(DEFAULT_JAR), "Не найден jar обычной сборки: " + DEFAULT_JAR);
+        assertTrue(Files.exists(OPTIMIZED_JAR), "Не найден jar оптимизированной сборки: " + OPTIMIZED_JAR);
+        assertTrue(Files.exists(CDS_ARCHIVE), "Не найден архив AppCDS: " + CDS_ARCHIVE);
+
+        long defaultMillis = median(List.of("-jar", DEFAULT_JAR.toString()));
+        long optimizedMillis = median(List.of(
+                "-XX:SharedArchiveFile=" + CDS_ARCHIVE,
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=fast-startup",
+                "-jar", OPTIMIZED_JAR.toString()
+        ));
+
+        System.out.printf("Время до первого запроса (медиана из %d): обычная сборка %d мс, оптимизированная %d мс%n",
+                RUNS, defaultMillis, optimizedMillis);
+        assertTrue(optimizedMillis < defaultMillis, "Оптимизированная сборка стартует не быстрее обычной");
+    }
+
+    private long median(List<String> arguments) throws Exception {
+        List<Long> timings = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            timings.add(timeToFirstRequest(arguments));
+        }
+
+        timings.sort(Long::compare);
+        return timings.get(timings.size() / 2);
+    }
+
+    // Запуск приложения в отдельном процессе и ожидание первого успешного ответа
+    private long timeToFirstRequest(List<String> arguments) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertTrue(process.isAlive(), "Процесс приложения завершился до первого запроса");
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // Сервер ещё не открыл порт
+                }
+                Thread.sleep(5);
+            }
+
+            throw new AssertionError("Приложение не ответило за " + TIMEOUT.toSeconds() + " с");
+        } finally {
+            process.destroy();
+            process.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.StatsServiceImpl;
+import ru.yandex.practicum.filmorate.storage.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочная проверка хранилищ при одновременных addLike/deleteLike/addFriend/deleteFriend.
+ * После каждого прогона проверяются инварианты: взаимность дружбы, совпадение лайков с обратным индексом,
+ * порядок индекса популярности, согласованность статистики и отсутствие потерянных изменений.
+ * По умолчанию выполняется короткий прогон; для миллионов операций:
+ * mvn test -Dtest=ConcurrencyStressTest -Dstress.operations=2000000 [-Dstress.threads=1,2,4,8,16]
+ */
+public class ConcurrencyStressTest {
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 200_000);
+    private static final String THREADS = System.getProperty("stress.threads", "1,2,4,8");
+
+    // Небольшое количество сущностей, чтобы потоки чаще обращались к одним и тем же фильмам и пользователям
+    private static final int USERS = 500;
+    private static final int FILMS = 200;
+
+    @Test // Хранилища должны сохранять инварианты при любом количестве потоков
+    void shouldKeepInvariantsUnderConcurrentUpdates() throws Exception {
+        List<Integer> threadCounts = Arrays.stream(THREADS.split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .toList();
+
+        Map<Integer, Long> throughput = new LinkedHashMap<>();
+        for (int threads : threadCounts) {
+            throughput.put(threads, run(threads));
+        }
+
+        System.out.printf("Операций за прогон: %d%n", OPERATIONS);
+        throughput.forEach((threads, opsPerSecond) ->
+                System.out.printf("Потоков: %2d, операций в секунду: %,d%n", threads, opsPerSecond));
+    }
+
+    // Один прогон на свежих хранилищах; возвращает количество операций в секунду
+    private long run(int threads) throws Exception {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        for (int i = 0; i < USERS; i++) {
+            userStorage.addUser(user(i));
+        }
+        for (int i = 0; i < FILMS; i++) {
+            filmStorage.createFilm(film(i));
+        }
+
+        // Учёт успешных операций для проверки отсутствия потерянных изменений
+        LongAdder likeBalance = new LongAdder();
+        LongAdder friendshipBalance = new LongAdder();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        int operationsPerThread = OPERATIONS / threads;
+
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < operationsPerThread; i++) {
+                    int userId = 1 + random.nextInt(USERS);
+                    int operation = random.nextInt(100);
+
+                    if (operation < 35) {
+                        if (filmStorage.addLike(1 + random.nextInt(FILMS), userId)) {
+                            likeBalance.increment();
+                        }
+                    } else if (operation < 60) {
+                        if (filmStorage.deleteLike(1 + random.nextInt(FILMS), userId)) {
+                            likeBalance.decrement();
+                        }
+                    } else if (operation < 85) {
+                        // Дружба с самим собой отклоняется, поэтому такие пары не выбираются
+                        int friendId = 1 + random.nextInt(USERS);
+                        if (friendId != userId && userStorage.addFriend(userId, friendId)) {
+                            friendshipBalance.increment();
+                        }
+                    } else {
+                        if (userStorage.deleteFriend(userId, 1 + random.nextInt(USERS))) {
+                            friendshipBalance.decrement();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+
+        checkInvariants(userStorage, filmStorage, likeBalance.sum(), friendshipBalance.sum(), threads);
+        return (long) operationsPerThread * threads * 1_000_000_000L / Math.max(elapsed, 1);
+    }
+
+    private void checkInvariants(InMemoryUserStorage userStorage, InMemoryFilmStorage filmStorage,
+                                 long likeBalance, long friendshipBalance, int threads) {
+        String run = " (потоков: " + threads + ")";
+
+        // Дружба взаимна, а её количество совпадает с балансом успешных операций
+        long friendLinks = 0;
+        for (User user : userStorage.getUsers()) {
+            for (Integer friendId : user.getFriends()) {
+                assertTrue(userStorage.getUser(friendId).getFriends().contains(user.getId()),
+                        "Дружба " + user.getId() + " -> " + friendId + " не взаимна" + run);
+            }
+            friendLinks += user.getFriendCount();
+        }
+        assertEquals(friendshipBalance, friendLinks / 2, "Потеряны изменения дружбы" + run);
+
+        // Лайки совпадают с обратным индексом и с балансом успешных операций
+        long likes = 0;
+        Map<Integer, Set<Integer>> expectedLiked = new HashMap<>();
+        for (Film film : filmStorage.getAllFilms()) {
+            likes += film.getLikeCount();
+            for (Integer userId : film.getLikes()) {
+                expectedLiked.computeIfAbsent(userId, key -> new HashSet<>()).add(film.getId());
+            }
+        }
+        assertEquals(likeBalance, likes, "Потеряны изменения лайков" + run);
+        for (int userId = 1; userId <= USERS; userId++) {
+            Set<Integer> liked = filmStorage.getLikedFilms(userId).stream()
+                    .map(Film::getId)
+                    .collect(Collectors.toSet());
+            assertEquals(expectedLiked.getOrDefault(userId, Set.of()), liked,
+                    "Обратный индекс лайков пользователя " + userId + " расходится с фильмами" + run);
+        }
+
+        // Индекс популярности содержит все фильмы в порядке убывания лайков
+        List<Film> popular = filmStorage.getPopular(FILMS, null, null);
+        assertEquals(FILMS, popular.size(), "Индекс популярности неполон" + run);
+        for (int i = 1; i < popular.size(); i++) {
+            assertTrue(popular.get(i - 1).getLikeCount() >= popular.get(i).getLikeCount(),
+                    "Нарушен порядок индекса популярности" + run);
+        }
+
+        // Инкрементальная статистика совпадает с полным пересчётом
+        assertTrue(new StatsServiceImpl(filmStorage, userStorage).verify().consistent(),
+                "Статистика расходится с пересчётом" + run);
+    }
+
+    private static User user(int i) {
+        return User.builder()
+                .email("user" + i + "@mail.ru")
+                .login("user" + i)
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    private static Film film(int i) {
+        return Film.builder()
+                .name("Фильм " + i)
+                .description("Описание")
+                .releaseDate(LocalDate.of(1950 + i % 70, 1, 1))
+                .duration(90 + i % 60)
+                .build();
+    }
+}
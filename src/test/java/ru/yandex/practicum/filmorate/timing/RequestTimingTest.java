@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.timing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestTimingTest {
+    @Test // Вложенный этап не должен учитываться в собственном времени объемлющего
+    void shouldAccountNestedStagesExclusively() {
+        RequestTiming timing = RequestTiming.start();
+
+        long service = timing.enter();
+        spin(1);
+        long storage = timing.enter();
+        spin(20);
+        timing.exit(TimingStage.STORAGE, storage);
+        timing.exit(TimingStage.SERVICE, service);
+
+        long totalNanos = timing.finish();
+        Map<String, Double> stages = timing.stagesMs();
+
+        assertNull(RequestTiming.current(), "Замеры должны отвязываться от потока после завершения");
+        assertEquals(List.of("service", "storage"), List.copyOf(stages.keySet()), "Пустые этапы не выводятся");
+        assertTrue(stages.get("storage") >= 20, "Время хранилища должно учитываться целиком");
+        assertTrue(stages.get("service") >= 1 && stages.get("service") < 20,
+                "Время сервиса не должно включать время хранилища: " + stages);
+        assertTrue(stages.get("service") + stages.get("storage") <= RequestTiming.toMillis(totalNanos) + 0.002,
+                "Сумма этапов не должна превышать длительность запроса");
+        assertTrue(timing.toHeader(totalNanos).matches("service;dur=\\d+\\.\\d{3}, storage;dur=\\d+\\.\\d{3}, "
+                + "total;dur=\\d+\\.\\d{3}"), "Неверный формат заголовка Server-Timing");
+    }
+
+    @Test // Журнал медленных запросов должен хранить последние записи от новых к старым
+    void shouldKeepLatestSlowRequests() {
+        SlowRequestLog log = new SlowRequestLog(3);
+        for (int i = 1; i <= 5; i++) {
+            log.add(new SlowRequest(Instant.now(), "GET", "/films/" + i, 200, i, Map.of()));
+        }
+
+        assertEquals(List.of("/films/5", "/films/4", "/films/3"),
+                log.snapshot().stream().map(SlowRequest::uri).toList());
+    }
+
+    private static void spin(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
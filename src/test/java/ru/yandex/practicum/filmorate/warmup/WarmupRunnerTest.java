@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.warmup;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarmupRunnerTest {
+    // Настройки совпадают с настройками Jackson в Spring Boot
+    private final ObjectMapper mapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test // Прогрев должен пройти все раунды, замерить каждую операцию и снять готовность на время работы
+    void shouldWarmUpAndMeasureEffect() {
+        WarmupProperties properties = new WarmupProperties();
+        properties.setEnabled(true);
+        properties.setUsers(300);
+        properties.setFilms(50);
+        properties.setIterations(400);
+        properties.setRounds(4);
+        List<Object> events = new ArrayList<>();
+        WarmupRunner runner = new WarmupRunner(properties, mapper, events::add);
+
+        assertEquals(WarmupReport.State.PENDING, runner.getReport().state());
+        runner.run(new DefaultApplicationArguments());
+        WarmupReport report = runner.getReport();
+
+        assertEquals(WarmupReport.State.COMPLETED, report.state(), "Прогрев не должен завершаться ошибкой: "
+                + report.error());
+        assertEquals(4, report.rounds());
+        assertEquals(Set.of("films.popular", "users.mutual-friends", "json.write", "json.read"),
+                report.operations().keySet());
+        report.operations().values().forEach(effect -> assertTrue(effect.firstRoundMicros() > 0
+                && effect.lastRoundMicros() > 0, "Время операций должно замеряться: " + report.operations()));
+        assertEquals(1, events.size());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, ((AvailabilityChangeEvent<?>) events.get(0)).getState());
+    }
+
+    @Test // Без filmorate.warmup.enabled прогрев не выполняется и готовность не меняется
+    void shouldSkipWhenDisabled() {
+        List<Object> events = new ArrayList<>();
+        WarmupRunner runner = new WarmupRunner(new WarmupProperties(), mapper, events::add);
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertEquals(WarmupReport.State.DISABLED, runner.getReport().state());
+        assertTrue(events.isEmpty());
+    }
+}